@@ -2,12 +2,14 @@ package com.kursova;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Electronic Department System
  * BZ-121-23-1 Variant 10
  */
 @SpringBootApplication
+@EnableScheduling
 public class App {
 
     public static void main(String[] args) {
@@ -0,0 +1,47 @@
+package com.kursova.bll.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO describing the result of moving all active groups to the next course
+ */
+public class AcademicYearRolloverDto {
+
+    private List<Long> promotedGroupIds = new ArrayList<>();
+    private int promotedStudentCount;
+    // Groups already in the last course of their education level, or without a level, left as they were
+    private List<Long> skippedGroupIds = new ArrayList<>();
+
+    public AcademicYearRolloverDto() {}
+
+    public AcademicYearRolloverDto(List<Long> promotedGroupIds, int promotedStudentCount, List<Long> skippedGroupIds) {
+        this.promotedGroupIds = promotedGroupIds;
+        this.promotedStudentCount = promotedStudentCount;
+        this.skippedGroupIds = skippedGroupIds;
+    }
+
+    public List<Long> getPromotedGroupIds() {
+        return promotedGroupIds;
+    }
+
+    public void setPromotedGroupIds(List<Long> promotedGroupIds) {
+        this.promotedGroupIds = promotedGroupIds;
+    }
+
+    public int getPromotedStudentCount() {
+        return promotedStudentCount;
+    }
+
+    public void setPromotedStudentCount(int promotedStudentCount) {
+        this.promotedStudentCount = promotedStudentCount;
+    }
+
+    public List<Long> getSkippedGroupIds() {
+        return skippedGroupIds;
+    }
+
+    public void setSkippedGroupIds(List<Long> skippedGroupIds) {
+        this.skippedGroupIds = skippedGroupIds;
+    }
+}
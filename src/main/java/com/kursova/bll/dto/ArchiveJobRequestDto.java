@@ -0,0 +1,77 @@
+package com.kursova.bll.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for submitting a background archive job
+ */
+public class ArchiveJobRequestDto {
+
+    public enum Scope {
+        GROUP,      // All students of a group with their grades, then the group itself
+        STUDENTS,   // Given students with their grades
+        DATE_RANGE  // Grades given within the date range, students stay
+    }
+
+    @NotNull(message = "Scope is required")
+    private Scope scope;
+
+    private Long groupId;
+    private List<Long> studentIds;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String reason;
+
+    public ArchiveJobRequestDto() {}
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public void setScope(Scope scope) {
+        this.scope = scope;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public List<Long> getStudentIds() {
+        return studentIds;
+    }
+
+    public void setStudentIds(List<Long> studentIds) {
+        this.studentIds = studentIds;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,111 @@
+package com.kursova.bll.dto;
+
+import com.kursova.dal.entities.GradeType;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for entering many grades of one subject and teacher at once
+ */
+public class BulkGradeRequestDto {
+
+    @NotNull(message = "Teacher ID is required")
+    private Long teacherId;
+
+    @NotNull(message = "Subject ID is required")
+    private Long subjectId;
+
+    private GradeType gradeType; // Default grade type for entries without their own
+
+    @NotEmpty(message = "At least one grade is required")
+    private List<Entry> grades = new ArrayList<>();
+
+    public BulkGradeRequestDto() {}
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public GradeType getGradeType() {
+        return gradeType;
+    }
+
+    public void setGradeType(GradeType gradeType) {
+        this.gradeType = gradeType;
+    }
+
+    public List<Entry> getGrades() {
+        return grades;
+    }
+
+    public void setGrades(List<Entry> grades) {
+        this.grades = grades;
+    }
+
+    /**
+     * Single grade of the bulk request
+     */
+    public static class Entry {
+
+        private Long studentId;
+        private Integer gradeValue;
+        private GradeType gradeType;
+        private String comments;
+
+        public Entry() {}
+
+        public Entry(Long studentId, Integer gradeValue, GradeType gradeType, String comments) {
+            this.studentId = studentId;
+            this.gradeValue = gradeValue;
+            this.gradeType = gradeType;
+            this.comments = comments;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public void setStudentId(Long studentId) {
+            this.studentId = studentId;
+        }
+
+        public Integer getGradeValue() {
+            return gradeValue;
+        }
+
+        public void setGradeValue(Integer gradeValue) {
+            this.gradeValue = gradeValue;
+        }
+
+        public GradeType getGradeType() {
+            return gradeType;
+        }
+
+        public void setGradeType(GradeType gradeType) {
+            this.gradeType = gradeType;
+        }
+
+        public String getComments() {
+            return comments;
+        }
+
+        public void setComments(String comments) {
+            this.comments = comments;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.kursova.bll.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO with the per-row outcome of a bulk grade request
+ */
+public class BulkGradeResultDto {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        STUDENT_NOT_FOUND,
+        DUPLICATE
+    }
+
+    private int created;
+    private int rejected;
+    private List<Row> rows = new ArrayList<>();
+
+    public BulkGradeResultDto() {}
+
+    public void addRow(Row row) {
+        rows.add(row);
+        if (row.getStatus() == Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * Outcome of one request entry, index is its position in the request
+     */
+    public static class Row {
+
+        private int index;
+        private Long studentId;
+        private Status status;
+        private Long gradeId;
+        private String message;
+
+        public Row() {}
+
+        public Row(int index, Long studentId, Status status, Long gradeId, String message) {
+            this.index = index;
+            this.studentId = studentId;
+            this.status = status;
+            this.gradeId = gradeId;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Long getGradeId() {
+            return gradeId;
+        }
+
+        public void setGradeId(Long gradeId) {
+            this.gradeId = gradeId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
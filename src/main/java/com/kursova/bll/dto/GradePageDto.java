@@ -0,0 +1,45 @@
+package com.kursova.bll.dto;
+
+import java.util.List;
+
+/**
+ * DTO for a keyset-paged slice of grades
+ */
+public class GradePageDto {
+
+    private List<GradeDto> items;
+    private String nextCursor; // Opaque cursor for the next page, null when there are no more rows
+    private boolean hasMore;
+
+    public GradePageDto() {}
+
+    public GradePageDto(List<GradeDto> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<GradeDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<GradeDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,91 @@
+package com.kursova.bll.dto;
+
+import com.kursova.dal.entities.GradeType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar gradebook of one group in one subject: grades[i][j] is the grade of studentIds[i]
+ * for gradeTypes[j], or noGrade when the student has no grade of that type
+ */
+public class GradebookDto {
+
+    public static final int NO_GRADE = -1;
+
+    private Long groupId;
+    private Long subjectId;
+    private List<Long> studentIds = new ArrayList<>();
+    private List<String> studentNames = new ArrayList<>();
+    private List<GradeType> gradeTypes = new ArrayList<>();
+    private int[][] grades = new int[0][];
+    private int noGrade = NO_GRADE;
+
+    public GradebookDto() {}
+
+    public GradebookDto(Long groupId, Long subjectId, List<Long> studentIds, List<String> studentNames,
+                        List<GradeType> gradeTypes, int[][] grades) {
+        this.groupId = groupId;
+        this.subjectId = subjectId;
+        this.studentIds = studentIds;
+        this.studentNames = studentNames;
+        this.gradeTypes = gradeTypes;
+        this.grades = grades;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public List<Long> getStudentIds() {
+        return studentIds;
+    }
+
+    public void setStudentIds(List<Long> studentIds) {
+        this.studentIds = studentIds;
+    }
+
+    public List<String> getStudentNames() {
+        return studentNames;
+    }
+
+    public void setStudentNames(List<String> studentNames) {
+        this.studentNames = studentNames;
+    }
+
+    public List<GradeType> getGradeTypes() {
+        return gradeTypes;
+    }
+
+    public void setGradeTypes(List<GradeType> gradeTypes) {
+        this.gradeTypes = gradeTypes;
+    }
+
+    public int[][] getGrades() {
+        return grades;
+    }
+
+    public void setGrades(int[][] grades) {
+        this.grades = grades;
+    }
+
+    public int getNoGrade() {
+        return noGrade;
+    }
+
+    public void setNoGrade(int noGrade) {
+        this.noGrade = noGrade;
+    }
+}
@@ -0,0 +1,56 @@
+package com.kursova.bll.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO describing what a group membership replacement actually changed
+ */
+public class GroupMembershipDeltaDto {
+
+    private Long groupId;
+    private List<Long> addedStudentIds = new ArrayList<>();
+    private List<Long> removedStudentIds = new ArrayList<>();
+    private int unchangedCount;
+
+    public GroupMembershipDeltaDto() {}
+
+    public GroupMembershipDeltaDto(Long groupId, List<Long> addedStudentIds, List<Long> removedStudentIds, int unchangedCount) {
+        this.groupId = groupId;
+        this.addedStudentIds = addedStudentIds;
+        this.removedStudentIds = removedStudentIds;
+        this.unchangedCount = unchangedCount;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public List<Long> getAddedStudentIds() {
+        return addedStudentIds;
+    }
+
+    public void setAddedStudentIds(List<Long> addedStudentIds) {
+        this.addedStudentIds = addedStudentIds;
+    }
+
+    public List<Long> getRemovedStudentIds() {
+        return removedStudentIds;
+    }
+
+    public void setRemovedStudentIds(List<Long> removedStudentIds) {
+        this.removedStudentIds = removedStudentIds;
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    public void setUnchangedCount(int unchangedCount) {
+        this.unchangedCount = unchangedCount;
+    }
+}
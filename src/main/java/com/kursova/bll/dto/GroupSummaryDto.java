@@ -0,0 +1,76 @@
+package com.kursova.bll.dto;
+
+import com.kursova.dal.entities.EducationLevel;
+import com.kursova.dal.entities.StudyForm;
+
+/**
+ * Compact group row for assignment pickers, without students or subjects
+ */
+public class GroupSummaryDto {
+
+    private Long id;
+    private String groupName;
+    private String groupCode;
+    private EducationLevel educationLevel;
+    private Integer courseYear;
+    private StudyForm studyForm;
+
+    public GroupSummaryDto() {}
+
+    public GroupSummaryDto(Long id, String groupName, String groupCode, EducationLevel educationLevel, Integer courseYear, StudyForm studyForm) {
+        this.id = id;
+        this.groupName = groupName;
+        this.groupCode = groupCode;
+        this.educationLevel = educationLevel;
+        this.courseYear = courseYear;
+        this.studyForm = studyForm;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getGroupName() {
+        return groupName;
+    }
+
+    public void setGroupName(String groupName) {
+        this.groupName = groupName;
+    }
+
+    public String getGroupCode() {
+        return groupCode;
+    }
+
+    public void setGroupCode(String groupCode) {
+        this.groupCode = groupCode;
+    }
+
+    public EducationLevel getEducationLevel() {
+        return educationLevel;
+    }
+
+    public void setEducationLevel(EducationLevel educationLevel) {
+        this.educationLevel = educationLevel;
+    }
+
+    public Integer getCourseYear() {
+        return courseYear;
+    }
+
+    public void setCourseYear(Integer courseYear) {
+        this.courseYear = courseYear;
+    }
+
+    public StudyForm getStudyForm() {
+        return studyForm;
+    }
+
+    public void setStudyForm(StudyForm studyForm) {
+        this.studyForm = studyForm;
+    }
+}
@@ -0,0 +1,67 @@
+package com.kursova.bll.dto;
+
+/**
+ * Compact student row for search suggestions, without group details or calculated grades
+ */
+public class StudentSummaryDto {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String studentNumber;
+
+    public StudentSummaryDto() {}
+
+    public StudentSummaryDto(Long id, String firstName, String lastName, String email, String studentNumber) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.studentNumber = studentNumber;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+
+    public void setStudentNumber(String studentNumber) {
+        this.studentNumber = studentNumber;
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
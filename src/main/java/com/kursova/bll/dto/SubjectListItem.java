@@ -0,0 +1,128 @@
+package com.kursova.bll.dto;
+
+import com.kursova.dal.entities.AssessmentType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight subject row for list endpoints: no hours or descriptions, teachers reduced to id and name
+ */
+public class SubjectListItem {
+
+    private Long id;
+    private String subjectName;
+    private String subjectCode;
+    private Integer credits;
+    private Integer semester;
+    private AssessmentType assessmentType;
+    private Boolean isActive;
+    private List<TeacherRef> teachers = new ArrayList<>();
+    private int groupCount;
+
+    public SubjectListItem() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public void setSubjectName(String subjectName) {
+        this.subjectName = subjectName;
+    }
+
+    public String getSubjectCode() {
+        return subjectCode;
+    }
+
+    public void setSubjectCode(String subjectCode) {
+        this.subjectCode = subjectCode;
+    }
+
+    public Integer getCredits() {
+        return credits;
+    }
+
+    public void setCredits(Integer credits) {
+        this.credits = credits;
+    }
+
+    public Integer getSemester() {
+        return semester;
+    }
+
+    public void setSemester(Integer semester) {
+        this.semester = semester;
+    }
+
+    public AssessmentType getAssessmentType() {
+        return assessmentType;
+    }
+
+    public void setAssessmentType(AssessmentType assessmentType) {
+        this.assessmentType = assessmentType;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    public List<TeacherRef> getTeachers() {
+        return teachers;
+    }
+
+    public void setTeachers(List<TeacherRef> teachers) {
+        this.teachers = teachers;
+    }
+
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+    public void setGroupCount(int groupCount) {
+        this.groupCount = groupCount;
+    }
+
+    /**
+     * Teacher assigned to the subject
+     */
+    public static class TeacherRef {
+
+        private Long id;
+        private String fullName;
+
+        public TeacherRef() {}
+
+        public TeacherRef(Long id, String fullName) {
+            this.id = id;
+            this.fullName = fullName;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public void setFullName(String fullName) {
+            this.fullName = fullName;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kursova.bll.dto;
+
+/**
+ * Compact teacher row for assignment pickers, without subjects or profile details
+ */
+public class TeacherSummaryDto {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String academicTitle;
+    private String departmentPosition;
+
+    public TeacherSummaryDto() {}
+
+    public TeacherSummaryDto(Long id, String firstName, String lastName, String email, String academicTitle, String departmentPosition) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.academicTitle = academicTitle;
+        this.departmentPosition = departmentPosition;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getAcademicTitle() {
+        return academicTitle;
+    }
+
+    public void setAcademicTitle(String academicTitle) {
+        this.academicTitle = academicTitle;
+    }
+
+    public String getDepartmentPosition() {
+        return departmentPosition;
+    }
+
+    public void setDepartmentPosition(String departmentPosition) {
+        this.departmentPosition = departmentPosition;
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
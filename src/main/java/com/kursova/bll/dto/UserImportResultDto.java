@@ -0,0 +1,98 @@
+package com.kursova.bll.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO with the per-line outcome of a CSV user import
+ */
+public class UserImportResultDto {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE,
+        GROUP_NOT_FOUND
+    }
+
+    private int created;
+    private int rejected;
+    private List<Row> rows = new ArrayList<>();
+
+    public UserImportResultDto() {}
+
+    public void addRow(Row row) {
+        rows.add(row);
+        if (row.getStatus() == Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * Outcome of one data line, line is its 1-based number in the file (the header is line 1)
+     */
+    public static class Row {
+
+        private int line;
+        private String username;
+        private Status status;
+        private Long userId;
+        private Long studentId;
+        private String message;
+
+        public Row() {}
+
+        public Row(int line, String username, Status status, String message) {
+            this.line = line;
+            this.username = username;
+            this.status = status;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public void setStudentId(Long studentId) {
+            this.studentId = studentId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
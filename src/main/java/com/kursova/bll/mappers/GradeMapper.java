@@ -2,6 +2,7 @@ package com.kursova.bll.mappers;
 
 import com.kursova.bll.dto.GradeDto;
 import com.kursova.dal.entities.Grade;
+import com.kursova.dal.repositories.GradeListRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -46,6 +47,15 @@ public interface GradeMapper {
 
     List<GradeDto> toDtoList(List<Grade> entities);
 
+    // Grade list rows already carry the student, teacher, subject and group columns
+    @Mapping(target = "gradeDate", source = "gradeDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "createdAt", source = "createdAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "updatedAt", source = "updatedAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "gradeCategory", expression = "java(row.gradeCategoryEnum() != null ? row.gradeCategoryEnum().getDisplayName() : null)")
+    GradeDto rowToDto(GradeListRow row);
+
+    List<GradeDto> rowsToDtoList(List<GradeListRow> rows);
+
     List<Grade> toEntityList(List<GradeDto> dtos);
 
     @Mapping(target = "id", ignore = true)
@@ -39,6 +39,14 @@ public interface StudentGroupMapper {
     @Named("toDtoSimple")
     StudentGroupDto toDtoSimple(StudentGroup entity);
 
+    // For lists where the student count comes from a grouped query instead of the lazy students collection
+    @Mapping(target = "students", ignore = true)
+    @Mapping(target = "createdAt", source = "entity.createdAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "updatedAt", source = "entity.updatedAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "currentStudentCount", source = "studentCount")
+    @Named("toDtoWithCount")
+    StudentGroupDto toDtoWithCount(StudentGroup entity, Integer studentCount);
+
     @Named("toDtoList")
     @IterableMapping(qualifiedByName = "toDtoSimple")
     List<StudentGroupDto> toDtoList(List<StudentGroup> entities);
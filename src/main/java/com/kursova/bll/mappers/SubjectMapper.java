@@ -21,7 +21,7 @@ public interface SubjectMapper {
     @Mapping(target = "createdAt", source = "createdAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
     @Mapping(target = "updatedAt", source = "updatedAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
     @Mapping(target = "teachers", ignore = true) // Handle teachers separately to avoid circular dependency
-    @Mapping(target = "groupCount", expression = "java(entity.getGroups() != null ? entity.getGroups().size() : 0)")
+    @Mapping(target = "groupCount", expression = "java(entity.getGroups() != null && org.hibernate.Hibernate.isInitialized(entity.getGroups()) ? entity.getGroups().size() : null)") // Lists set it from a count query
     SubjectDto toDto(Subject entity);
 
     @Mapping(target = "createdAt", ignore = true)
@@ -32,7 +32,7 @@ public interface SubjectMapper {
     Subject toEntity(SubjectDto dto);
 
     @Mapping(target = "teachers", ignore = true)
-    @Mapping(target = "groupCount", expression = "java(entity.getGroups() != null ? entity.getGroups().size() : 0)")
+    @Mapping(target = "groupCount", expression = "java(entity.getGroups() != null && org.hibernate.Hibernate.isInitialized(entity.getGroups()) ? entity.getGroups().size() : null)") // Lists set it from a count query
     List<SubjectDto> toDtoList(List<Subject> entities);
 
     List<Subject> toEntityList(List<SubjectDto> dtos);
@@ -50,6 +50,6 @@ public interface SubjectMapper {
     @Mapping(target = "teachers", ignore = true)
     @Mapping(target = "createdAt", source = "createdAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
     @Mapping(target = "updatedAt", source = "updatedAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
-    @Mapping(target = "groupCount", expression = "java(entity.getGroups() != null ? entity.getGroups().size() : 0)")
+    @Mapping(target = "groupCount", expression = "java(entity.getGroups() != null && org.hibernate.Hibernate.isInitialized(entity.getGroups()) ? entity.getGroups().size() : null)") // Lists set it from a count query
     SubjectDto toDtoSimple(Subject entity);
 }
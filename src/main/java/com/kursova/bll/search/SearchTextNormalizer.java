@@ -0,0 +1,66 @@
+package com.kursova.bll.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalizes names and emails for substring search: case folding, diacritics removal
+ * (й→и, ї→і, ё→е), ґ→г, Cyrillic і treated as Latin i, apostrophes dropped, whitespace collapsed
+ */
+public final class SearchTextNormalizer {
+
+    public static final int GRAM_SIZE = 3;
+
+    private SearchTextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || isApostrophe(c)) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = result.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                result.append(' ');
+                pendingSpace = false;
+            }
+            result.append(fold(c));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Distinct trigrams of already normalized text; empty when the text is shorter than a trigram
+     */
+    public static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static char fold(char c) {
+        return switch (c) {
+            case 'ґ' -> 'г';
+            case 'і' -> 'i';
+            default -> c;
+        };
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '`' || c == '’' || c == 'ʼ';
+    }
+}
@@ -0,0 +1,296 @@
+package com.kursova.bll.search;
+
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.dal.uow.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory trigram index over user first name, last name and email.
+ * Built from the database at startup and kept current by {@link com.kursova.config.UserSearchIndexSync}
+ * after each committed user change. Until the first build finishes {@link #isReady()} is false
+ * and callers fall back to database search.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    private static final Comparator<Match> RANKING = Comparator
+            .comparingInt(Match::score)
+            .thenComparing(m -> m.entry().lastName())
+            .thenComparing(m -> m.entry().firstName())
+            .thenComparingLong(m -> m.entry().userId());
+
+    private final UnitOfWork unitOfWork;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, Entry> entries = new HashMap<>();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    // Changes committed while a rebuild is loading rows; null entry means removal
+    private Map<Long, Entry> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public UserSearchIndex(UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload the whole index from the users table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Entry> loadedEntries = new HashMap<>();
+        Map<String, Set<Long>> loadedPostings = new HashMap<>();
+        try {
+            for (Object[] row : unitOfWork.getUserRepository().findSearchIndexRows()) {
+                Entry entry = Entry.of((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (UserRole) row[4]);
+                loadedEntries.put(entry.userId(), entry);
+                addPostings(loadedPostings, entry);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Could not build user search index, database search stays in use: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries = loadedEntries;
+            postings = loadedPostings;
+            changesDuringRebuild.forEach((userId, entry) -> {
+                removeEntry(userId);
+                if (entry != null) {
+                    putEntry(entry);
+                }
+            });
+            changesDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User search index built with {} users", loadedEntries.size());
+    }
+
+    /**
+     * Add or refresh a user in the index
+     */
+    public void upsert(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Entry entry = Entry.of(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getRole());
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(entry.userId(), entry);
+            }
+            removeEntry(entry.userId());
+            putEntry(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a user from the index
+     */
+    public void remove(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(userId, null);
+            }
+            removeEntry(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find user ids whose name or email contains the query, best matches first:
+     * exact match, then name prefix, then email prefix, then word prefix, then any substring.
+     *
+     * @param role only users with this role, or any role when null
+     */
+    public List<Long> search(String query, UserRole role, int limit) {
+        String normalized = SearchTextNormalizer.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Entry entry : candidates(normalized)) {
+                if ((role == null || entry.role() == role) && entry.haystack().contains(normalized)) {
+                    matches.add(new Match(entry, score(entry, normalized)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return matches.stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(m -> m.entry().userId())
+                .toList();
+    }
+
+    /**
+     * Order rows loaded for ranked user ids the way the search ranked them
+     */
+    public static <T> List<T> inRankOrder(List<Long> rankedUserIds, Collection<T> items, Function<T, Long> userIdOf) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < rankedUserIds.size(); i++) {
+            positions.put(rankedUserIds.get(i), i);
+        }
+        return items.stream()
+                .sorted(Comparator.comparingInt(item -> positions.getOrDefault(userIdOf.apply(item), Integer.MAX_VALUE)))
+                .toList();
+    }
+
+    private Collection<Entry> candidates(String normalized) {
+        Set<String> grams = SearchTextNormalizer.trigrams(normalized);
+        if (grams.isEmpty()) {
+            return entries.values();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Entry> result = new ArrayList<>();
+        for (Long userId : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(userId);
+            }
+            if (inAll) {
+                result.add(entries.get(userId));
+            }
+        }
+        return result;
+    }
+
+    private static int score(Entry entry, String query) {
+        if (query.equals(entry.firstName()) || query.equals(entry.lastName())
+                || query.equals(entry.fullName()) || query.equals(entry.reversedName())
+                || query.equals(entry.email())) {
+            return 0;
+        }
+        if (entry.lastName().startsWith(query) || entry.firstName().startsWith(query)
+                || entry.fullName().startsWith(query) || entry.reversedName().startsWith(query)) {
+            return 1;
+        }
+        if (entry.email().startsWith(query)) {
+            return 2;
+        }
+        if (entry.fullName().contains(" " + query)) {
+            return 3;
+        }
+        return 4;
+    }
+
+    private void putEntry(Entry entry) {
+        entries.put(entry.userId(), entry);
+        addPostings(postings, entry);
+    }
+
+    private void removeEntry(Long userId) {
+        Entry previous = entries.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : SearchTextNormalizer.trigrams(previous.haystack())) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(userId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void addPostings(Map<String, Set<Long>> target, Entry entry) {
+        for (String gram : SearchTextNormalizer.trigrams(entry.haystack())) {
+            target.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.userId());
+        }
+    }
+
+    private record Match(Entry entry, int score) {
+    }
+
+    /**
+     * Normalized searchable fields of one user. The haystack joins both name orders and the email
+     * with line breaks, which never occur in a normalized query, so matches cannot span fields.
+     */
+    private record Entry(long userId, UserRole role, String firstName, String lastName, String email,
+                         String fullName, String reversedName, String haystack) {
+
+        static Entry of(Long userId, String firstName, String lastName, String email, UserRole role) {
+            String first = SearchTextNormalizer.normalize(firstName);
+            String last = SearchTextNormalizer.normalize(lastName);
+            String mail = SearchTextNormalizer.normalize(email);
+            String fullName = (first + " " + last).trim();
+            String reversedName = (last + " " + first).trim();
+            return new Entry(userId, role, first, last, mail, fullName, reversedName,
+                    fullName + "\n" + reversedName + "\n" + mail);
+        }
+    }
+}
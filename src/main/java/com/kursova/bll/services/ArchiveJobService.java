@@ -0,0 +1,28 @@
+package com.kursova.bll.services;
+
+import com.kursova.bll.dto.ArchiveJobRequestDto;
+import com.kursova.bll.dto.ArchiveJobStatusDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for background archive jobs
+ */
+public interface ArchiveJobService {
+
+    /**
+     * Validate and queue an archive job, returns its initial status
+     */
+    ArchiveJobStatusDto submit(ArchiveJobRequestDto request, String submittedBy);
+
+    /**
+     * Get current status of a job
+     */
+    Optional<ArchiveJobStatusDto> getStatus(String jobId);
+
+    /**
+     * Get status of all retained jobs (newest first)
+     */
+    List<ArchiveJobStatusDto> getJobs();
+}
@@ -6,6 +6,7 @@ import com.kursova.dal.entities.ArchivedStudentGroup;
 import com.kursova.dal.entities.Grade;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,6 +34,26 @@ public interface ArchiveService {
      */
     void archiveStudent(Long studentId, String archivedBy, String reason);
 
+    /**
+     * Archive students together with their grades in chunked transactions,
+     * returns the number of students archived
+     */
+    long archiveStudents(Collection<Long> studentIds, String archivedBy, String reason, ProgressListener progress);
+
+    /**
+     * Move all grades given within date range to the archive in chunked transactions,
+     * returns the number of grades archived
+     */
+    long archiveGradesInDateRange(LocalDateTime startDate, LocalDateTime endDate, String archivedBy, String reason,
+                                  ProgressListener progress);
+
+    /**
+     * Move all grades of the given students to the archive in chunked transactions,
+     * returns the number of grades archived
+     */
+    long archiveGradesOfStudents(Collection<Long> studentIds, String archivedBy, String reason,
+                                 ProgressListener progress);
+
     /**
      * Get all archived groups
      */
@@ -93,6 +114,14 @@ public interface ArchiveService {
      */
     void deleteArchivedGrade(Long archivedGradeId);
 
+    /**
+     * Callback for progress of chunked archive operations
+     */
+    @FunctionalInterface
+    interface ProgressListener {
+        void onProgress(long processed, long total);
+    }
+
     /**
          * Inner class for archive statistics
          */
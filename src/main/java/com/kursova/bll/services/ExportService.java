@@ -0,0 +1,22 @@
+package com.kursova.bll.services;
+
+import com.kursova.dal.repositories.GradeExportFilter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Service interface for CSV exports written straight from a database cursor
+ */
+public interface ExportService {
+
+    /**
+     * Write the grades matching the filter as CSV (header first, newest grade first)
+     */
+    void writeGradesCsv(GradeExportFilter filter, Writer writer) throws IOException;
+
+    /**
+     * Write the archived grades matching the filter as CSV (header first, newest archived first)
+     */
+    void writeArchivedGradesCsv(GradeExportFilter filter, Writer writer) throws IOException;
+}
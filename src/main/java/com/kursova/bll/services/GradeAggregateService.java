@@ -0,0 +1,30 @@
+package com.kursova.bll.services;
+
+import java.util.Collection;
+
+/**
+ * Service interface for maintaining materialized grade aggregates
+ */
+public interface GradeAggregateService {
+
+    /**
+     * Add a grade to the student x subject and per-student aggregates
+     */
+    void recordGradeAdded(Long studentId, Long subjectId, Integer gradeValue, Boolean isFinal);
+
+    /**
+     * Remove a grade from the student x subject and per-student aggregates.
+     * Must be called after the grade itself has been removed or changed.
+     */
+    void recordGradeRemoved(Long studentId, Long subjectId, Integer gradeValue, Boolean isFinal);
+
+    /**
+     * Recompute all aggregates of the given students from the grades table (used after bulk writes)
+     */
+    void rebuildForStudents(Collection<Long> studentIds);
+
+    /**
+     * Rebuild all aggregates from the grades table, returns number of aggregate rows written
+     */
+    int rebuildAll();
+}
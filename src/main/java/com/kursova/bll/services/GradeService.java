@@ -1,10 +1,15 @@
 package com.kursova.bll.services;
 
+import com.kursova.bll.dto.BulkGradeRequestDto;
+import com.kursova.bll.dto.BulkGradeResultDto;
 import com.kursova.bll.dto.GradeDto;
+import com.kursova.bll.dto.GradePageDto;
+import com.kursova.bll.dto.GradebookDto;
 import com.kursova.dal.entities.GradeType;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Grade operations
@@ -66,6 +71,11 @@ public interface GradeService extends BaseService<GradeDto, Long> {
      */
     List<Object[]> getTopPerformingStudents();
 
+    /**
+     * Rebuild materialized grade aggregates from the grades table
+     */
+    int rebuildGradeAggregates();
+
     /**
      * Count grades by teacher and subject
      */
@@ -77,6 +87,18 @@ public interface GradeService extends BaseService<GradeDto, Long> {
     GradeDto createGradeWithValidation(Long studentId, Long teacherId, Long subjectId,
                                       Integer gradeValue, GradeType gradeType, String comments);
 
+    /**
+     * Set the grade of a student in a subject for a grade type: create it, or replace the value of the existing
+     * grade when it differs (the previous value is archived)
+     */
+    GradeDto setGrade(Long studentId, Long teacherId, Long subjectId,
+                      Integer gradeValue, GradeType gradeType, String comments);
+
+    /**
+     * Create many grades of one subject and teacher at once, reporting the outcome of every entry
+     */
+    BulkGradeResultDto createGradesBulk(BulkGradeRequestDto request);
+
     /**
      * Update grade with validation
      */
@@ -86,4 +108,19 @@ public interface GradeService extends BaseService<GradeDto, Long> {
      * Mark grade as final
      */
     GradeDto markAsFinal(Long gradeId);
+
+    /**
+     * Build the student by grade type gradebook of a group in a subject
+     */
+    GradebookDto getGroupGradebook(Long groupId, Long subjectId);
+
+    /**
+     * Find a page of grades (newest first) using a keyset cursor on (gradeDate, id)
+     */
+    GradePageDto findPage(String cursor, int limit);
+
+    /**
+     * Stream all grades (newest first) to the consumer without loading them into memory at once
+     */
+    void streamAll(Consumer<GradeDto> consumer);
 }
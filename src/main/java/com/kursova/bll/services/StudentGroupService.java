@@ -1,7 +1,10 @@
 package com.kursova.bll.services;
 
+import com.kursova.bll.dto.AcademicYearRolloverDto;
+import com.kursova.bll.dto.GroupMembershipDeltaDto;
 import com.kursova.bll.dto.StudentGroupDto;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service interface for Student Group management
@@ -62,4 +65,14 @@ public interface StudentGroupService extends BaseService<StudentGroupDto, Long>
      * Find groups taught by specific teacher
      */
     List<StudentGroupDto> findGroupsByTeacherId(Long teacherId);
+
+    /**
+     * Replace group members with the given students, returning only what changed
+     */
+    GroupMembershipDeltaDto replaceMembers(Long groupId, Set<Long> studentIds);
+
+    /**
+     * Move every active group and its active students to the next course
+     */
+    AcademicYearRolloverDto rolloverAcademicYear();
 }
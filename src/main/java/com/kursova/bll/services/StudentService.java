@@ -1,6 +1,7 @@
 package com.kursova.bll.services;
 
 import com.kursova.bll.dto.StudentDto;
+import com.kursova.bll.dto.StudentSummaryDto;
 import java.util.List;
 
 /**
@@ -33,6 +34,11 @@ public interface StudentService extends BaseService<StudentDto, Long> {
      */
     List<StudentDto> findStudentsWithoutGroup();
 
+    /**
+     * Search active students without group by name or email, returning at most limit compact rows
+     */
+    List<StudentSummaryDto> searchWithoutGroup(String searchTerm, int limit);
+
     /**
      * Find students by enrollment year
      */
@@ -1,6 +1,9 @@
 package com.kursova.bll.services;
 
+import com.kursova.bll.dto.GroupSummaryDto;
 import com.kursova.bll.dto.SubjectDto;
+import com.kursova.bll.dto.SubjectListItem;
+import com.kursova.bll.dto.TeacherSummaryDto;
 import com.kursova.dal.entities.AssessmentType;
 
 import java.util.List;
@@ -20,6 +23,16 @@ public interface SubjectService extends BaseService<SubjectDto, Long> {
      */
     List<SubjectDto> findActiveSubjects();
 
+    /**
+     * Find active subjects as lightweight list items
+     */
+    List<SubjectListItem> findActiveSubjectListItems();
+
+    /**
+     * Count active subjects
+     */
+    long countActiveSubjects();
+
     /**
      * Search subjects by name
      */
@@ -86,9 +99,10 @@ public interface SubjectService extends BaseService<SubjectDto, Long> {
     List<Object> getAssignedGroups(Long subjectId);
 
     /**
-     * Get available groups for subject
+     * Get the groups not yet assigned to the subject, optionally filtered by name or code;
+     * all of them when size is null, otherwise the requested page
      */
-    List<Object> getAvailableGroups(Long subjectId);
+    List<GroupSummaryDto> getAvailableGroups(Long subjectId, String searchTerm, int page, Integer size);
 
     /**
      * Add group to subject
@@ -106,7 +120,8 @@ public interface SubjectService extends BaseService<SubjectDto, Long> {
     List<Object> getAssignedTeachers(Long subjectId);
 
     /**
-     * Get available teachers for subject
+     * Get the teachers not yet assigned to the subject, optionally filtered by name or email;
+     * all of them when size is null, otherwise the requested page
      */
-    List<Object> getAvailableTeachers(Long subjectId);
+    List<TeacherSummaryDto> getAvailableTeachers(Long subjectId, String searchTerm, int page, Integer size);
 }
@@ -28,6 +28,11 @@ public interface TeacherService extends BaseService<TeacherDto, Long> {
      */
     List<TeacherDto> findActiveTeachers();
 
+    /**
+     * Count active teachers
+     */
+    long countActiveTeachers();
+
     /**
      * Search teachers by name
      */
@@ -0,0 +1,19 @@
+package com.kursova.bll.services;
+
+import com.kursova.bll.dto.UserImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for importing users and students from CSV
+ */
+public interface UserImportService {
+
+    /**
+     * Import users from UTF-8 CSV with a header line (username, email, first_name, last_name, password and
+     * optionally role, student_number, group_code), creating the student rows of STUDENT users and the
+     * teacher rows of TEACHER users, and report the outcome of every line
+     */
+    UserImportResultDto importCsv(InputStream csv) throws IOException;
+}
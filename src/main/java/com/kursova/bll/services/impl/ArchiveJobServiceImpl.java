@@ -0,0 +1,234 @@
+package com.kursova.bll.services.impl;
+
+import com.kursova.bll.dto.ArchiveJobRequestDto;
+import com.kursova.bll.dto.ArchiveJobStatusDto;
+import com.kursova.bll.services.ArchiveJobService;
+import com.kursova.bll.services.ArchiveService;
+import com.kursova.dal.uow.UnitOfWork;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of ArchiveJobService.
+ * Jobs run on a small bounded pool outside of any request transaction; ArchiveService commits each chunk
+ * separately, so a job can be polled while it runs and a failure keeps the chunks already archived.
+ */
+@Service
+public class ArchiveJobServiceImpl implements ArchiveJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveJobServiceImpl.class);
+
+    private static final int MAX_RETAINED_JOBS = 100;
+    private static final String DEFAULT_REASON = "Archive job";
+
+    private final ArchiveService archiveService;
+    private final UnitOfWork unitOfWork;
+    private final ExecutorService executor;
+    private final Map<String, ArchiveJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ArchiveJobServiceImpl(ArchiveService archiveService, UnitOfWork unitOfWork,
+                                 @Value("${app.archive.jobs.concurrency:1}") int concurrency,
+                                 @Value("${app.archive.jobs.queue-capacity:20}") int queueCapacity) {
+        this(archiveService, unitOfWork, new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("archive-job-")));
+    }
+
+    public ArchiveJobServiceImpl(ArchiveService archiveService, UnitOfWork unitOfWork, ExecutorService executor) {
+        this.archiveService = archiveService;
+        this.unitOfWork = unitOfWork;
+        this.executor = executor;
+    }
+
+    @Override
+    public ArchiveJobStatusDto submit(ArchiveJobRequestDto request, String submittedBy) {
+        validate(request);
+
+        ArchiveJob job = new ArchiveJob(UUID.randomUUID().toString(), request.getScope(), submittedBy);
+        pruneFinishedJobs();
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new IllegalStateException("Too many archive jobs are queued, try again later");
+        }
+        log.info("Archive job {} ({}) submitted by {}", job.id, job.scope, submittedBy);
+        return job.toDto();
+    }
+
+    @Override
+    public Optional<ArchiveJobStatusDto> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ArchiveJob::toDto);
+    }
+
+    @Override
+    public List<ArchiveJobStatusDto> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((ArchiveJob job) -> job.submittedAt).reversed())
+                .map(ArchiveJob::toDto)
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void validate(ArchiveJobRequestDto request) {
+        if (request.getScope() == null) {
+            throw new IllegalArgumentException("Scope is required");
+        }
+        switch (request.getScope()) {
+            case GROUP -> {
+                if (request.getGroupId() == null) {
+                    throw new IllegalArgumentException("Group ID is required");
+                }
+                if (!unitOfWork.getStudentGroupRepository().existsById(request.getGroupId())) {
+                    throw new RuntimeException("StudentGroup not found with id: " + request.getGroupId());
+                }
+            }
+            case STUDENTS -> {
+                if (request.getStudentIds() == null || request.getStudentIds().isEmpty()) {
+                    throw new IllegalArgumentException("At least one student ID is required");
+                }
+            }
+            case DATE_RANGE -> {
+                if (request.getStartDate() == null || request.getEndDate() == null
+                        || request.getStartDate().isAfter(request.getEndDate())) {
+                    throw new IllegalArgumentException("A valid start and end date are required");
+                }
+            }
+        }
+    }
+
+    private void run(ArchiveJob job, ArchiveJobRequestDto request) {
+        job.start();
+        String reason = request.getReason() != null && !request.getReason().isBlank() ? request.getReason() : DEFAULT_REASON;
+        try {
+            switch (request.getScope()) {
+                case GROUP -> {
+                    List<Long> studentIds = unitOfWork.getStudentRepository().findIdsByGroupId(request.getGroupId());
+                    archiveService.archiveStudents(studentIds, job.submittedBy, reason, job::onProgress);
+                    archiveService.archiveStudentGroup(request.getGroupId(), job.submittedBy, reason);
+                }
+                case STUDENTS -> archiveService.archiveStudents(request.getStudentIds(), job.submittedBy, reason,
+                        job::onProgress);
+                case DATE_RANGE -> archiveService.archiveGradesInDateRange(request.getStartDate(), request.getEndDate(),
+                        job.submittedBy, reason, job::onProgress);
+            }
+            job.complete();
+            log.info("Archive job {} completed: {} rows", job.id, job.processed);
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            log.error("Archive job {} failed after {} rows", job.id, job.processed, e);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() < MAX_RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparing((ArchiveJob job) -> job.finishedAt))
+                .limit(jobs.size() - MAX_RETAINED_JOBS + 1L)
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    /**
+     * Mutable job state, updated by the worker thread and read by status requests
+     */
+    private static class ArchiveJob {
+
+        private final String id;
+        private final ArchiveJobRequestDto.Scope scope;
+        private final String submittedBy;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile ArchiveJobStatusDto.State state = ArchiveJobStatusDto.State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+        private volatile long processed;
+        private volatile long total;
+        private volatile String error;
+
+        ArchiveJob(String id, ArchiveJobRequestDto.Scope scope, String submittedBy) {
+            this.id = id;
+            this.scope = scope;
+            this.submittedBy = submittedBy;
+        }
+
+        void start() {
+            startedNanos = System.nanoTime();
+            startedAt = LocalDateTime.now();
+            state = ArchiveJobStatusDto.State.RUNNING;
+        }
+
+        void onProgress(long processed, long total) {
+            this.processed = processed;
+            this.total = total;
+        }
+
+        void complete() {
+            finish(ArchiveJobStatusDto.State.COMPLETED);
+        }
+
+        void fail(String message) {
+            error = message;
+            finish(ArchiveJobStatusDto.State.FAILED);
+        }
+
+        private void finish(ArchiveJobStatusDto.State finalState) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        ArchiveJobStatusDto toDto() {
+            ArchiveJobStatusDto dto = new ArchiveJobStatusDto();
+            dto.setJobId(id);
+            dto.setScope(scope);
+            dto.setState(state);
+            dto.setSubmittedBy(submittedBy);
+            dto.setSubmittedAt(submittedAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setProcessed(processed);
+            dto.setTotal(total);
+            dto.setError(error);
+
+            if (startedAt != null && processed > 0) {
+                long endNanos = finishedAt != null ? finishedNanos : System.nanoTime();
+                double elapsedSeconds = (endNanos - startedNanos) / 1_000_000_000.0;
+                if (elapsedSeconds > 0) {
+                    double throughput = processed / elapsedSeconds;
+                    dto.setThroughputPerSecond(throughput);
+                    if (state == ArchiveJobStatusDto.State.RUNNING) {
+                        dto.setEtaSeconds(Math.round(Math.max(total - processed, 0) / throughput));
+                    }
+                }
+            }
+            return dto;
+        }
+    }
+}
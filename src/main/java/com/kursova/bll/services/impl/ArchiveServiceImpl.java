@@ -1,27 +1,48 @@
 package com.kursova.bll.services.impl;
 
 import com.kursova.bll.services.ArchiveService;
+import com.kursova.bll.services.GradeAggregateService;
 import com.kursova.dal.entities.*;
 import com.kursova.dal.uow.UnitOfWork;
+import com.kursova.config.CacheConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
- * Implementation of ArchiveService
+ * Implementation of ArchiveService.
+ * Grades are moved to the archive set-based (INSERT ... SELECT + bulk DELETE) in chunks, so that
+ * archiving a large cohort never holds row locks for longer than one chunk.
  */
 @Service
 @Transactional
 public class ArchiveServiceImpl implements ArchiveService {
 
+    private static final Logger log = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    private static final int ARCHIVE_CHUNK_SIZE = 500;
+
     private final UnitOfWork unitOfWork;
+    private final GradeAggregateService gradeAggregateService;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public ArchiveServiceImpl(UnitOfWork unitOfWork) {
+    public ArchiveServiceImpl(UnitOfWork unitOfWork, GradeAggregateService gradeAggregateService,
+                              PlatformTransactionManager transactionManager) {
         this.unitOfWork = unitOfWork;
+        this.gradeAggregateService = gradeAggregateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -42,61 +63,125 @@ public class ArchiveServiceImpl implements ArchiveService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS, CacheConfig.SUBJECTS,
+        CacheConfig.SUBJECT_LISTS}, allEntries = true)
     public void archiveStudentGroup(Long groupId, String archivedBy, String reason) {
-        System.out.println("=== ARCHIVING GROUP " + groupId + " ===");
-        
-        // Get the group to archive
         StudentGroup group = unitOfWork.getStudentGroupRepository().findById(groupId)
                 .orElseThrow(() -> new RuntimeException("StudentGroup not found with id: " + groupId));
+        ArchivedStudentGroup archivedGroup = new ArchivedStudentGroup(group, archivedBy, reason);
 
-        // Get all students in this group
-        List<Student> studentsInGroup = unitOfWork.getStudentRepository().findByGroupId(groupId);
-        System.out.println("Found " + studentsInGroup.size() + " students in group " + groupId);
-
-        // Remove students from group (unassign them) instead of archiving them
-        for (Student student : studentsInGroup) {
-            System.out.println("Unassigning student " + student.getId() + " (user: " + student.getUser().getFirstName() + " " + student.getUser().getLastName() + ") from group");
-            student.setGroup(null);
-            student.setUpdatedAt(LocalDateTime.now());
-            Student savedStudent = unitOfWork.getStudentRepository().save(student);
-            System.out.println("Student " + savedStudent.getId() + " saved with group: " + savedStudent.getGroup());
-        }
-
-        System.out.println("All students unassigned from group " + groupId);
+        // Students stay in the system, they are only unassigned from the group
+        int unassigned = unitOfWork.getStudentRepository().unassignAllFromGroup(groupId, LocalDateTime.now());
 
-        // Archive the group itself
-        ArchivedStudentGroup archivedGroup = new ArchivedStudentGroup(group, archivedBy, reason);
         unitOfWork.getArchivedStudentGroupRepository().save(archivedGroup);
-
-        // Remove the original group
-        unitOfWork.getStudentGroupRepository().delete(group);
-        System.out.println("Group " + groupId + " archived and deleted");
+        unitOfWork.getStudentGroupRepository().deleteById(groupId);
+        log.info("Archived group {}: {} students unassigned", groupId, unassigned);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS, CacheConfig.SUBJECTS,
+        CacheConfig.SUBJECT_LISTS}, allEntries = true)
     public void archiveStudent(Long studentId, String archivedBy, String reason) {
-        Student student = unitOfWork.getStudentRepository().findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
+        if (!unitOfWork.getStudentRepository().existsById(studentId)) {
+            throw new RuntimeException("Student not found with id: " + studentId);
+        }
+        archiveStudents(List.of(studentId), archivedBy, reason, null);
+    }
 
-        archiveStudentInternal(student, archivedBy, reason);
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS, CacheConfig.SUBJECTS,
+        CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    public long archiveStudents(Collection<Long> studentIds, String archivedBy, String reason,
+                                ProgressListener progress) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = List.copyOf(studentIds);
+        List<Long> gradeIds = unitOfWork.getGradeRepository().findIdsByStudentIdIn(ids);
+        long total = gradeIds.size() + ids.size();
+        moveGradesInChunks(gradeIds, archivedBy, reason, total, progress);
+
+        long processed = gradeIds.size();
+        long archived = 0;
+        LocalDateTime archivedAt = LocalDateTime.now();
+        for (List<Long> chunk : chunks(ids)) {
+            Integer copied = transactionTemplate.execute(status -> {
+                unitOfWork.getGradeAggregateRepository().deleteByStudentIdIn(chunk);
+                int rows = unitOfWork.getArchivedStudentRepository().insertFromStudents(chunk, archivedAt, archivedBy, reason);
+                unitOfWork.getStudentRepository().deleteAllByIdIn(chunk);
+                return rows;
+            });
+            archived += copied == null ? 0 : copied;
+            processed += chunk.size();
+            report(progress, processed, total);
+        }
+        log.info("Archived {} students with {} grades", archived, gradeIds.size());
+        return archived;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long archiveGradesOfStudents(Collection<Long> studentIds, String archivedBy, String reason,
+                                        ProgressListener progress) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> gradeIds = unitOfWork.getGradeRepository().findIdsByStudentIdIn(studentIds);
+        moveGradesInChunks(gradeIds, archivedBy, reason, gradeIds.size(), progress);
 
-        // Remove the original student
-        unitOfWork.getStudentRepository().delete(student);
+        transactionTemplate.executeWithoutResult(status ->
+                unitOfWork.getGradeAggregateRepository().deleteByStudentIdIn(studentIds));
+        return gradeIds.size();
     }
 
-    private void archiveStudentInternal(Student student, String archivedBy, String reason) {
-        // Archive all grades for this student
-        List<Grade> grades = unitOfWork.getGradeRepository().findByStudentIdOrderByGradeDateDesc(student.getId());
-        for (Grade grade : grades) {
-            ArchivedGrade archivedGrade = new ArchivedGrade(grade, archivedBy, reason);
-            unitOfWork.getArchivedGradeRepository().save(archivedGrade);
-            unitOfWork.getGradeRepository().delete(grade);
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long archiveGradesInDateRange(LocalDateTime startDate, LocalDateTime endDate, String archivedBy,
+                                         String reason, ProgressListener progress) {
+        List<Long> studentIds = unitOfWork.getGradeRepository().findStudentIdsByGradeDateBetween(startDate, endDate);
+        List<Long> gradeIds = unitOfWork.getGradeRepository().findIdsByGradeDateBetween(startDate, endDate);
+        moveGradesInChunks(gradeIds, archivedBy, reason, gradeIds.size(), progress);
+
+        // Students keep their remaining grades, so their aggregates are recomputed rather than dropped
+        for (List<Long> chunk : chunks(studentIds)) {
+            transactionTemplate.executeWithoutResult(status -> gradeAggregateService.rebuildForStudents(chunk));
         }
+        log.info("Archived {} grades given between {} and {}", gradeIds.size(), startDate, endDate);
+        return gradeIds.size();
+    }
 
-        // Archive the student
-        ArchivedStudent archivedStudent = new ArchivedStudent(student, archivedBy, reason);
-        unitOfWork.getArchivedStudentRepository().save(archivedStudent);
+    /**
+     * Copy and delete grades chunk by chunk; each chunk commits on its own unless the caller has a transaction
+     */
+    private void moveGradesInChunks(List<Long> gradeIds, String archivedBy, String reason,
+                                    long total, ProgressListener progress) {
+        long processed = 0;
+        LocalDateTime archivedAt = LocalDateTime.now();
+        for (List<Long> chunk : chunks(gradeIds)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                unitOfWork.getArchivedGradeRepository().insertFromGrades(chunk, archivedAt, archivedBy, reason);
+                unitOfWork.getGradeRepository().deleteAllByIdIn(chunk);
+            });
+            processed += chunk.size();
+            report(progress, processed, total);
+            log.debug("Archived {}/{} grades", processed, gradeIds.size());
+        }
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ARCHIVE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ARCHIVE_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private void report(ProgressListener progress, long processed, long total) {
+        if (progress != null) {
+            progress.onProgress(processed, total);
+        }
     }
 
     @Override
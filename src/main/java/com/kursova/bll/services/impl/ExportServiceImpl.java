@@ -0,0 +1,107 @@
+package com.kursova.bll.services.impl;
+
+import com.kursova.bll.services.ExportService;
+import com.kursova.dal.repositories.GradeExportFilter;
+import com.kursova.dal.uow.UnitOfWork;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Implementation of ExportService.
+ * Rows are formatted as they come off a forward-only cursor, so memory does not grow with the export size.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String GRADES_HEADER = "id,grade_date,student_id,student_number,student_name," +
+            "group_id,group_name,subject_id,subject_code,subject_name,teacher_id,teacher_name," +
+            "grade_type,grade_category,grade_value,is_final,comments";
+
+    private static final String ARCHIVED_GRADES_HEADER = "id,original_grade_id,original_student_id,student_number," +
+            "student_name,original_group_id,group_code,original_subject_id,subject_name,grade_type,grade_category," +
+            "grade_value,comments,original_created_at,original_updated_at,archived_at,archived_by,archive_reason";
+
+    private final UnitOfWork unitOfWork;
+
+    @Autowired
+    public ExportServiceImpl(UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public void writeGradesCsv(GradeExportFilter filter, Writer writer) throws IOException {
+        writer.write(GRADES_HEADER);
+        writer.write('\n');
+        try {
+            unitOfWork.getGradeRepository().scrollListRows(filter, EXPORT_FETCH_SIZE, row -> writeLine(writer,
+                    row.id(), row.gradeDate(), row.studentId(), row.studentNumber(), row.studentName(),
+                    row.groupId(), row.groupName(), row.subjectId(), row.subjectCode(), row.subjectName(),
+                    row.teacherId(), row.teacherName(), row.gradeType(), row.gradeCategoryEnum(),
+                    row.gradeValue(), row.isFinal(), row.comments()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void writeArchivedGradesCsv(GradeExportFilter filter, Writer writer) throws IOException {
+        writer.write(ARCHIVED_GRADES_HEADER);
+        writer.write('\n');
+        try {
+            unitOfWork.getArchivedGradeRepository().scrollRows(filter, EXPORT_FETCH_SIZE, row -> writeLine(writer, row));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeLine(Writer writer, Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(toCell(values[i]));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_FORMAT.format(dateTime);
+        }
+        if (value instanceof String text) {
+            return quote(text);
+        }
+        return value.toString();
+    }
+
+    private static String quote(String text) {
+        // Spreadsheets run cells starting with these characters as formulas
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,135 @@
+package com.kursova.bll.services.impl;
+
+import com.kursova.bll.services.GradeAggregateService;
+import com.kursova.dal.entities.GradeAggregate;
+import com.kursova.dal.repositories.GradeAggregateRepository;
+import com.kursova.dal.uow.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of GradeAggregateService.
+ * Count, sum and final-only sum are adjusted in place, an added grade by a single upsert statement;
+ * min/max are re-read from grades only when a removed value was the current boundary.
+ */
+@Service
+@Transactional
+public class GradeAggregateServiceImpl implements GradeAggregateService {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeAggregateServiceImpl.class);
+
+    private final UnitOfWork unitOfWork;
+
+    @Autowired
+    public GradeAggregateServiceImpl(UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public void recordGradeAdded(Long studentId, Long subjectId, Integer gradeValue, Boolean isFinal) {
+        if (studentId == null || subjectId == null || gradeValue == null) {
+            return;
+        }
+        addToAggregate(studentId, subjectId, gradeValue, isFinal);
+        addToAggregate(studentId, GradeAggregate.ALL_SUBJECTS, gradeValue, isFinal);
+    }
+
+    @Override
+    public void recordGradeRemoved(Long studentId, Long subjectId, Integer gradeValue, Boolean isFinal) {
+        if (studentId == null || subjectId == null || gradeValue == null) {
+            return;
+        }
+        removeFromAggregate(studentId, subjectId, gradeValue, isFinal);
+        removeFromAggregate(studentId, GradeAggregate.ALL_SUBJECTS, gradeValue, isFinal);
+    }
+
+    @Override
+    public void rebuildForStudents(Collection<Long> studentIds) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return;
+        }
+        GradeAggregateRepository repository = unitOfWork.getGradeAggregateRepository();
+        repository.deleteByStudentIdIn(studentIds);
+        repository.insertSubjectAggregatesForStudents(studentIds);
+        repository.insertStudentAggregatesForStudents(studentIds);
+    }
+
+    @Override
+    public int rebuildAll() {
+        GradeAggregateRepository repository = unitOfWork.getGradeAggregateRepository();
+        repository.deleteAllAggregates();
+        int rows = repository.insertSubjectAggregatesFromGrades() + repository.insertStudentAggregatesFromGrades();
+        log.info("Rebuilt grade aggregates: {} rows", rows);
+        return rows;
+    }
+
+    /**
+     * Nightly safety net for changes made outside GradeService (imports, manual SQL)
+     */
+    @Scheduled(cron = "${app.grade-aggregates.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    /**
+     * Populate aggregates on first start after the table was introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (unitOfWork.getGradeAggregateRepository().count() == 0 && unitOfWork.getGradeRepository().count() > 0) {
+            rebuildAll();
+        }
+    }
+
+    private void addToAggregate(Long studentId, Long subjectId, int gradeValue, Boolean isFinal) {
+        boolean counted = Boolean.TRUE.equals(isFinal);
+        unitOfWork.getGradeAggregateRepository().addGrade(studentId, subjectId, gradeValue,
+                counted ? 1 : 0, counted ? gradeValue : 0);
+    }
+
+    private void removeFromAggregate(Long studentId, Long subjectId, int gradeValue, Boolean isFinal) {
+        GradeAggregateRepository repository = unitOfWork.getGradeAggregateRepository();
+        GradeAggregate aggregate = repository.findForUpdate(studentId, subjectId).orElse(null);
+        if (aggregate == null) {
+            return; // Nothing recorded yet, the rebuild job will pick the student up
+        }
+
+        if (aggregate.getGradeCount() <= 1) {
+            repository.delete(aggregate);
+            return;
+        }
+
+        aggregate.setGradeCount(aggregate.getGradeCount() - 1);
+        aggregate.setGradeSum(aggregate.getGradeSum() - gradeValue);
+        if (Boolean.TRUE.equals(isFinal) && aggregate.getFinalCount() > 0) {
+            aggregate.setFinalCount(aggregate.getFinalCount() - 1);
+            aggregate.setFinalSum(aggregate.getFinalSum() - gradeValue);
+        }
+        if (aggregate.getMinGrade() == null || aggregate.getMaxGrade() == null
+                || gradeValue <= aggregate.getMinGrade() || gradeValue >= aggregate.getMaxGrade()) {
+            refreshRange(aggregate);
+        }
+        repository.save(aggregate);
+    }
+
+    private void refreshRange(GradeAggregate aggregate) {
+        List<Object[]> rows = aggregate.getSubjectId() == GradeAggregate.ALL_SUBJECTS
+                ? unitOfWork.getGradeRepository().findGradeRangeForStudent(aggregate.getStudentId())
+                : unitOfWork.getGradeRepository().findGradeRangeForStudentInSubject(aggregate.getStudentId(), aggregate.getSubjectId());
+        if (rows.isEmpty()) {
+            return;
+        }
+        Object[] range = rows.get(0);
+        aggregate.setMinGrade(range[0] == null ? null : ((Number) range[0]).intValue());
+        aggregate.setMaxGrade(range[1] == null ? null : ((Number) range[1]).intValue());
+    }
+}
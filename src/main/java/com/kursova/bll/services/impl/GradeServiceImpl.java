@@ -1,24 +1,44 @@
 package com.kursova.bll.services.impl;
 
+import com.kursova.bll.dto.BulkGradeRequestDto;
+import com.kursova.bll.dto.BulkGradeResultDto;
 import com.kursova.bll.dto.GradeDto;
+import com.kursova.bll.dto.GradePageDto;
+import com.kursova.bll.dto.GradebookDto;
 import com.kursova.bll.mappers.GradeMapper;
+import com.kursova.bll.services.GradeAggregateService;
 import com.kursova.bll.services.GradeService;
 import com.kursova.dal.entities.Grade;
 import com.kursova.dal.entities.ArchivedGrade;
+import com.kursova.dal.entities.GradeAggregate;
 import com.kursova.dal.entities.GradeType;
 import com.kursova.dal.entities.GradeCategory;
 import com.kursova.dal.entities.Student;
 import com.kursova.dal.entities.Subject;
 import com.kursova.dal.entities.Teacher;
+import com.kursova.dal.entities.User;
 import com.kursova.dal.uow.UnitOfWork;
+import com.kursova.config.jwt.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -28,24 +48,32 @@ import java.util.stream.Collectors;
 @Transactional
 public class GradeServiceImpl implements GradeService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final String CURSOR_SEPARATOR = "_";
+
     private final UnitOfWork unitOfWork;
     private final GradeMapper gradeMapper;
+    private final GradeAggregateService gradeAggregateService;
 
     @Autowired
-    public GradeServiceImpl(UnitOfWork unitOfWork, GradeMapper gradeMapper) {
+    public GradeServiceImpl(UnitOfWork unitOfWork, GradeMapper gradeMapper, GradeAggregateService gradeAggregateService) {
         this.unitOfWork = unitOfWork;
         this.gradeMapper = gradeMapper;
+        this.gradeAggregateService = gradeAggregateService;
     }
 
     private String getCurrentUserName() {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.getName() != null) {
-                var userOpt = unitOfWork.getUserRepository().findByUsername(authentication.getName());
-                if (userOpt.isPresent()) {
-                    return userOpt.get().getFullName();
-                }
-            }
-        return "SYSTEM";
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            return "SYSTEM";
+        }
+        // The JWT principal carries the display name; look the user up only for other principals
+        return CustomUserDetails.from(authentication)
+                .map(CustomUserDetails::getDisplayName)
+                .or(() -> unitOfWork.getUserRepository().findByUsername(authentication.getName()).map(User::getFullName))
+                .orElse("SYSTEM");
     }
 
     private GradeCategory getGradeCategoryFromGradeType(GradeType gradeType) {
@@ -130,6 +158,7 @@ public class GradeServiceImpl implements GradeService {
         grade.setGradeCategoryEnum(getGradeCategoryFromGradeType(grade.getGradeType()));
 
         Grade savedGrade = unitOfWork.getGradeRepository().save(grade);
+        gradeAggregateService.recordGradeAdded(student.getId(), subject.getId(), savedGrade.getGradeValue(), savedGrade.getIsFinal());
     // Reload saved grade with relations to ensure mapper can access nested user/subject fields
     Grade savedWithRelations = unitOfWork.getGradeRepository().findByIdWithRelations(savedGrade.getId())
         .orElse(savedGrade);
@@ -161,6 +190,7 @@ public class GradeServiceImpl implements GradeService {
         originalGradeForArchive.setComments(existingGrade.getComments());
         originalGradeForArchive.setCreatedAt(existingGrade.getCreatedAt());
         originalGradeForArchive.setUpdatedAt(existingGrade.getUpdatedAt());
+        originalGradeForArchive.setIsFinal(existingGrade.getIsFinal());
 
         // Archive the original grade
         ArchivedGrade archivedGrade = new ArchivedGrade(originalGradeForArchive, getCurrentUserName(), "Відредаговано");
@@ -170,6 +200,7 @@ public class GradeServiceImpl implements GradeService {
         existingGrade.setUpdatedAt(LocalDateTime.now());
 
         Grade updatedGrade = unitOfWork.getGradeRepository().save(existingGrade);
+        updateAggregates(originalGradeForArchive, updatedGrade);
         return gradeMapper.toDto(updatedGrade);
     }
 
@@ -183,6 +214,8 @@ public class GradeServiceImpl implements GradeService {
         unitOfWork.getArchivedGradeRepository().save(archivedGrade);
         
         unitOfWork.getGradeRepository().deleteById(id);
+        gradeAggregateService.recordGradeRemoved(existingGrade.getStudent().getId(), existingGrade.getSubject().getId(),
+                existingGrade.getGradeValue(), existingGrade.getIsFinal());
     }
 
     public void deleteById(Long id) {
@@ -206,7 +239,7 @@ public class GradeServiceImpl implements GradeService {
     public List<GradeDto> findByStudentId(Long studentId) {
         return unitOfWork.getGradeRepository().findByStudentIdOrderByGradeDateDesc(studentId)
                 .stream()
-                .map(gradeMapper::toDto)
+                .map(gradeMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
@@ -215,7 +248,7 @@ public class GradeServiceImpl implements GradeService {
     public List<GradeDto> findByTeacherId(Long teacherId) {
         return unitOfWork.getGradeRepository().findGradesByTeacherId(teacherId)
                 .stream()
-                .map(gradeMapper::toDto)
+                .map(gradeMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
@@ -224,7 +257,7 @@ public class GradeServiceImpl implements GradeService {
     public List<GradeDto> findBySubjectId(Long subjectId) {
         return unitOfWork.getGradeRepository().findBySubjectIdOrderByGradeDateDesc(subjectId)
                 .stream()
-                .map(gradeMapper::toDto)
+                .map(gradeMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
@@ -233,7 +266,7 @@ public class GradeServiceImpl implements GradeService {
     public List<GradeDto> findByStudentAndSubject(Long studentId, Long subjectId) {
         return unitOfWork.getGradeRepository().findByStudentIdAndSubjectIdOrderByGradeDateDesc(studentId, subjectId)
                 .stream()
-                .map(gradeMapper::toDto)
+                .map(gradeMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
@@ -251,7 +284,7 @@ public class GradeServiceImpl implements GradeService {
     public List<GradeDto> findFinalGradesByStudent(Long studentId) {
         return unitOfWork.getGradeRepository().findByStudentIdAndIsFinalTrueOrderBySubjectSubjectNameAsc(studentId)
                 .stream()
-                .map(gradeMapper::toDto)
+                .map(gradeMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
@@ -260,7 +293,7 @@ public class GradeServiceImpl implements GradeService {
     public List<GradeDto> findByGradeType(GradeType gradeType) {
         return unitOfWork.getGradeRepository().findByGradeTypeOrderByGradeDateDesc(gradeType)
                 .stream()
-                .map(gradeMapper::toDto)
+                .map(gradeMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
@@ -269,26 +302,35 @@ public class GradeServiceImpl implements GradeService {
     public List<GradeDto> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         return unitOfWork.getGradeRepository().findByGradeDateBetweenOrderByGradeDateDesc(startDate, endDate)
                 .stream()
-                .map(gradeMapper::toDto)
+                .map(gradeMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Double getAverageGradeForStudentInSubject(Long studentId, Long subjectId) {
-        return unitOfWork.getGradeRepository().getAverageGradeForStudentInSubject(studentId, subjectId);
+        return unitOfWork.getGradeAggregateRepository().findByStudentIdAndSubjectId(studentId, subjectId)
+                .map(GradeAggregate::getAverage)
+                .orElse(null);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Double getOverallAverageGradeForStudent(Long studentId) {
-        return unitOfWork.getGradeRepository().getOverallAverageGradeForStudent(studentId);
+        return unitOfWork.getGradeAggregateRepository().findByStudentIdAndSubjectId(studentId, GradeAggregate.ALL_SUBJECTS)
+                .map(GradeAggregate::getFinalAverage)
+                .orElse(null);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Object[]> getTopPerformingStudents() {
-        return unitOfWork.getGradeRepository().findTopPerformingStudents();
+        return unitOfWork.getGradeAggregateRepository().findTopPerformingStudents();
+    }
+
+    @Override
+    public int rebuildGradeAggregates() {
+        return gradeAggregateService.rebuildAll();
     }
 
     @Override
@@ -305,38 +347,187 @@ public class GradeServiceImpl implements GradeService {
             throw new IllegalArgumentException("Grade value must be between 0 and 100");
         }
 
-        // Check if entities exist
-        Student student = unitOfWork.getStudentRepository().findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
+        Grade grade = insertGradeIfAbsent(studentId, teacherId, subjectId, gradeValue, gradeType, comments);
+        if (grade == null) {
+            requireGradeReferences(studentId, teacherId, subjectId);
+            throw new IllegalStateException("Grade of this type already exists for this student and subject");
+        }
+        gradeAggregateService.recordGradeAdded(studentId, subjectId, gradeValue, false);
+        return findGradeRow(grade.getId());
+    }
 
-        Teacher teacher = unitOfWork.getTeacherRepository().findById(teacherId)
-                .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
+    @Override
+    public GradeDto setGrade(Long studentId, Long teacherId, Long subjectId,
+                             Integer gradeValue, GradeType gradeType, String comments) {
+        if (gradeValue == null || gradeValue < 0 || gradeValue > 100) {
+            throw new IllegalArgumentException("Grade value must be between 0 and 100");
+        }
 
-        Subject subject = unitOfWork.getSubjectRepository().findById(subjectId)
-                .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
+        Grade inserted = insertGradeIfAbsent(studentId, teacherId, subjectId, gradeValue, gradeType, comments);
+        if (inserted != null) {
+            gradeAggregateService.recordGradeAdded(studentId, subjectId, gradeValue, false);
+            return findGradeRow(inserted.getId());
+        }
 
-        // Check for existing grade of same type
-        if (unitOfWork.getGradeRepository()
-                .findByStudentIdAndSubjectIdAndGradeType(studentId, subjectId, gradeType).isPresent()) {
-            throw new IllegalStateException("Grade of this type already exists for this student and subject");
+        // The grade exists: lock it so that concurrent writes of the same grade apply one after another
+        Grade grade = unitOfWork.getGradeRepository().findForUpdate(studentId, subjectId, gradeType)
+                .orElseThrow(() -> {
+                    requireGradeReferences(studentId, teacherId, subjectId);
+                    return new IllegalStateException("Grade was deleted while being set, please retry");
+                });
+        if (grade.getGradeValue().equals(gradeValue)) {
+            // Same value: nothing to archive, only the comments may change
+            if (!Objects.equals(grade.getComments(), comments)) {
+                grade.setComments(comments);
+                grade.setUpdatedAt(LocalDateTime.now());
+            }
+            return findGradeRow(grade.getId());
         }
 
+        Grade originalGradeForArchive = getGrade(grade);
+        ArchivedGrade archivedGrade = new ArchivedGrade(originalGradeForArchive, getCurrentUserName(), "Відредаговано");
+        unitOfWork.getArchivedGradeRepository().save(archivedGrade);
+
+        grade.setGradeValue(gradeValue);
+        grade.setComments(comments);
+        grade.setUpdatedAt(LocalDateTime.now());
+        updateAggregates(originalGradeForArchive, grade);
+        return findGradeRow(grade.getId());
+    }
+
+    /**
+     * Insert a new grade in one statement, or return null when nothing was inserted: the student already has
+     * a grade of this type in the subject or, on MySQL, a referenced row is missing (see {@link #requireGradeReferences}).
+     * A foreign key failure raised by the database is reported here.
+     */
+    private Grade insertGradeIfAbsent(Long studentId, Long teacherId, Long subjectId,
+                                      Integer gradeValue, GradeType gradeType, String comments) {
+        LocalDateTime now = LocalDateTime.now();
         Grade grade = new Grade();
-        grade.setStudent(student);
-        grade.setTeacher(teacher);
-        grade.setSubject(subject);
+        grade.setStudent(unitOfWork.getStudentRepository().getReferenceById(studentId));
+        grade.setTeacher(unitOfWork.getTeacherRepository().getReferenceById(teacherId));
+        grade.setSubject(unitOfWork.getSubjectRepository().getReferenceById(subjectId));
         grade.setGradeValue(gradeValue);
         grade.setGradeType(gradeType);
         grade.setGradeCategoryEnum(getGradeCategoryFromGradeType(gradeType));
         grade.setComments(comments);
         grade.setIsFinal(false);
-        grade.setGradeDate(LocalDateTime.now());
-        grade.setCreatedAt(LocalDateTime.now());
-        grade.setUpdatedAt(LocalDateTime.now());
+        grade.setGradeDate(now);
+        grade.setCreatedAt(now);
+        grade.setUpdatedAt(now);
+
+        try {
+            return unitOfWork.getGradeRepository().insertIfAbsent(grade) ? grade : null;
+        } catch (DataIntegrityViolationException e) {
+            requireGradeReferences(studentId, teacherId, subjectId);
+            throw e;
+        }
+    }
+
+    /**
+     * Throw for the first of the grade's student, teacher and subject that does not exist
+     */
+    private void requireGradeReferences(Long studentId, Long teacherId, Long subjectId) {
+        if (!unitOfWork.getStudentRepository().existsById(studentId)) {
+            throw new RuntimeException("Student not found with id: " + studentId);
+        }
+        if (!unitOfWork.getTeacherRepository().existsById(teacherId)) {
+            throw new RuntimeException("Teacher not found with id: " + teacherId);
+        }
+        if (!unitOfWork.getSubjectRepository().existsById(subjectId)) {
+            throw new RuntimeException("Subject not found with id: " + subjectId);
+        }
+    }
+
+    private GradeDto findGradeRow(Long gradeId) {
+        return unitOfWork.getGradeRepository().findListRowById(gradeId)
+                .map(gradeMapper::rowToDto)
+                .orElseThrow(() -> new RuntimeException("Grade not found with id: " + gradeId));
+    }
+
+    @Override
+    public BulkGradeResultDto createGradesBulk(BulkGradeRequestDto request) {
+        List<BulkGradeRequestDto.Entry> entries = request.getGrades();
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("At least one grade is required");
+        }
+        if (entries.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " grades can be created at once");
+        }
 
+        Teacher teacher = unitOfWork.getTeacherRepository().findById(request.getTeacherId())
+                .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + request.getTeacherId()));
+        Subject subject = unitOfWork.getSubjectRepository().findById(request.getSubjectId())
+                .orElseThrow(() -> new RuntimeException("Subject not found with id: " + request.getSubjectId()));
+
+        // One query for all students and one for all existing (student, type) pairs of the subject
+        Set<Long> studentIds = entries.stream()
+                .map(BulkGradeRequestDto.Entry::getStudentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Student> students = new HashMap<>();
+        Set<String> takenKeys = new HashSet<>();
+        if (!studentIds.isEmpty()) {
+            unitOfWork.getStudentRepository().findAllById(studentIds)
+                    .forEach(student -> students.put(student.getId(), student));
+            unitOfWork.getGradeRepository().findStudentGradeTypesInSubject(subject.getId(), studentIds)
+                    .forEach(row -> takenKeys.add(row[0] + ":" + row[1]));
+        }
 
-    Grade savedGrade = unitOfWork.getGradeRepository().save(grade);
-          return gradeMapper.toDto(savedGrade);
+        BulkGradeResultDto result = new BulkGradeResultDto();
+        List<Grade> newGrades = new ArrayList<>();
+        List<BulkGradeResultDto.Row> createdRows = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            BulkGradeRequestDto.Entry entry = entries.get(i);
+            Long studentId = entry.getStudentId();
+            GradeType gradeType = entry.getGradeType() != null ? entry.getGradeType() : request.getGradeType();
+            Integer gradeValue = entry.getGradeValue();
+
+            BulkGradeResultDto.Status status = null;
+            String message = null;
+            if (studentId == null) {
+                status = BulkGradeResultDto.Status.INVALID;
+                message = "Student ID is required";
+            } else if (gradeType == null) {
+                status = BulkGradeResultDto.Status.INVALID;
+                message = "Grade type is required";
+            } else if (gradeValue == null || gradeValue < 0 || gradeValue > 100) {
+                status = BulkGradeResultDto.Status.INVALID;
+                message = "Grade value must be between 0 and 100";
+            } else if (!students.containsKey(studentId)) {
+                status = BulkGradeResultDto.Status.STUDENT_NOT_FOUND;
+                message = "Student not found with id: " + studentId;
+            } else if (!takenKeys.add(studentId + ":" + gradeType)) {
+                status = BulkGradeResultDto.Status.DUPLICATE;
+                message = "Grade of this type already exists for this student and subject";
+            }
+
+            if (status != null) {
+                result.addRow(new BulkGradeResultDto.Row(i, studentId, status, null, message));
+                continue;
+            }
+
+            Grade grade = new Grade(students.get(studentId), teacher, subject, gradeValue, gradeType);
+            grade.setComments(entry.getComments());
+            grade.setIsFinal(false);
+            newGrades.add(grade);
+
+            BulkGradeResultDto.Row row = new BulkGradeResultDto.Row(i, studentId, BulkGradeResultDto.Status.CREATED, null, null);
+            createdRows.add(row);
+            result.addRow(row);
+        }
+
+        if (!newGrades.isEmpty()) {
+            // Ids come from the pooled generator, so the inserts go out as JDBC batches on flush
+            List<Grade> savedGrades = unitOfWork.getGradeRepository().saveAllAndFlush(newGrades);
+            for (int i = 0; i < savedGrades.size(); i++) {
+                createdRows.get(i).setGradeId(savedGrades.get(i).getId());
+            }
+            gradeAggregateService.rebuildForStudents(savedGrades.stream()
+                    .map(grade -> grade.getStudent().getId())
+                    .collect(Collectors.toSet()));
+        }
+        return result;
     }
 
     @Override
@@ -361,6 +552,7 @@ public class GradeServiceImpl implements GradeService {
         grade.setUpdatedAt(LocalDateTime.now());
 
         Grade updatedGrade = unitOfWork.getGradeRepository().save(grade);
+        updateAggregates(originalGradeForArchive, updatedGrade);
         return gradeMapper.toDto(updatedGrade);
     }
 
@@ -376,6 +568,7 @@ public class GradeServiceImpl implements GradeService {
         originalGradeForArchive.setComments(grade.getComments());
         originalGradeForArchive.setCreatedAt(grade.getCreatedAt());
         originalGradeForArchive.setUpdatedAt(grade.getUpdatedAt());
+        originalGradeForArchive.setIsFinal(grade.getIsFinal());
         return originalGradeForArchive;
     }
 
@@ -384,10 +577,127 @@ public class GradeServiceImpl implements GradeService {
         Grade grade = unitOfWork.getGradeRepository().findById(gradeId)
                 .orElseThrow(() -> new RuntimeException("Grade not found with id: " + gradeId));
 
+        boolean wasFinal = Boolean.TRUE.equals(grade.getIsFinal());
         grade.setIsFinal(true);
         grade.setUpdatedAt(LocalDateTime.now());
 
         Grade updatedGrade = unitOfWork.getGradeRepository().save(grade);
+        if (!wasFinal) {
+            Long studentId = updatedGrade.getStudent().getId();
+            Long subjectId = updatedGrade.getSubject().getId();
+            gradeAggregateService.recordGradeRemoved(studentId, subjectId, updatedGrade.getGradeValue(), false);
+            gradeAggregateService.recordGradeAdded(studentId, subjectId, updatedGrade.getGradeValue(), true);
+        }
         return gradeMapper.toDto(updatedGrade);
     }
+
+    /**
+     * Moves a changed grade's contribution in the aggregates from its previous to its current state
+     */
+    private void updateAggregates(Grade previous, Grade current) {
+        boolean sameValue = previous.getGradeValue() != null && previous.getGradeValue().equals(current.getGradeValue());
+        boolean sameFinal = Boolean.TRUE.equals(previous.getIsFinal()) == Boolean.TRUE.equals(current.getIsFinal());
+        boolean sameKeys = previous.getStudent() == current.getStudent() && previous.getSubject() == current.getSubject();
+        if (sameValue && sameFinal && sameKeys) {
+            return;
+        }
+        gradeAggregateService.recordGradeRemoved(previous.getStudent().getId(), previous.getSubject().getId(),
+                previous.getGradeValue(), previous.getIsFinal());
+        gradeAggregateService.recordGradeAdded(current.getStudent().getId(), current.getSubject().getId(),
+                current.getGradeValue(), current.getIsFinal());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GradebookDto getGroupGradebook(Long groupId, Long subjectId) {
+        List<Object[]> cells = unitOfWork.getGradeRepository().findGradebookCells(groupId, subjectId);
+        if (cells.isEmpty() && !unitOfWork.getStudentGroupRepository().existsById(groupId)) {
+            throw new RuntimeException("StudentGroup not found with id: " + groupId);
+        }
+
+        // Rows come ordered by student, so each student's cells are adjacent
+        List<Long> studentIds = new ArrayList<>();
+        List<String> studentNames = new ArrayList<>();
+        EnumSet<GradeType> presentTypes = EnumSet.noneOf(GradeType.class);
+        for (Object[] cell : cells) {
+            Long studentId = (Long) cell[0];
+            if (studentIds.isEmpty() || !studentIds.get(studentIds.size() - 1).equals(studentId)) {
+                studentIds.add(studentId);
+                studentNames.add(cell[1] + " " + cell[2]);
+            }
+            if (cell[3] != null) {
+                presentTypes.add((GradeType) cell[3]);
+            }
+        }
+
+        List<GradeType> gradeTypes = new ArrayList<>(presentTypes);
+        int[] columns = new int[GradeType.values().length];
+        for (int i = 0; i < gradeTypes.size(); i++) {
+            columns[gradeTypes.get(i).ordinal()] = i;
+        }
+
+        int[][] grades = new int[studentIds.size()][gradeTypes.size()];
+        for (int[] row : grades) {
+            Arrays.fill(row, GradebookDto.NO_GRADE);
+        }
+        int row = -1;
+        Long currentStudentId = null;
+        for (Object[] cell : cells) {
+            if (!cell[0].equals(currentStudentId)) {
+                currentStudentId = (Long) cell[0];
+                row++;
+            }
+            if (cell[3] != null) {
+                grades[row][columns[((GradeType) cell[3]).ordinal()]] = (Integer) cell[4];
+            }
+        }
+        return new GradebookDto(groupId, subjectId, studentIds, studentNames, gradeTypes, grades);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GradePageDto findPage(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Grade> grades;
+        if (cursor == null || cursor.isBlank()) {
+            grades = unitOfWork.getGradeRepository().findFirstPageWithRelations(pageRequest);
+        } else {
+            int separatorIndex = cursor.lastIndexOf(CURSOR_SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                LocalDateTime gradeDate = LocalDateTime.parse(cursor.substring(0, separatorIndex));
+                Long id = Long.valueOf(cursor.substring(separatorIndex + 1));
+                grades = unitOfWork.getGradeRepository().findPageWithRelationsAfter(gradeDate, id, pageRequest);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        boolean hasMore = grades.size() > limit;
+        List<Grade> pageGrades = hasMore ? grades.subList(0, limit) : grades;
+        String nextCursor = null;
+        if (hasMore) {
+            Grade last = pageGrades.get(pageGrades.size() - 1);
+            nextCursor = last.getGradeDate() + CURSOR_SEPARATOR + last.getId();
+        }
+
+        List<GradeDto> items = pageGrades.stream()
+                .map(gradeMapper::toDto)
+                .collect(Collectors.toList());
+        return new GradePageDto(items, nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<GradeDto> consumer) {
+        unitOfWork.getGradeRepository().scrollAllWithRelations(STREAM_FETCH_SIZE,
+                grade -> consumer.accept(gradeMapper.toDto(grade)));
+    }
 }
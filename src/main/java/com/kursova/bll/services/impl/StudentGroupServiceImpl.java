@@ -1,20 +1,29 @@
 package com.kursova.bll.services.impl;
 
+import com.kursova.bll.dto.AcademicYearRolloverDto;
+import com.kursova.bll.dto.GroupMembershipDeltaDto;
 import com.kursova.bll.dto.StudentGroupDto;
 import com.kursova.bll.mappers.StudentGroupMapper;
 import com.kursova.bll.services.ArchiveService;
 import com.kursova.bll.services.StudentGroupService;
 import com.kursova.dal.entities.StudentGroup;
-import com.kursova.dal.entities.Student;
 import com.kursova.dal.entities.EducationLevel;
 import com.kursova.dal.entities.StudyForm;
 import com.kursova.dal.uow.UnitOfWork;
+import com.kursova.config.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -37,15 +46,14 @@ public class StudentGroupServiceImpl implements StudentGroupService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GROUP_LISTS, key = "'all'")
     public List<StudentGroupDto> findAll() {
-        return unitOfWork.getStudentGroupRepository().findAll()
-                .stream()
-                .map(groupMapper::toDto)
-                .collect(Collectors.toList());
+        return toDtosWithCounts(unitOfWork.getStudentGroupRepository().findAllWithStudentCounts());
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GROUPS, key = "#id")
     public StudentGroupDto findById(Long id) {
         StudentGroup group = unitOfWork.getStudentGroupRepository().findById(id)
                 .orElseThrow(() -> new RuntimeException("StudentGroup not found with id: " + id));
@@ -53,6 +61,7 @@ public class StudentGroupServiceImpl implements StudentGroupService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.GROUP_LISTS, allEntries = true)
     public StudentGroupDto create(StudentGroupDto groupDto) {
         if (existsByGroupCode(groupDto.getGroupCode())) {
             throw new RuntimeException("Group code already exists: " + groupDto.getGroupCode());
@@ -69,6 +78,10 @@ public class StudentGroupServiceImpl implements StudentGroupService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GROUPS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.GROUP_LISTS, allEntries = true)
+    })
     public StudentGroupDto update(Long id, StudentGroupDto groupDto) {
         StudentGroup existingGroup = unitOfWork.getStudentGroupRepository().findById(id)
                 .orElseThrow(() -> new RuntimeException("StudentGroup not found with id: " + id));
@@ -93,14 +106,13 @@ public class StudentGroupServiceImpl implements StudentGroupService {
         if ((originalEducationLevel != updatedGroup.getEducationLevel()) || 
             (originalStudyForm != updatedGroup.getStudyForm()) ||
             (!originalCourseYear.equals(updatedGroup.getCourseYear()))) {
-            
-            for (Student student : updatedGroup.getStudents()) {
-                student.setEducationLevel(updatedGroup.getEducationLevel());
-                student.setStudyForm(updatedGroup.getStudyForm());
-                student.setCourseYear(updatedGroup.getCourseYear());
-                student.setUpdatedAt(LocalDateTime.now());
-                unitOfWork.getStudentRepository().save(student);
-            }
+
+            // One statement for the whole group; it clears the persistence context, so the
+            // detached group is mapped with a counted size instead of its lazy students
+            unitOfWork.getStudentRepository().syncWithGroup(id, updatedGroup.getEducationLevel(),
+                    updatedGroup.getStudyForm(), updatedGroup.getCourseYear(), LocalDateTime.now());
+            Long studentCount = unitOfWork.getStudentRepository().countByGroupId(id);
+            return groupMapper.toDtoWithCount(updatedGroup, studentCount != null ? studentCount.intValue() : 0);
         }
         
         return groupMapper.toDto(updatedGroup);
@@ -108,6 +120,10 @@ public class StudentGroupServiceImpl implements StudentGroupService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GROUPS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.GROUP_LISTS, CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    })
     public void delete(Long id) {
         System.out.println("=== StudentGroupService.delete() called for group ID: " + id + " ===");
         // Archive the group and all related data instead of just deleting
@@ -122,6 +138,7 @@ public class StudentGroupServiceImpl implements StudentGroupService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GROUP_LISTS, key = "'active'")
     public List<StudentGroupDto> findActiveGroups() {
         return unitOfWork.getStudentGroupRepository().findByIsActiveTrue()
                 .stream()
@@ -150,6 +167,7 @@ public class StudentGroupServiceImpl implements StudentGroupService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GROUP_LISTS, key = "'code:' + #groupCode")
     public StudentGroupDto findByGroupCode(String groupCode) {
         StudentGroup group = unitOfWork.getStudentGroupRepository().findByGroupCode(groupCode)
                 .orElseThrow(() -> new RuntimeException("StudentGroup not found with code: " + groupCode));
@@ -172,6 +190,10 @@ public class StudentGroupServiceImpl implements StudentGroupService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GROUPS, key = "#groupId"),
+        @CacheEvict(cacheNames = CacheConfig.GROUP_LISTS, allEntries = true)
+    })
     public StudentGroupDto activateGroup(Long groupId) {
         StudentGroup group = unitOfWork.getStudentGroupRepository().findById(groupId)
                 .orElseThrow(() -> new RuntimeException("StudentGroup not found with id: " + groupId));
@@ -184,6 +206,10 @@ public class StudentGroupServiceImpl implements StudentGroupService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GROUPS, key = "#groupId"),
+        @CacheEvict(cacheNames = CacheConfig.GROUP_LISTS, allEntries = true)
+    })
     public StudentGroupDto deactivateGroup(Long groupId) {
         StudentGroup group = unitOfWork.getStudentGroupRepository().findById(groupId)
                 .orElseThrow(() -> new RuntimeException("StudentGroup not found with id: " + groupId));
@@ -213,29 +239,84 @@ public class StudentGroupServiceImpl implements StudentGroupService {
     @Override
     @Transactional(readOnly = true)
     public List<StudentGroupDto> findGroupsWithStudents() {
-        return unitOfWork.getStudentGroupRepository().findGroupsWithStudents()
-                .stream()
-                .map(group -> {
-                    StudentGroupDto dto = groupMapper.toDto(group);
-                    long studentCount = unitOfWork.getStudentRepository().countByGroupId(group.getId());
-                    dto.setCurrentStudentCount((int) studentCount);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return toDtosWithCounts(unitOfWork.getStudentGroupRepository().findGroupsWithActiveStudentCounts());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<StudentGroupDto> findGroupsByTeacherId(Long teacherId) {
-        // Find groups that are assigned to subjects taught by this teacher
-        return unitOfWork.getStudentGroupRepository().findGroupsByTeacherId(teacherId)
-                .stream()
-                .map(group -> {
-                    StudentGroupDto dto = groupMapper.toDto(group);
-                    long studentCount = unitOfWork.getStudentRepository().countByGroupId(group.getId());
-                    dto.setCurrentStudentCount((int) studentCount);
-                    return dto;
-                })
+        // Groups assigned to subjects taught by this teacher
+        return toDtosWithCounts(unitOfWork.getStudentGroupRepository()
+                .findGroupsByTeacherIdWithActiveStudentCounts(teacherId));
+    }
+
+    @Override
+    @Transactional
+    // Added students leave their previous groups, whose cached counts change as well
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
+    public GroupMembershipDeltaDto replaceMembers(Long groupId, Set<Long> studentIds) {
+        StudentGroup group = unitOfWork.getStudentGroupRepository().findById(groupId)
+                .orElseThrow(() -> new RuntimeException("StudentGroup not found with id: " + groupId));
+        Set<Long> requested = studentIds != null ? new LinkedHashSet<>(studentIds) : new LinkedHashSet<>();
+
+        if (!requested.isEmpty()) {
+            Set<Long> existing = new HashSet<>(unitOfWork.getStudentRepository().findExistingIds(requested));
+            for (Long studentId : requested) {
+                if (!existing.contains(studentId)) {
+                    throw new RuntimeException("Student not found with id: " + studentId);
+                }
+            }
+        }
+
+        Set<Long> current = new HashSet<>(unitOfWork.getStudentRepository().findIdsByGroupId(groupId));
+        List<Long> toAdd = requested.stream().filter(id -> !current.contains(id)).collect(Collectors.toList());
+        List<Long> toRemove = current.stream().filter(id -> !requested.contains(id)).sorted().collect(Collectors.toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!toRemove.isEmpty()) {
+            unitOfWork.getStudentRepository().unassignFromGroup(groupId, toRemove, now);
+        }
+        if (!toAdd.isEmpty()) {
+            unitOfWork.getStudentRepository().assignAllToGroup(group, group.getEducationLevel(), group.getStudyForm(),
+                    group.getCourseYear(), toAdd, now);
+        }
+
+        return new GroupMembershipDeltaDto(groupId, toAdd, toRemove, requested.size() - toAdd.size());
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GROUPS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GROUP_LISTS, allEntries = true)
+    })
+    public AcademicYearRolloverDto rolloverAcademicYear() {
+        List<Long> promoted = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        // Rows of [id, educationLevel, courseYear]
+        for (Object[] row : unitOfWork.getStudentGroupRepository().findActiveCourseRows()) {
+            EducationLevel level = (EducationLevel) row[1];
+            Integer courseYear = (Integer) row[2];
+            if (level != null && courseYear != null && level.isValidCourse(courseYear + 1)) {
+                promoted.add((Long) row[0]);
+            } else {
+                skipped.add((Long) row[0]);
+            }
+        }
+
+        int studentCount = 0;
+        if (!promoted.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            unitOfWork.getStudentGroupRepository().promoteCourseYear(promoted, now);
+            studentCount = unitOfWork.getStudentRepository().syncCourseYearWithGroups(promoted, now);
+        }
+        return new AcademicYearRolloverDto(promoted, studentCount, skipped);
+    }
+
+    // Rows of [group, active student count] from the grouped repository queries
+    private List<StudentGroupDto> toDtosWithCounts(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> groupMapper.toDtoWithCount((StudentGroup) row[0], ((Number) row[1]).intValue()))
                 .collect(Collectors.toList());
     }
 }
@@ -1,21 +1,28 @@
 package com.kursova.bll.services.impl;
 
 import com.kursova.bll.dto.StudentDto;
+import com.kursova.bll.dto.StudentSummaryDto;
 import com.kursova.bll.mappers.StudentMapper;
+import com.kursova.bll.search.UserSearchIndex;
 import com.kursova.bll.services.ArchiveService;
 import com.kursova.bll.services.StudentService;
 import com.kursova.dal.entities.Student;
 import com.kursova.dal.entities.StudentGroup;
 import com.kursova.dal.entities.EducationLevel;
 import com.kursova.dal.entities.StudyForm;
-import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.GradeAggregate;
 import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
 import com.kursova.dal.uow.UnitOfWork;
+import com.kursova.config.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -29,24 +36,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class StudentServiceImpl implements StudentService {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final UnitOfWork unitOfWork;
     private final StudentMapper studentMapper;
     private final ArchiveService archiveService;
+    private final UserSearchIndex userSearchIndex;
 
     @Autowired
-    public StudentServiceImpl(UnitOfWork unitOfWork, StudentMapper studentMapper, ArchiveService archiveService) {
+    public StudentServiceImpl(UnitOfWork unitOfWork, StudentMapper studentMapper, ArchiveService archiveService,
+                              UserSearchIndex userSearchIndex) {
         this.unitOfWork = unitOfWork;
         this.studentMapper = studentMapper;
         this.archiveService = archiveService;
+        this.userSearchIndex = userSearchIndex;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> findAll() {
-        return unitOfWork.getStudentRepository().findAll()
-                .stream()
-                .map(this::mapStudentWithCalculatedData)
-                .collect(Collectors.toList());
+        return mapStudentsWithCalculatedData(unitOfWork.getStudentRepository().findAllWithUserAndGroup());
     }
 
     @Override
@@ -65,6 +74,7 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
     public StudentDto create(StudentDto studentDto) {
         Student student = studentMapper.toEntity(studentDto);
         student.setIsActive(true);
@@ -74,6 +84,7 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
     public StudentDto update(Long id, StudentDto studentDto) {
         Student existingStudent = unitOfWork.getStudentRepository().findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
@@ -129,6 +140,7 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
     public void delete(Long id) {
         if (!unitOfWork.getStudentRepository().existsById(id)) {
             throw new RuntimeException("Student not found with id: " + id);
@@ -147,11 +159,7 @@ public class StudentServiceImpl implements StudentService {
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> findActiveStudents() {
-        return unitOfWork.getStudentRepository().findAll()
-                .stream()
-                .filter(Student::getIsActive)
-                .map(this::mapStudentWithCalculatedData)
-                .collect(Collectors.toList());
+        return mapStudentsWithCalculatedData(unitOfWork.getStudentRepository().findByIsActiveTrueOrderByUserLastNameAsc());
     }
 
     @Override
@@ -168,19 +176,17 @@ public class StudentServiceImpl implements StudentService {
         if (name == null || name.trim().isEmpty()) {
             return findActiveStudents();
         }
-        List<Student> students = unitOfWork.getStudentRepository().searchByNameOrEmail(name.trim());
-        return students.stream()
-                .map(this::mapStudentWithCalculatedData)
-                .collect(Collectors.toList());
+        if (!userSearchIndex.isReady()) {
+            return mapStudentsWithCalculatedData(unitOfWork.getStudentRepository().searchByNameOrEmail(name.trim()));
+        }
+        return mapStudentsWithCalculatedData(findIndexedActiveStudents(name));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> findByGroup(Long groupId) {
         List<Student> students = unitOfWork.getStudentRepository().findByGroupIdAndIsActiveTrueOrderByUserLastNameAsc(groupId);
-        return students.stream()
-                .map(this::mapStudentWithCalculatedData)
-                .collect(Collectors.toList());
+        return mapStudentsWithCalculatedData(students);
     }
 
     @Override
@@ -192,6 +198,20 @@ public class StudentServiceImpl implements StudentService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentSummaryDto> searchWithoutGroup(String searchTerm, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        String term = searchTerm != null ? searchTerm.trim().toLowerCase() : "";
+        return unitOfWork.getStudentRepository().searchWithoutGroup(term, PageRequest.of(0, limit))
+                .stream()
+                .map(row -> new StudentSummaryDto((Long) row[0], (String) row[1], (String) row[2],
+                        (String) row[3], (String) row[4]))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> findByEnrollmentYear(Integer year) {
@@ -205,29 +225,64 @@ public class StudentServiceImpl implements StudentService {
     @Transactional(readOnly = true)
     public Double calculateAverageGrade(Long studentId) {
         try {
-            List<Grade> grades = unitOfWork.getGradeRepository()
-                    .findByStudentIdOrderByGradeDateDesc(studentId);
+            // Average of all grades, read from the materialized per-student aggregate
+            Double average = unitOfWork.getGradeAggregateRepository()
+                    .findByStudentIdAndSubjectId(studentId, GradeAggregate.ALL_SUBJECTS)
+                    .map(GradeAggregate::getAverage)
+                    .orElse(null);
 
-            if (grades.isEmpty()) {
+            if (average == null) {
                 return 0.0;
             }
 
-            // Calculate average of all grades
-            double sum = grades.stream()
-                    .mapToInt(Grade::getGradeValue)
-                    .average()
-                    .orElse(0.0);
-
-            return Math.round(sum * 100.0) / 100.0; // Round to 2 decimal places
+            return Math.round(average * 100.0) / 100.0; // Round to 2 decimal places
         } catch (Exception e) {
             return 0.0;
         }
     }
 
+    /**
+     * Calculates average grades for a set of students with a single aggregate lookup
+     */
+    private Map<Long, Double> calculateAverageGrades(Collection<Long> studentIds) {
+        Map<Long, Double> averages = new HashMap<>();
+        if (studentIds.isEmpty()) {
+            return averages;
+        }
+        try {
+            for (GradeAggregate aggregate : unitOfWork.getGradeAggregateRepository()
+                    .findByStudentIdInAndSubjectId(studentIds, GradeAggregate.ALL_SUBJECTS)) {
+                Double average = aggregate.getAverage();
+                if (average != null) {
+                    averages.put(aggregate.getStudentId(), Math.round(average * 100.0) / 100.0); // Round to 2 decimal places
+                }
+            }
+        } catch (Exception e) {
+            averages.clear();
+        }
+        return averages;
+    }
+
     /**
      * Maps Student entity to DTO with calculated data (course, average grade)
      */
     private StudentDto mapStudentWithCalculatedData(Student student) {
+        return mapStudentWithCalculatedData(student, calculateAverageGrade(student.getId()));
+    }
+
+    /**
+     * Maps a list of students to DTOs, loading average grades for the whole list in one query
+     */
+    private List<StudentDto> mapStudentsWithCalculatedData(List<Student> students) {
+        Map<Long, Double> averages = calculateAverageGrades(students.stream()
+                .map(Student::getId)
+                .collect(Collectors.toSet()));
+        return students.stream()
+                .map(student -> mapStudentWithCalculatedData(student, averages.getOrDefault(student.getId(), 0.0)))
+                .collect(Collectors.toList());
+    }
+
+    private StudentDto mapStudentWithCalculatedData(Student student, Double averageGrade) {
         StudentDto dto = studentMapper.toDto(student);
 
         // Use actual courseYear from database instead of calculating from enrollment year
@@ -247,8 +302,6 @@ public class StudentServiceImpl implements StudentService {
             }
         }
 
-        // Calculate average grade
-        Double averageGrade = calculateAverageGrade(student.getId());
         dto.setAverageGrade(averageGrade);
 
         return dto;
@@ -257,13 +310,11 @@ public class StudentServiceImpl implements StudentService {
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> findByGroupId(Long groupId) {
-        return unitOfWork.getStudentRepository().findByGroupId(groupId)
-                .stream()
-                .map(this::mapStudentWithCalculatedData)
-                .collect(Collectors.toList());
+        return mapStudentsWithCalculatedData(unitOfWork.getStudentRepository().findByGroupId(groupId));
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
     public StudentDto activateStudent(Long studentId) {
         Student student = unitOfWork.getStudentRepository().findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
@@ -276,6 +327,7 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
     public StudentDto deactivateStudent(Long studentId) {
         Student student = unitOfWork.getStudentRepository().findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
@@ -289,6 +341,7 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
     public StudentDto assignToGroup(Long studentId, Long groupId) {
         Student student = unitOfWork.getStudentRepository().findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
@@ -309,6 +362,7 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.GROUPS, CacheConfig.GROUP_LISTS}, allEntries = true)
     public StudentDto removeFromGroup(Long studentId) {
         Student student = unitOfWork.getStudentRepository().findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
@@ -323,26 +377,16 @@ public class StudentServiceImpl implements StudentService {
     @Override
     public List<Object> searchStudentsForGroup(String query, Long groupId) {
         try {
-            List<Student> allStudents = unitOfWork.getStudentRepository().findAll();
+            List<Student> matchingStudents = userSearchIndex.isReady()
+                ? findIndexedStudents(query)
+                : unitOfWork.getStudentRepository().searchAllByNameOrEmail(query);
+            Map<Long, Double> averages = calculateAverageGrades(matchingStudents.stream()
+                .map(Student::getId)
+                .collect(Collectors.toSet()));
             
-            return allStudents.stream()
-                .filter(student -> {
-                    if (student.getUser() == null) return false;
-                    
-                    String firstName = student.getUser().getFirstName() != null ? 
-                        student.getUser().getFirstName().toLowerCase() : "";
-                    String lastName = student.getUser().getLastName() != null ? 
-                        student.getUser().getLastName().toLowerCase() : "";
-                    String email = student.getUser().getEmail() != null ? 
-                        student.getUser().getEmail().toLowerCase() : "";
-                    String queryLower = query.toLowerCase();
-                    
-                    return firstName.contains(queryLower) || 
-                           lastName.contains(queryLower) || 
-                           email.contains(queryLower);
-                })
+            return matchingStudents.stream()
                 .map(student -> {
-                    StudentDto dto = mapStudentWithCalculatedData(student);
+                    StudentDto dto = mapStudentWithCalculatedData(student, averages.getOrDefault(student.getId(), 0.0));
                     
                     // Add group information
                     List<String> groupNames = new ArrayList<>();
@@ -377,6 +421,35 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
+    /**
+     * The index knows nothing of student status, so the ranked matches are loaded a page at a time
+     * until a full page of active students is found or the matches run out
+     */
+    private List<Student> findIndexedActiveStudents(String query) {
+        List<Long> userIds = userSearchIndex.search(query, UserRole.STUDENT, Integer.MAX_VALUE);
+        List<Student> students = new ArrayList<>();
+        for (int from = 0; from < userIds.size() && students.size() < UserSearchIndex.DEFAULT_LIMIT;
+             from += UserSearchIndex.DEFAULT_LIMIT) {
+            List<Long> page = userIds.subList(from, Math.min(from + UserSearchIndex.DEFAULT_LIMIT, userIds.size()));
+            students.addAll(UserSearchIndex.inRankOrder(page,
+                    unitOfWork.getStudentRepository().findByUserIdInAndIsActiveTrue(page), s -> s.getUser().getId()));
+        }
+        return students.size() > UserSearchIndex.DEFAULT_LIMIT
+                ? students.subList(0, UserSearchIndex.DEFAULT_LIMIT) : students;
+    }
+
+    /**
+     * Students whose user matches the query in the search index, best matches first
+     */
+    private List<Student> findIndexedStudents(String query) {
+        List<Long> userIds = userSearchIndex.search(query, UserRole.STUDENT, UserSearchIndex.DEFAULT_LIMIT);
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return UserSearchIndex.inRankOrder(userIds,
+                unitOfWork.getStudentRepository().findByUserIdIn(userIds), s -> s.getUser().getId());
+    }
+
     @Override
     public StudentDto findByEmail(String email) {
         // Note: This method name is misleading - it's actually called with username from JWT authentication
@@ -1,7 +1,10 @@
 package com.kursova.bll.services.impl;
 
+import com.kursova.bll.dto.GroupSummaryDto;
 import com.kursova.bll.dto.SubjectDto;
+import com.kursova.bll.dto.SubjectListItem;
 import com.kursova.bll.dto.TeacherDto;
+import com.kursova.bll.dto.TeacherSummaryDto;
 import com.kursova.bll.mappers.SubjectMapper;
 import com.kursova.bll.mappers.TeacherMapper;
 import com.kursova.bll.mappers.StudentGroupMapper;
@@ -10,15 +13,28 @@ import com.kursova.dal.entities.Subject;
 import com.kursova.dal.entities.Teacher;
 import com.kursova.dal.entities.StudentGroup;
 import com.kursova.dal.entities.AssessmentType;
+import com.kursova.dal.entities.EducationLevel;
+import com.kursova.dal.entities.StudyForm;
 import com.kursova.dal.repositories.SubjectRepository;
 import com.kursova.dal.repositories.TeacherRepository;
 import com.kursova.dal.repositories.StudentGroupRepository;
+import com.kursova.config.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +44,8 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class SubjectServiceImpl implements SubjectService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final SubjectRepository subjectRepository;
     private final TeacherRepository teacherRepository;
     private final StudentGroupRepository groupRepository;
@@ -73,8 +91,42 @@ public class SubjectServiceImpl implements SubjectService {
         return dto;
     }
 
+    // Batch variant for lists: teachers with users and group counts are loaded for all subjects at once
+    private List<SubjectDto> enrichWithTeachers(List<Subject> subjects) {
+        if (subjects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> subjectIds = subjects.stream().map(Subject::getId).collect(Collectors.toList());
+        Map<Long, Subject> withTeachers = subjectRepository.findWithTeachersByIdIn(subjectIds).stream()
+            .collect(Collectors.toMap(Subject::getId, Function.identity(), (a, b) -> a));
+        Map<Long, Long> groupCounts = countGroups(subjectIds);
+
+        List<SubjectDto> result = new ArrayList<>(subjects.size());
+        for (Subject subject : subjects) {
+            SubjectDto dto = subjectMapper.toDto(subject);
+            Set<Teacher> teachers = withTeachers.getOrDefault(subject.getId(), subject).getTeachers();
+            if (teachers != null && !teachers.isEmpty()) {
+                dto.setTeachers(teachers.stream()
+                    .map(teacherMapper::toDto)
+                    .collect(Collectors.toList()));
+            }
+            dto.setGroupCount(groupCounts.getOrDefault(subject.getId(), 0L).intValue());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private Map<Long, Long> countGroups(Collection<Long> subjectIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : subjectRepository.countGroupsBySubjectIds(subjectIds)) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.SUBJECT_LISTS, allEntries = true)
     public SubjectDto create(SubjectDto dto) {
         if (dto.getSubjectCode() != null && subjectRepository.existsBySubjectCode(dto.getSubjectCode())) {
             throw new RuntimeException("Subject code already exists: " + dto.getSubjectCode());
@@ -87,6 +139,7 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.SUBJECTS, key = "#id")
     public SubjectDto findById(Long id) {
         Subject subject = subjectRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + id));
@@ -94,15 +147,17 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.SUBJECT_LISTS, key = "'all'")
     public List<SubjectDto> findAll() {
-        return subjectRepository.findAll()
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findAll());
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.SUBJECT_LISTS, CacheConfig.TEACHER_LISTS}, allEntries = true)
+    })
     public SubjectDto update(Long id, SubjectDto dto) {
         Subject existingSubject = subjectRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + id));
@@ -152,6 +207,10 @@ public class SubjectServiceImpl implements SubjectService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.SUBJECT_LISTS, CacheConfig.TEACHER_LISTS}, allEntries = true)
+    })
     public void delete(Long id) {
         if (!subjectRepository.existsById(id)) {
             throw new RuntimeException("Subject not found with id: " + id);
@@ -172,6 +231,7 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.SUBJECT_LISTS, key = "'code:' + #subjectCode")
     public SubjectDto findBySubjectCode(String subjectCode) {
         Subject subject = subjectRepository.findBySubjectCode(subjectCode)
             .orElseThrow(() -> new RuntimeException("Subject not found with code: " + subjectCode));
@@ -179,59 +239,72 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.SUBJECT_LISTS, key = "'active'")
     public List<SubjectDto> findActiveSubjects() {
-        return subjectRepository.findActiveSubjectsWithGroups()
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findByIsActiveTrueOrderBySubjectNameAsc());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.SUBJECT_LISTS, key = "'listing'")
+    public List<SubjectListItem> findActiveSubjectListItems() {
+        Map<Long, SubjectListItem> items = new LinkedHashMap<>();
+        for (Object[] row : subjectRepository.findActiveForListing()) {
+            SubjectListItem item = new SubjectListItem();
+            item.setId((Long) row[0]);
+            item.setSubjectName((String) row[1]);
+            item.setSubjectCode((String) row[2]);
+            item.setCredits((Integer) row[3]);
+            item.setSemester((Integer) row[4]);
+            item.setAssessmentType((AssessmentType) row[5]);
+            item.setIsActive((Boolean) row[6]);
+            item.setGroupCount(((Number) row[7]).intValue());
+            items.put(item.getId(), item);
+        }
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        for (Object[] row : subjectRepository.findTeacherNamesBySubjectIds(items.keySet())) {
+            String fullName = row[2] + " " + row[3];
+            items.get((Long) row[0]).getTeachers().add(new SubjectListItem.TeacherRef((Long) row[1], fullName));
+        }
+        return new ArrayList<>(items.values());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.SUBJECT_LISTS, key = "'activeCount'")
+    public long countActiveSubjects() {
+        return subjectRepository.countByIsActiveTrue();
     }
 
     @Override
     public List<SubjectDto> searchByName(String name) {
-        return subjectRepository.searchByName(name)
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.searchByName(name));
     }
 
     @Override
     public List<SubjectDto> findByAssessmentType(AssessmentType assessmentType) {
-        return subjectRepository.findByAssessmentTypeAndIsActiveTrueOrderBySubjectNameAsc(assessmentType)
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findByAssessmentTypeAndIsActiveTrueOrderBySubjectNameAsc(assessmentType));
     }
 
     @Override
     public List<SubjectDto> findBySemester(Integer semester) {
-        return subjectRepository.findBySemesterAndIsActiveTrueOrderBySubjectNameAsc(semester)
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findBySemesterAndIsActiveTrueOrderBySubjectNameAsc(semester));
     }
 
     @Override
     public List<SubjectDto> findByCredits(Integer credits) {
-        return subjectRepository.findByCreditsAndIsActiveTrueOrderBySubjectNameAsc(credits)
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findByCreditsAndIsActiveTrueOrderBySubjectNameAsc(credits));
     }
 
     @Override
     public List<SubjectDto> findByTeacherId(Long teacherId) {
-        return subjectRepository.findByTeacherIdWithGroups(teacherId)
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findByTeacherIdWithGroups(teacherId));
     }
 
     @Override
     public List<SubjectDto> findByGroupId(Long groupId) {
-        return subjectRepository.findByGroupId(groupId)
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findByGroupId(groupId));
     }
 
     @Override
@@ -241,14 +314,15 @@ public class SubjectServiceImpl implements SubjectService {
 
     @Override
     public List<SubjectDto> findSubjectsWithGradesForStudent(Long studentId) {
-        return subjectRepository.findSubjectsWithGradesForStudent(studentId)
-            .stream()
-            .map(this::enrichWithTeachers)
-            .collect(Collectors.toList());
+        return enrichWithTeachers(subjectRepository.findSubjectsWithGradesForStudent(studentId));
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#subjectId"),
+        @CacheEvict(cacheNames = {CacheConfig.SUBJECT_LISTS, CacheConfig.TEACHER_LISTS}, allEntries = true)
+    })
     public void assignTeacher(Long subjectId, Long teacherId) {
         Subject subject = subjectRepository.findById(subjectId)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
@@ -266,6 +340,10 @@ public class SubjectServiceImpl implements SubjectService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#subjectId"),
+        @CacheEvict(cacheNames = {CacheConfig.SUBJECT_LISTS, CacheConfig.TEACHER_LISTS}, allEntries = true)
+    })
     public void removeTeacher(Long subjectId, Long teacherId) {
         Subject subject = subjectRepository.findById(subjectId)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
@@ -279,6 +357,10 @@ public class SubjectServiceImpl implements SubjectService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#subjectId"),
+        @CacheEvict(cacheNames = {CacheConfig.SUBJECT_LISTS, CacheConfig.TEACHER_LISTS}, allEntries = true)
+    })
     public SubjectDto activateSubject(Long subjectId) {
         Subject subject = subjectRepository.findById(subjectId)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
@@ -290,6 +372,10 @@ public class SubjectServiceImpl implements SubjectService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#subjectId"),
+        @CacheEvict(cacheNames = {CacheConfig.SUBJECT_LISTS, CacheConfig.TEACHER_LISTS}, allEntries = true)
+    })
     public SubjectDto deactivateSubject(Long subjectId) {
         Subject subject = subjectRepository.findById(subjectId)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
@@ -317,29 +403,21 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
-    public List<Object> getAvailableGroups(Long subjectId) {
-        try {
-            Subject subject = subjectRepository.findById(subjectId)
-                .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
-            
-            // Get all groups except those already assigned to this subject
-            List<StudentGroup> allGroups = groupRepository.findAll();
-            Set<StudentGroup> assignedGroups = subject.getGroups();
-            
-            return allGroups.stream()
-                .filter(group -> !assignedGroups.contains(group))
-                .map(group -> {
-                    var dto = groupMapper.toDto(group);
-                    return (Object) dto;
-                })
-                .collect(Collectors.toList());
-        } catch (Exception e) {
-            return new ArrayList<>();
-        }
+    public List<GroupSummaryDto> getAvailableGroups(Long subjectId, String searchTerm, int page, Integer size) {
+        Pageable pageable = availablePage(subjectId, page, size);
+        return groupRepository.findAvailableForSubject(subjectId, normalizeSearchTerm(searchTerm), pageable)
+            .stream()
+            .map(row -> new GroupSummaryDto((Long) row[0], (String) row[1], (String) row[2],
+                (EducationLevel) row[3], (Integer) row[4], (StudyForm) row[5]))
+            .collect(Collectors.toList());
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#subjectId"),
+        @CacheEvict(cacheNames = CacheConfig.SUBJECT_LISTS, allEntries = true)
+    })
     public void addGroupToSubject(Long subjectId, Long groupId) {
         Subject subject = subjectRepository.findById(subjectId)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
@@ -353,6 +431,10 @@ public class SubjectServiceImpl implements SubjectService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, key = "#subjectId"),
+        @CacheEvict(cacheNames = CacheConfig.SUBJECT_LISTS, allEntries = true)
+    })
     public void removeGroupFromSubject(Long subjectId, Long groupId) {
         Subject subject = subjectRepository.findById(subjectId)
             .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
@@ -382,24 +464,31 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
-    public List<Object> getAvailableTeachers(Long subjectId) {
-        try {
-            Subject subject = subjectRepository.findById(subjectId)
-                .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
-            
-            // Get all teachers except those already assigned
-            List<Teacher> allTeachers = teacherRepository.findAll();
-            List<Teacher> assignedTeachers = new ArrayList<>(subject.getTeachers());
-            
-            return allTeachers.stream()
-                .filter(teacher -> !assignedTeachers.contains(teacher))
-                .map(teacher -> {
-                    var dto = teacherMapper.toDto(teacher);
-                    return (Object) dto;
-                })
-                .collect(Collectors.toList());
-        } catch (Exception e) {
-            return new ArrayList<>();
+    public List<TeacherSummaryDto> getAvailableTeachers(Long subjectId, String searchTerm, int page, Integer size) {
+        Pageable pageable = availablePage(subjectId, page, size);
+        return teacherRepository.findAvailableForSubject(subjectId, normalizeSearchTerm(searchTerm), pageable)
+            .stream()
+            .map(row -> new TeacherSummaryDto((Long) row[0], (String) row[1], (String) row[2],
+                (String) row[3], (String) row[4], (String) row[5]))
+            .collect(Collectors.toList());
+    }
+
+    // Validates paging for the available groups/teachers pickers and checks the subject exists;
+    // without a size the pickers get every row, as they did before paging was added
+    private Pageable availablePage(Long subjectId, int page, Integer size) {
+        if (size != null && page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
         }
+        if (size != null && (size < 1 || size > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!subjectRepository.existsById(subjectId)) {
+            throw new RuntimeException("Subject not found with id: " + subjectId);
+        }
+        return size != null ? PageRequest.of(page, size) : Pageable.unpaged();
+    }
+
+    private static String normalizeSearchTerm(String searchTerm) {
+        return searchTerm != null ? searchTerm.trim().toLowerCase() : "";
     }
 }
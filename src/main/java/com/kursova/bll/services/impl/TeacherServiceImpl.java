@@ -8,14 +8,20 @@ import com.kursova.bll.dto.UserDto;
 import com.kursova.bll.mappers.GradeMapper;
 import com.kursova.bll.mappers.SubjectMapper;
 import com.kursova.bll.mappers.TeacherMapper;
+import com.kursova.bll.search.UserSearchIndex;
 import com.kursova.bll.services.StudentService;
 import com.kursova.bll.services.TeacherService;
-import com.kursova.dal.entities.Grade;
 import com.kursova.dal.entities.Student;
 import com.kursova.dal.entities.Teacher;
 import com.kursova.dal.entities.Subject;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.dal.repositories.GradeListRow;
 import com.kursova.dal.uow.UnitOfWork;
+import com.kursova.config.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,22 +42,25 @@ public class TeacherServiceImpl implements TeacherService {
     private final GradeMapper gradeMapper;
     private final SubjectMapper subjectMapper;
     private final StudentService studentService;
+    private final UserSearchIndex userSearchIndex;
 
     @Autowired
     public TeacherServiceImpl(UnitOfWork unitOfWork, TeacherMapper teacherMapper, 
                              GradeMapper gradeMapper, SubjectMapper subjectMapper, 
-                             StudentService studentService) {
+                             StudentService studentService, UserSearchIndex userSearchIndex) {
         this.unitOfWork = unitOfWork;
         this.teacherMapper = teacherMapper;
         this.gradeMapper = gradeMapper;
         this.subjectMapper = subjectMapper;
         this.studentService = studentService;
+        this.userSearchIndex = userSearchIndex;
     }
 
     // Implementation of BaseService methods
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TEACHER_LISTS, key = "'all'")
     public List<TeacherDto> findAll() {
         return unitOfWork.getTeacherRepository().findAll()
                 .stream()
@@ -61,6 +70,7 @@ public class TeacherServiceImpl implements TeacherService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TEACHERS, key = "#id")
     public TeacherDto findById(Long id) {
         Teacher teacher = unitOfWork.getTeacherRepository().findById(id)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + id));
@@ -68,6 +78,7 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.TEACHER_LISTS, allEntries = true)
     public TeacherDto create(TeacherDto teacherDto) {
         if (teacherDto == null) {
             throw new IllegalArgumentException("Teacher DTO cannot be null");
@@ -82,6 +93,10 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.TEACHER_LISTS, CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    })
     public TeacherDto update(Long id, TeacherDto teacherDto) {
         if (teacherDto == null) {
             throw new IllegalArgumentException("Teacher DTO cannot be null");
@@ -98,6 +113,10 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheConfig.TEACHER_LISTS, CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    })
     public void delete(Long id) {
         if (!unitOfWork.getTeacherRepository().existsById(id)) {
             throw new RuntimeException("Teacher not found with id: " + id);
@@ -144,17 +163,21 @@ public class TeacherServiceImpl implements TeacherService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TEACHER_LISTS, key = "'active'")
     public List<TeacherDto> findActiveTeachers() {
-        List<Teacher> teachers = unitOfWork.getTeacherRepository().findAll()
+        return unitOfWork.getTeacherRepository().findByIsActiveTrueOrderByUserLastNameAsc()
                 .stream()
-                .filter(Teacher::getIsActive)
-                .toList();
-
-        return teachers.stream()
                 .map(this::mapTeacherWithSubjects)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TEACHER_LISTS, key = "'activeCount'")
+    public long countActiveTeachers() {
+        return unitOfWork.getTeacherRepository().countByIsActiveTrue();
+    }
+
     private TeacherDto mapTeacherWithSubjects(Teacher teacher) {
         TeacherDto dto = teacherMapper.toDto(teacher);
 
@@ -183,34 +206,74 @@ public class TeacherServiceImpl implements TeacherService {
         if (name == null || name.trim().isEmpty()) {
             return findActiveTeachers();
         }
-        List<Teacher> teachers = unitOfWork.getTeacherRepository().searchByNameOrEmail(name.trim());
+        List<Teacher> teachers;
+        if (userSearchIndex.isReady()) {
+            teachers = findIndexedActiveTeachers(name);
+        } else {
+            teachers = unitOfWork.getTeacherRepository().searchByNameOrEmail(name.trim()).stream()
+                    .filter(t -> Boolean.TRUE.equals(t.getIsActive()))
+                    .toList();
+        }
         return teachers.stream()
                 .map(this::mapTeacherWithSubjects)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * The index knows nothing of teacher status, so the ranked matches are loaded a page at a time
+     * until a full page of active teachers is found or the matches run out
+     */
+    private List<Teacher> findIndexedActiveTeachers(String query) {
+        List<Long> userIds = userSearchIndex.search(query, UserRole.TEACHER, Integer.MAX_VALUE);
+        List<Teacher> teachers = new ArrayList<>();
+        for (int from = 0; from < userIds.size() && teachers.size() < UserSearchIndex.DEFAULT_LIMIT;
+             from += UserSearchIndex.DEFAULT_LIMIT) {
+            List<Long> page = userIds.subList(from, Math.min(from + UserSearchIndex.DEFAULT_LIMIT, userIds.size()));
+            teachers.addAll(UserSearchIndex.inRankOrder(page,
+                    unitOfWork.getTeacherRepository().findByUserIdInAndIsActiveTrue(page), t -> t.getUser().getId()));
+        }
+        return teachers.size() > UserSearchIndex.DEFAULT_LIMIT
+                ? teachers.subList(0, UserSearchIndex.DEFAULT_LIMIT) : teachers;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<TeacherDto> findByAcademicTitle(String academicTitle) {
-        // Simplified - return all teachers for now
-        return findAll();
+        if (academicTitle == null || academicTitle.trim().isEmpty()) {
+            return findActiveTeachers();
+        }
+        return unitOfWork.getTeacherRepository().findByAcademicTitleContainingIgnoreCaseAndIsActiveTrue(academicTitle.trim())
+                .stream()
+                .map(this::mapTeacherWithSubjects)
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TeacherDto> findByDepartmentPosition(String position) {
-        // Simplified - return all teachers for now
-        return findAll();
+        if (position == null || position.trim().isEmpty()) {
+            return findActiveTeachers();
+        }
+        return unitOfWork.getTeacherRepository().findByDepartmentPositionContainingIgnoreCaseAndIsActiveTrue(position.trim())
+                .stream()
+                .map(this::mapTeacherWithSubjects)
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TeacherDto> findBySubjectId(Long subjectId) {
-        // Simplified - return all teachers for now
-        return findAll();
+        if (subjectId == null) {
+            return List.of();
+        }
+        return unitOfWork.getTeacherRepository().findBySubjectId(subjectId)
+                .stream()
+                .map(this::mapTeacherWithSubjects)
+                .collect(Collectors.toList());
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.TEACHER_LISTS, allEntries = true)
     public TeacherDto createWithUser(UserDto userDto, String password, TeacherDto teacherDto) {
         // This would typically create both User and Teacher
         // For now, simplified implementation
@@ -218,6 +281,10 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#teacherId"),
+        @CacheEvict(cacheNames = {CacheConfig.TEACHER_LISTS, CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    })
     public TeacherDto assignSubject(Long teacherId, Long subjectId) {
         Teacher teacher = unitOfWork.getTeacherRepository().findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
@@ -233,6 +300,10 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#teacherId"),
+        @CacheEvict(cacheNames = {CacheConfig.TEACHER_LISTS, CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    })
     public TeacherDto removeSubject(Long teacherId, Long subjectId) {
         Teacher teacher = unitOfWork.getTeacherRepository().findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
@@ -248,6 +319,10 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#teacherId"),
+        @CacheEvict(cacheNames = {CacheConfig.TEACHER_LISTS, CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    })
     public TeacherDto activateTeacher(Long teacherId) {
         Teacher teacher = unitOfWork.getTeacherRepository().findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
@@ -260,6 +335,10 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#teacherId"),
+        @CacheEvict(cacheNames = {CacheConfig.TEACHER_LISTS, CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS}, allEntries = true)
+    })
     public TeacherDto deactivateTeacher(Long teacherId) {
         Teacher teacher = unitOfWork.getTeacherRepository().findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
@@ -288,8 +367,8 @@ public class TeacherServiceImpl implements TeacherService {
         Teacher teacher = unitOfWork.getTeacherRepository().findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
         
-        List<Grade> grades = unitOfWork.getGradeRepository().findByTeacherIdOrderByGradeDateDesc(teacherId);
-        return gradeMapper.toDtoList(grades);
+        List<GradeListRow> grades = unitOfWork.getGradeRepository().findByTeacherIdOrderByGradeDateDesc(teacherId);
+        return gradeMapper.rowsToDtoList(grades);
     }
 
     @Override
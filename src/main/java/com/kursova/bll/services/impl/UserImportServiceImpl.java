@@ -0,0 +1,416 @@
+package com.kursova.bll.services.impl;
+
+import com.kursova.bll.dto.UserImportResultDto;
+import com.kursova.bll.services.UserImportService;
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.StudentGroup;
+import com.kursova.dal.entities.StudyForm;
+import com.kursova.dal.entities.Teacher;
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.dal.uow.UnitOfWork;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of UserImportService.
+ * The file is read in chunks: each chunk is checked against the database with one lookup per unique column,
+ * its passwords are hashed on a bounded pool sized to the cores, and its rows are inserted as JDBC batches
+ * (users and students have pooled id generators) before the persistence context is cleared for the next chunk.
+ */
+@Service
+@Transactional
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_LINES = 10_000;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("username", "email", "first_name", "last_name", "password");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final UnitOfWork unitOfWork;
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService hashExecutor;
+
+    @Autowired
+    public UserImportServiceImpl(UnitOfWork unitOfWork, PasswordEncoder passwordEncoder,
+                                 @Value("${app.users.import.hash-threads:0}") int hashThreads) {
+        this(unitOfWork, passwordEncoder, newHashExecutor(hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors()));
+    }
+
+    public UserImportServiceImpl(UnitOfWork unitOfWork, PasswordEncoder passwordEncoder, ExecutorService hashExecutor) {
+        this.unitOfWork = unitOfWork;
+        this.passwordEncoder = passwordEncoder;
+        this.hashExecutor = hashExecutor;
+    }
+
+    private static ExecutorService newHashExecutor(int threads) {
+        // A full queue makes the importing thread hash as well instead of queueing without bound
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CHUNK_SIZE), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    @Override
+    public UserImportResultDto importCsv(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = parseHeader(headerLine);
+
+        UserImportResultDto result = new UserImportResultDto();
+        // Keys already used by earlier lines of the file, lower-cased like the database collation compares them
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenStudentNumbers = new HashSet<>();
+
+        List<ImportLine> chunk = new ArrayList<>(CHUNK_SIZE);
+        int lineNumber = 1;
+        int dataLines = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (++dataLines > MAX_LINES) {
+                throw new IllegalArgumentException("At most " + MAX_LINES + " users can be imported at once");
+            }
+            chunk.add(parseLine(lineNumber, line, columns));
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, result, seenUsernames, seenEmails, seenStudentNumbers);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result, seenUsernames, seenEmails, seenStudentNumbers);
+        }
+        if (dataLines == 0) {
+            throw new IllegalArgumentException("CSV file has no data lines");
+        }
+
+        log.info("User import finished: {} created, {} rejected", result.getCreated(), result.getRejected());
+        return result;
+    }
+
+    private void importChunk(List<ImportLine> chunk, UserImportResultDto result, Set<String> seenUsernames,
+                             Set<String> seenEmails, Set<String> seenStudentNumbers) {
+        // One query per unique column for the whole chunk
+        Set<String> takenUsernames = lowerCased(unitOfWork.getUserRepository().findExistingUsernames(
+                collect(chunk, ImportLine::username)));
+        Set<String> takenEmails = lowerCased(unitOfWork.getUserRepository().findExistingEmails(
+                collect(chunk, ImportLine::email)));
+        Set<String> studentNumbers = collect(chunk, ImportLine::studentNumber);
+        Set<String> takenStudentNumbers = studentNumbers.isEmpty() ? Set.of()
+                : lowerCased(unitOfWork.getStudentRepository().findExistingStudentNumbers(studentNumbers));
+        Set<String> groupCodes = collect(chunk, ImportLine::groupCode);
+        Map<String, StudentGroup> groups = new HashMap<>();
+        if (!groupCodes.isEmpty()) {
+            unitOfWork.getStudentGroupRepository().findByGroupCodeIn(groupCodes)
+                    .forEach(group -> groups.put(group.getGroupCode(), group));
+        }
+
+        List<ImportLine> accepted = new ArrayList<>();
+        for (ImportLine importLine : chunk) {
+            if (importLine.status == null) {
+                String username = importLine.username().toLowerCase(Locale.ROOT);
+                String email = importLine.email().toLowerCase(Locale.ROOT);
+                String studentNumber = importLine.studentNumber() != null
+                        ? importLine.studentNumber().toLowerCase(Locale.ROOT) : null;
+                if (takenUsernames.contains(username) || !seenUsernames.add(username)) {
+                    importLine.reject(UserImportResultDto.Status.DUPLICATE, "Username already exists: " + importLine.username());
+                } else if (takenEmails.contains(email) || !seenEmails.add(email)) {
+                    importLine.reject(UserImportResultDto.Status.DUPLICATE, "Email already exists: " + importLine.email());
+                } else if (studentNumber != null
+                        && (takenStudentNumbers.contains(studentNumber) || !seenStudentNumbers.add(studentNumber))) {
+                    importLine.reject(UserImportResultDto.Status.DUPLICATE,
+                            "Student number already exists: " + importLine.studentNumber());
+                } else if (importLine.groupCode() != null && !groups.containsKey(importLine.groupCode())) {
+                    importLine.reject(UserImportResultDto.Status.GROUP_NOT_FOUND,
+                            "Group not found with code: " + importLine.groupCode());
+                } else {
+                    accepted.add(importLine);
+                }
+            }
+            importLine.row = new UserImportResultDto.Row(importLine.lineNumber, importLine.username(),
+                    importLine.status != null ? importLine.status : UserImportResultDto.Status.CREATED, importLine.message);
+            result.addRow(importLine.row);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashPasswords(accepted);
+        List<User> users = new ArrayList<>(accepted.size());
+        List<Student> students = new ArrayList<>();
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            ImportLine importLine = accepted.get(i);
+            User user = new User(importLine.username(), hashes.get(i), importLine.email(),
+                    importLine.value("first_name"), importLine.value("last_name"), importLine.role);
+            // Same activation rule as single user creation: only students are active right away
+            user.setIsActive(importLine.role == UserRole.STUDENT);
+            users.add(user);
+            if (importLine.role == UserRole.STUDENT) {
+                Student student = new Student(user, importLine.studentNumber(), LocalDateTime.now().getYear(), StudyForm.FULL_TIME);
+                student.setIsActive(true);
+                StudentGroup group = importLine.groupCode() != null ? groups.get(importLine.groupCode()) : null;
+                if (group != null) {
+                    student.setGroup(group);
+                    student.setEducationLevel(group.getEducationLevel());
+                    student.setStudyForm(group.getStudyForm());
+                    student.setCourseYear(group.getCourseYear());
+                }
+                importLine.student = student;
+                students.add(student);
+            } else if (importLine.role == UserRole.TEACHER) {
+                Teacher teacher = new Teacher();
+                teacher.setUser(user);
+                teacher.setIsActive(true);
+                teacher.setHireDate(LocalDateTime.now());
+                teacher.setDepartmentPosition("Викладач"); // Default position
+                teachers.add(teacher);
+            }
+            importLine.user = user;
+        }
+
+        // Ids come from the pooled generators, so the inserts go out as JDBC batches on flush
+        unitOfWork.getUserRepository().saveAll(users);
+        unitOfWork.getStudentRepository().saveAll(students);
+        unitOfWork.getTeacherRepository().saveAll(teachers);
+        for (ImportLine importLine : accepted) {
+            importLine.row.setUserId(importLine.user.getId());
+            if (importLine.student != null) {
+                importLine.row.setStudentId(importLine.student.getId());
+            }
+        }
+        unitOfWork.flushAndClear();
+    }
+
+    private List<String> hashPasswords(List<ImportLine> lines) {
+        List<Future<String>> hashes = new ArrayList<>(lines.size());
+        for (ImportLine importLine : lines) {
+            String password = importLine.value("password");
+            hashes.add(hashExecutor.submit(() -> passwordEncoder.encode(password)));
+        }
+        List<String> encoded = new ArrayList<>(hashes.size());
+        try {
+            for (Future<String> hash : hashes) {
+                encoded.add(hash.get());
+            }
+        } catch (InterruptedException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import was interrupted", e);
+        } catch (ExecutionException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return encoded;
+    }
+
+    private static Map<String, Integer> parseHeader(String headerLine) {
+        // Spreadsheet applications often save UTF-8 with a byte order mark
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        List<String> names = splitCsvLine(headerLine);
+        if (names == null) {
+            throw new IllegalArgumentException("CSV header is malformed");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(name -> !columns.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static ImportLine parseLine(int lineNumber, String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsvLine(line);
+        ImportLine importLine = new ImportLine(lineNumber, columns, fields);
+        if (fields == null) {
+            importLine.reject(UserImportResultDto.Status.INVALID, "Malformed CSV line");
+        } else if (fields.size() != columns.size()) {
+            importLine.reject(UserImportResultDto.Status.INVALID,
+                    "Expected " + columns.size() + " columns but found " + fields.size());
+        } else {
+            validate(importLine);
+        }
+        return importLine;
+    }
+
+    private static void validate(ImportLine importLine) {
+        String username = importLine.username();
+        String email = importLine.email();
+        String roleName = importLine.value("role");
+        if (username == null || username.length() < 3 || username.length() > 50) {
+            importLine.reject(UserImportResultDto.Status.INVALID, "Username must be between 3 and 50 characters");
+        } else if (email == null || !EMAIL.matcher(email).matches()) {
+            importLine.reject(UserImportResultDto.Status.INVALID, "Invalid email format");
+        } else if (!hasLength(importLine.value("first_name"), 100) || !hasLength(importLine.value("last_name"), 100)) {
+            importLine.reject(UserImportResultDto.Status.INVALID, "First and last name are required and must not exceed 100 characters");
+        } else if (importLine.value("password") == null) {
+            importLine.reject(UserImportResultDto.Status.INVALID, "Password is required");
+        } else {
+            try {
+                importLine.role = roleName != null ? UserRole.valueOf(roleName.toUpperCase(Locale.ROOT)) : UserRole.STUDENT;
+            } catch (IllegalArgumentException e) {
+                importLine.reject(UserImportResultDto.Status.INVALID, "Unknown role: " + roleName);
+                return;
+            }
+            if (importLine.role == UserRole.STUDENT && importLine.studentNumber() == null) {
+                importLine.reject(UserImportResultDto.Status.INVALID, "Student number is required for students");
+            } else if (importLine.role != UserRole.STUDENT
+                    && (importLine.studentNumber() != null || importLine.groupCode() != null)) {
+                importLine.reject(UserImportResultDto.Status.INVALID, "Student number and group are only allowed for students");
+            }
+        }
+    }
+
+    private static boolean hasLength(String value, int maxLength) {
+        return value != null && value.length() <= maxLength;
+    }
+
+    /**
+     * Split one CSV line into fields (RFC 4180 quoting, no line breaks inside fields), null when a quote is not closed
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Set<String> collect(List<ImportLine> lines, java.util.function.Function<ImportLine, String> key) {
+        return lines.stream()
+                .filter(importLine -> importLine.status == null)
+                .map(key)
+                .filter(value -> value != null)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> lowerCased(List<String> values) {
+        return values.stream().map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+
+    /**
+     * One data line of the file with its validation outcome and the entities created for it
+     */
+    private static final class ImportLine {
+
+        private final int lineNumber;
+        private final Map<String, Integer> columns;
+        private final List<String> fields;
+        private UserRole role;
+        private UserImportResultDto.Status status;
+        private String message;
+        private UserImportResultDto.Row row;
+        private User user;
+        private Student student;
+
+        private ImportLine(int lineNumber, Map<String, Integer> columns, List<String> fields) {
+            this.lineNumber = lineNumber;
+            this.columns = columns;
+            this.fields = fields;
+        }
+
+        private void reject(UserImportResultDto.Status status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        /**
+         * Trimmed value of a column, null when the column is absent or the value is blank
+         */
+        private String value(String column) {
+            Integer index = columns.get(column);
+            if (fields == null || index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private String username() {
+            return value("username");
+        }
+
+        private String email() {
+            return value("email");
+        }
+
+        private String studentNumber() {
+            return value("student_number");
+        }
+
+        private String groupCode() {
+            return value("group_code");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.kursova.bll.services.impl;
 
 import com.kursova.bll.dto.UserDto;
 import com.kursova.bll.mappers.UserMapper;
+import com.kursova.bll.search.UserSearchIndex;
 import com.kursova.bll.services.ArchiveService;
 import com.kursova.bll.services.UserService;
 import com.kursova.dal.entities.Student;
@@ -29,13 +30,16 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final ArchiveService archiveService;
+    private final UserSearchIndex userSearchIndex;
 
     @Autowired
-    public UserServiceImpl(UnitOfWork unitOfWork, UserMapper userMapper, PasswordEncoder passwordEncoder, ArchiveService archiveService) {
+    public UserServiceImpl(UnitOfWork unitOfWork, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                           ArchiveService archiveService, UserSearchIndex userSearchIndex) {
         this.unitOfWork = unitOfWork;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.archiveService = archiveService;
+        this.userSearchIndex = userSearchIndex;
     }
 
     @Override
@@ -152,7 +156,15 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public List<UserDto> searchByName(String name) {
-        List<User> entities = unitOfWork.getUserRepository().searchByNameOrEmail(name);
+        if (!userSearchIndex.isReady()) {
+            return userMapper.toDtoList(unitOfWork.getUserRepository().searchByNameOrEmail(name));
+        }
+        List<Long> userIds = userSearchIndex.search(name, null, UserSearchIndex.DEFAULT_LIMIT);
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        List<User> entities = UserSearchIndex.inRankOrder(userIds,
+                unitOfWork.getUserRepository().findAllById(userIds), User::getId);
         return userMapper.toDtoList(entities);
     }
 
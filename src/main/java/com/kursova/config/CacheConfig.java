@@ -0,0 +1,50 @@
+package com.kursova.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through caches for slow-changing reference data (subjects, teachers, groups).
+ * Entries by id live in the entity caches, every other lookup (lists, counts, by code) in the *Lists caches,
+ * which are cleared as a whole on any write. Evictions are applied after commit.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String SUBJECTS = "subjects";
+    public static final String SUBJECT_LISTS = "subjectLists";
+    public static final String TEACHERS = "teachers";
+    public static final String TEACHER_LISTS = "teacherLists";
+    public static final String GROUPS = "groups";
+    public static final String GROUP_LISTS = "groupLists";
+
+    private final String cacheSpec;
+
+    public CacheConfig(@Value("${app.cache.reference-data.spec:maximumSize=1000,expireAfterWrite=10m}") String cacheSpec) {
+        this.cacheSpec = cacheSpec;
+    }
+
+    /**
+     * Caffeine manager with statistics enabled, so actuator publishes cache.gets hit/miss metrics per cache
+     */
+    @Bean
+    public CaffeineCacheManager caffeineCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                SUBJECTS, SUBJECT_LISTS, TEACHERS, TEACHER_LISTS, GROUPS, GROUP_LISTS);
+        cacheManager.setCaffeine(Caffeine.from(cacheSpec).recordStats());
+        return cacheManager;
+    }
+
+    @Override
+    public CacheManager cacheManager() {
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager());
+    }
+}
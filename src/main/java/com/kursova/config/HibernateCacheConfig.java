@@ -0,0 +1,38 @@
+package com.kursova.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * JCache manager behind the Hibernate second-level cache (teachers, subjects, groups and cacheable queries).
+ * The manager is handed to Hibernate directly because Hibernate resolves hibernate.javax.cache.uri to a jar: URL
+ * inside the packaged application, which Caffeine does not read, silently falling back to unbounded defaults.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private final URI regionsConfig;
+
+    public HibernateCacheConfig(@Value("${app.cache.hibernate.regions:classpath:hibernate-jcache.conf}") String regionsConfig) {
+        this.regionsConfig = URI.create(regionsConfig);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer() {
+        return properties -> {
+            if (Boolean.parseBoolean(String.valueOf(properties.get("hibernate.cache.use_second_level_cache")))) {
+                CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                        .getCacheManager(regionsConfig, HibernateCacheConfig.class.getClassLoader());
+                properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.kursova.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the emulated id sequence tables (grades_seq, users_seq, students_seq) past existing ids.
+ * Needed when a table was created by ddl-auto on a database that already had IDENTITY-generated rows.
+ * Runs as a session factory observer, which Hibernate calls after ddl-auto has created the sequence
+ * tables and before the entity manager factory is handed out, so no insert can draw a stale id.
+ */
+@Component
+public class IdSequenceGuard implements SessionFactoryObserver, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceGuard.class);
+
+    // Must match the allocationSize of the Grade, User and Student id generators
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Sequence table -> table whose ids it generates
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "grades_seq", "grades",
+            "users_seq", "users",
+            "students_seq", "students");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceGuard(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.SESSION_FACTORY_OBSERVER, this);
+    }
+
+    @Override
+    public void sessionFactoryCreated(SessionFactory factory) {
+        alignWithExistingIds();
+    }
+
+    public void alignWithExistingIds() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String sequence, String table) {
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + sequence + " SET next_val = (SELECT COALESCE(MAX(id), 0) + ? FROM " + table + ") " +
+                    "WHERE next_val < (SELECT COALESCE(MAX(id), 0) + ? FROM " + table + ")",
+                    ALLOCATION_SIZE + 1, ALLOCATION_SIZE + 1);
+            if (updated > 0) {
+                log.info("Moved {} past existing {} ids", sequence, table);
+            }
+        } catch (DataAccessException e) {
+            // Databases with native sequences have no sequence tables
+            log.debug("{} table not present, skipping alignment: {}", sequence, e.getMessage());
+        }
+    }
+}
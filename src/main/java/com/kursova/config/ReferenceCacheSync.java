@@ -0,0 +1,130 @@
+package com.kursova.config;
+
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Clears the reference data caches that embed user data when a user row changes, whoever changed it.
+ * Teacher and subject entries carry the teacher's user, group entries count the group's students, so only
+ * the caches of the affected role are cleared. Hibernate calls these listeners only after the transaction
+ * commits, so the caches are cleared directly and a rolled back change clears nothing.
+ */
+@Component
+public class ReferenceCacheSync implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final List<String> TEACHER_CACHES = List.of(CacheConfig.TEACHERS, CacheConfig.TEACHER_LISTS,
+            CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS);
+    private static final List<String> STUDENT_CACHES = List.of(CacheConfig.GROUPS, CacheConfig.GROUP_LISTS);
+
+    // Changing these never shows in a cached entry
+    private static final Set<String> UNCACHED_PROPERTIES = Set.of("password", "updatedAt");
+
+    private final CaffeineCacheManager cacheManager;
+
+    public ReferenceCacheSync(CaffeineCacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.cacheManager = cacheManager;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // A student entry only counts once the student joins a group, which a new user can do right away
+        if (event.getEntity() instanceof User user) {
+            clearFor(user.getRole());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user && changesCachedData(event)) {
+            // Student entries keep no user data; a role change still moves the user between the caches
+            if (user.getRole() == UserRole.TEACHER) {
+                clearFor(UserRole.TEACHER);
+            }
+            Object[] oldState = event.getOldState();
+            if (oldState != null && oldState[event.getPersister().getPropertyIndex("role")] instanceof UserRole previous
+                    && previous != user.getRole()) {
+                clearFor(previous);
+                clearFor(user.getRole());
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            clearFor(user.getRole());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was cleared before commit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was cleared before commit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was cleared before commit
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return User.class.equals(persister.getMappedClass());
+    }
+
+    private static boolean changesCachedData(PostUpdateEvent event) {
+        int[] dirtyProperties = event.getDirtyProperties();
+        if (dirtyProperties == null) {
+            return true;
+        }
+        String[] propertyNames = event.getPersister().getPropertyNames();
+        for (int index : dirtyProperties) {
+            if (!UNCACHED_PROPERTIES.contains(propertyNames[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void clearFor(UserRole role) {
+        List<String> cacheNames = switch (role) {
+            case TEACHER -> TEACHER_CACHES;
+            case STUDENT -> STUDENT_CACHES;
+            default -> List.of();
+        };
+        for (String cacheName : cacheNames) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -19,6 +19,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
+import jakarta.servlet.DispatcherType;
+
 import java.util.Arrays;
 
 /**
@@ -69,7 +71,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, com.kursova.config.jwt.JwtUtils jwtUtils, com.kursova.config.jwt.DbUserDetailsService userDetailsService) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, com.kursova.config.jwt.JwtUtils jwtUtils, com.kursova.config.jwt.DbUserDetailsService userDetailsService, com.kursova.config.jwt.JwtPrincipalCache principalCache) throws Exception {
         http
             // CSRF is disabled because:
             // 1. This is a stateless REST API using JWT tokens
@@ -80,6 +82,8 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatch of streaming responses was already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
@@ -92,6 +96,8 @@ public class SecurityConfig {
 
                 // Admin only endpoints
                 .requestMatchers("/api/admin/**").hasRole(ROLE_ADMIN)
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole(ROLE_ADMIN)
 
                 // Manager endpoints
                 .requestMatchers("/api/manager/**").hasAnyRole(ROLE_ADMIN, ROLE_MANAGER)
@@ -103,6 +109,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/grades/my-grades").hasAnyRole(ROLE_ADMIN, ROLE_MANAGER, ROLE_TEACHER, ROLE_STUDENT)
                 .requestMatchers("/api/grades/**").hasAnyRole(ROLE_ADMIN, ROLE_MANAGER, ROLE_TEACHER)
 
+                // Export endpoints
+                .requestMatchers("/api/export/**").hasAnyRole(ROLE_ADMIN, ROLE_MANAGER)
+
                 // User endpoints
                 .requestMatchers("/api/users/**").hasAnyRole(ROLE_ADMIN, ROLE_MANAGER)
 
@@ -127,7 +136,7 @@ public class SecurityConfig {
                 ));
 
         // Add JWT filter before username/password filter
-        http.addFilterBefore(new com.kursova.config.jwt.JwtAuthFilter(jwtUtils, userDetailsService), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new com.kursova.config.jwt.JwtAuthFilter(jwtUtils, userDetailsService, principalCache), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
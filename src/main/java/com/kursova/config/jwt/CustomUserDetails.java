@@ -1,26 +1,48 @@
 package com.kursova.config.jwt;
 
 import com.kursova.dal.entities.User;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 
 /**
- * Custom UserDetails implementation that includes teacher ID for method security expressions
+ * Custom UserDetails implementation that includes user, student and teacher ids for method security expressions.
+ * The ids and display name are captured when the principal is built, so request handling can read the caller's
+ * identity without further queries.
  */
 public class CustomUserDetails implements UserDetails {
 
     private final transient User user;
     private final Collection<? extends GrantedAuthority> authorities;
+    private final Long userId;
+    private final Long teacherId;
+    private final Long studentId;
+    private final String displayName;
 
     public CustomUserDetails(User user) {
         this.user = user;
         this.authorities = Collections.singletonList(
             new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
         );
+        this.userId = user.getId();
+        this.teacherId = user.getTeacher() != null ? user.getTeacher().getId() : null;
+        this.studentId = user.getStudent() != null ? user.getStudent().getId() : null;
+        this.displayName = user.getFullName();
+    }
+
+    /**
+     * Principal of the authentication when it was set up by the JWT filter
+     */
+    public static Optional<CustomUserDetails> from(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return Optional.of(details);
+        }
+        return Optional.empty();
     }
 
     @Override
@@ -59,12 +81,20 @@ public class CustomUserDetails implements UserDetails {
     }
 
     // Custom methods for Spring Security expressions
+    public Long getUserId() {
+        return userId;
+    }
+
     public Long getTeacherId() {
-        return user.getTeacher() != null ? user.getTeacher().getId() : null;
+        return teacherId;
     }
 
     public Long getStudentId() {
-        return user.getStudent() != null ? user.getStudent().getId() : null;
+        return studentId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
     }
 
     public String getRole() {
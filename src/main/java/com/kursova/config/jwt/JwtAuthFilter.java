@@ -12,15 +12,18 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final DbUserDetailsService userDetailsService;
+    private final JwtPrincipalCache principalCache;
 
-    public JwtAuthFilter(JwtUtils jwtUtils, DbUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtils jwtUtils, DbUserDetailsService userDetailsService, JwtPrincipalCache principalCache) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -29,19 +32,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String header = request.getHeader("Authorization");
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
             String token = header.substring(7);
-            if (jwtUtils.validateToken(token)) {
-                Claims claims = jwtUtils.parseToken(token);
+            // Token is parsed and verified exactly once per request
+            Optional<Claims> parsedClaims = jwtUtils.tryParseToken(token);
+            if (parsedClaims.isPresent()) {
+                Claims claims = parsedClaims.get();
                 String username = claims.getSubject();
 
                 try {
-                    // Load full user details including relationships
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    // Load full user details including relationships, reusing the principal for the same token
+                    UserDetails userDetails = principalCache.get(username, claims.getIssuedAt(),
+                            userDetailsService::loadUserByUsername);
+                    if (userDetails.isEnabled() && matchesTokenIdentity(userDetails, claims)) {
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
                 } catch (Exception e) {
                     // If user loading fails, continue without authentication
                     logger.warn("Failed to load user details for username: " + username, e);
@@ -51,4 +59,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // A token issued to an earlier account with the same username must not authenticate the current one
+    private static boolean matchesTokenIdentity(UserDetails userDetails, Claims claims) {
+        Long tokenUserId = JwtUtils.idClaim(claims, JwtUtils.CLAIM_USER_ID);
+        if (tokenUserId == null || !(userDetails instanceof CustomUserDetails details)) {
+            return true;
+        }
+        return tokenUserId.equals(details.getUserId());
+    }
 }
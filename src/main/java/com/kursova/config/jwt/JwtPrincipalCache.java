@@ -0,0 +1,60 @@
+package com.kursova.config.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of authenticated principals keyed by (username, token issued-at),
+ * so requests carrying the same token do not reload the user from the database every time
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final Cache<Key, UserDetails> cache;
+
+    public JwtPrincipalCache(@Value("${jwt.principal-cache.max-size:10000}") long maxSize,
+                             @Value("${jwt.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Get cached principal for the token, loading it with the loader on a miss.
+     * Loader exceptions are propagated and nothing is cached.
+     */
+    public UserDetails get(String username, Date issuedAt, Function<String, UserDetails> loader) {
+        Key key = new Key(username, issuedAt != null ? issuedAt.getTime() : 0L);
+        return cache.get(key, k -> loader.apply(k.username()));
+    }
+
+    /**
+     * Drop all cached principals of the user (after any committed change, see JwtPrincipalCacheSync)
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> username.equals(key.username()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private record Key(String username, long issuedAt) {
+    }
+}
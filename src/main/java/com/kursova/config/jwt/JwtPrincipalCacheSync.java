@@ -0,0 +1,67 @@
+package com.kursova.config.jwt;
+
+import com.kursova.dal.entities.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the cached principals of a user whenever the users row is updated or deleted, whatever
+ * changed and whoever changed it. Hibernate calls these listeners only after the transaction
+ * commits, so the next request reloads the committed user and a rolled back change evicts nothing.
+ */
+@Component
+public class JwtPrincipalCacheSync implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final JwtPrincipalCache principalCache;
+
+    public JwtPrincipalCacheSync(JwtPrincipalCache principalCache, EntityManagerFactory entityManagerFactory) {
+        this.principalCache = principalCache;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            principalCache.invalidate(user.getUsername());
+            // Principals are cached by username, so a renamed user is cached under the old one
+            Object[] oldState = event.getOldState();
+            if (oldState != null && oldState[event.getPersister().getPropertyIndex("username")] instanceof String previous) {
+                principalCache.invalidate(previous);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            principalCache.invalidate(user.getUsername());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Cached principals still match the database
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Cached principals still match the database
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return User.class.equals(persister.getMappedClass());
+    }
+}
@@ -9,10 +9,13 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtils {
 
+    public static final String CLAIM_USER_ID = "userId";
+
     private final SecretKey key;
     private final long expirationMs;
 
@@ -24,12 +27,21 @@ public class JwtUtils {
     }
 
     public String generateToken(String username, String role) {
+        return generateToken(username, role, null);
+    }
+
+    /**
+     * Generate a token that also carries the user id, so it cannot authenticate a later account
+     * with the same username; a null id is left out
+     */
+    public String generateToken(String username, String role, Long userId) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
                 .setSubject(username)
                 .claim("role", role)
+                .claim(CLAIM_USER_ID, userId)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -44,12 +56,26 @@ public class JwtUtils {
                 .getBody();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Parse and verify the token once, returning empty when it is malformed, expired or badly signed
+     */
+    public Optional<Claims> tryParseToken(String token) {
         try {
-            parseToken(token);
-            return true;
+            return Optional.of(parseToken(token));
         } catch (Exception ex) {
-            return false;
+            return Optional.empty();
         }
     }
+
+    public boolean validateToken(String token) {
+        return tryParseToken(token).isPresent();
+    }
+
+    /**
+     * Read a numeric id claim; JSON parsing yields Integer or Long depending on the value
+     */
+    public static Long idClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
+    }
 }
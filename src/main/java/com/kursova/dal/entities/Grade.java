@@ -9,11 +9,22 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "grades", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "subject_id", "grade_type"})
+}, indexes = {
+    @Index(name = "idx_grades_student_date", columnList = "student_id, grade_date DESC"),
+    @Index(name = "idx_grades_student_subject_date", columnList = "student_id, subject_id, grade_date DESC"),
+    @Index(name = "idx_grades_subject_date", columnList = "subject_id, grade_date DESC"),
+    @Index(name = "idx_grades_teacher_date", columnList = "teacher_id, grade_date DESC"),
+    @Index(name = "idx_grades_type_date", columnList = "grade_type, grade_date DESC"),
+    @Index(name = "idx_grades_date_id", columnList = "grade_date DESC, id DESC"),
+    @Index(name = "idx_grades_student_final", columnList = "student_id, is_final, grade_value"),
+    @Index(name = "idx_grades_final_student", columnList = "is_final, student_id, grade_value")
 })
 public class Grade {
 
+    // Pooled generator (a sequence table on MySQL) so that bulk inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grades_seq")
+    @SequenceGenerator(name = "grades_seq", sequenceName = "grades_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "grade_value", nullable = false)
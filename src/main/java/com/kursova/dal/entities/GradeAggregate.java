@@ -0,0 +1,162 @@
+package com.kursova.dal.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized grade statistics for a student in one subject,
+ * or across all subjects when subjectId is ALL_SUBJECTS
+ */
+@Entity
+@Table(name = "grade_aggregates", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_grade_aggregates_student_subject", columnNames = {"student_id", "subject_id"})
+}, indexes = {
+    @Index(name = "idx_grade_aggregates_subject_final", columnList = "subject_id, final_count")
+})
+public class GradeAggregate {
+
+    /**
+     * Subject id used for the per-student row that covers all subjects
+     */
+    public static final long ALL_SUBJECTS = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "grade_count", nullable = false)
+    private Long gradeCount = 0L;
+
+    @Column(name = "grade_sum", nullable = false)
+    private Long gradeSum = 0L;
+
+    @Column(name = "min_grade")
+    private Integer minGrade;
+
+    @Column(name = "max_grade")
+    private Integer maxGrade;
+
+    @Column(name = "final_count", nullable = false)
+    private Long finalCount = 0L;
+
+    @Column(name = "final_sum", nullable = false)
+    private Long finalSum = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public GradeAggregate() {}
+
+    public GradeAggregate(Long studentId, Long subjectId) {
+        this.studentId = studentId;
+        this.subjectId = subjectId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Average over all grades, or null when there are none
+     */
+    public Double getAverage() {
+        return gradeCount > 0 ? (double) gradeSum / gradeCount : null;
+    }
+
+    /**
+     * Average over final grades, or null when there are none
+     */
+    public Double getFinalAverage() {
+        return finalCount > 0 ? (double) finalSum / finalCount : null;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public Long getGradeCount() {
+        return gradeCount;
+    }
+
+    public void setGradeCount(Long gradeCount) {
+        this.gradeCount = gradeCount;
+    }
+
+    public Long getGradeSum() {
+        return gradeSum;
+    }
+
+    public void setGradeSum(Long gradeSum) {
+        this.gradeSum = gradeSum;
+    }
+
+    public Integer getMinGrade() {
+        return minGrade;
+    }
+
+    public void setMinGrade(Integer minGrade) {
+        this.minGrade = minGrade;
+    }
+
+    public Integer getMaxGrade() {
+        return maxGrade;
+    }
+
+    public void setMaxGrade(Integer maxGrade) {
+        this.maxGrade = maxGrade;
+    }
+
+    public Long getFinalCount() {
+        return finalCount;
+    }
+
+    public void setFinalCount(Long finalCount) {
+        this.finalCount = finalCount;
+    }
+
+    public Long getFinalSum() {
+        return finalSum;
+    }
+
+    public void setFinalSum(Long finalSum) {
+        this.finalSum = finalSum;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
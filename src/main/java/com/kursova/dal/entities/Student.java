@@ -9,11 +9,16 @@ import java.util.Set;
  * Student entity representing students
  */
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+    @Index(name = "idx_students_active", columnList = "is_active"),
+    @Index(name = "idx_students_group_active", columnList = "group_id, is_active")
+})
 public class Student {
 
+    // Pooled generator (a sequence table on MySQL) so that bulk imports can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "student_number", unique = true, nullable = false)
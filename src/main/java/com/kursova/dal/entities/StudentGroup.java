@@ -1,6 +1,9 @@
 package com.kursova.dal.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -9,7 +12,10 @@ import java.util.Set;
  * StudentGroup entity representing academic groups
  */
 @Entity
-@Table(name = "student_groups")
+@Table(name = "student_groups", indexes = {
+    @Index(name = "idx_student_groups_active_name", columnList = "is_active, group_name")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student-groups")
 public class StudentGroup {
 
     @Id
@@ -55,7 +61,9 @@ public class StudentGroup {
     private LocalDateTime updatedAt;
 
     // Relationships
+    // Batched so that student lists spanning several groups count them with one query, not one per group
     @OneToMany(mappedBy = "group", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private Set<Student> students = new HashSet<>();
 
     @ManyToMany(mappedBy = "groups", fetch = FetchType.LAZY)
@@ -1,6 +1,8 @@
 package com.kursova.dal.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -9,7 +11,10 @@ import java.util.Set;
  * Subject entity representing academic subjects/disciplines
  */
 @Entity
-@Table(name = "subjects")
+@Table(name = "subjects", indexes = {
+    @Index(name = "idx_subjects_active_name", columnList = "is_active, subject_name")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subjects")
 public class Subject {
 
     @Id
@@ -58,7 +63,9 @@ public class Subject {
     private LocalDateTime updatedAt;
 
     // Relationships
+    // Only the owning sides are cached; Hibernate does not evict the inverse Teacher.subjects and StudentGroup.subjects
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subject-teachers")
     @JoinTable(
         name = "teacher_subjects",
         joinColumns = @JoinColumn(name = "subject_id"),
@@ -67,6 +74,7 @@ public class Subject {
     private Set<Teacher> teachers = new HashSet<>();
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subject-groups")
     @JoinTable(
         name = "subject_group",
         joinColumns = @JoinColumn(name = "subject_id"),
@@ -1,6 +1,8 @@
 package com.kursova.dal.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -9,7 +11,10 @@ import java.util.Set;
  * Teacher entity representing academic staff
  */
 @Entity
-@Table(name = "teachers")
+@Table(name = "teachers", indexes = {
+    @Index(name = "idx_teachers_active", columnList = "is_active")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teachers")
 public class Teacher {
 
     @Id
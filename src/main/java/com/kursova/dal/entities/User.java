@@ -6,13 +6,19 @@ import java.time.LocalDateTime;
 /**
  * User entity for authentication and authorization
  * Supports different user roles: ADMIN, MANAGER, TEACHER, STUDENT, GUEST
+ * Not in the second-level cache: Hibernate cannot restore the inverse teacher/student links from a cache entry
+ * and re-queries both on every hit, which costs more than the single joined select of a miss.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_active", columnList = "is_active")
+})
 public class User {
 
+    // Pooled generator (a sequence table on MySQL) so that bulk imports can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -1,19 +1,24 @@
 package com.kursova.dal.repositories;
 
 import com.kursova.dal.entities.ArchivedGrade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository for ArchivedGrade entities
  */
 @Repository
-public interface ArchivedGradeRepository extends JpaRepository<ArchivedGrade, Long> {
+public interface ArchivedGradeRepository extends JpaRepository<ArchivedGrade, Long>, ArchivedGradeRepositoryCustom {
 
     /**
      * Find archived grades by original student ID
@@ -61,4 +66,27 @@ public interface ArchivedGradeRepository extends JpaRepository<ArchivedGrade, Lo
      */
     @Query("SELECT AVG(ag.gradeValue) FROM ArchivedGrade ag WHERE ag.originalStudentId = :studentId")
     Double getAverageGradeForArchivedStudent(@Param("studentId") Long studentId);
+
+    /**
+     * Copy grades into the archive in one statement, denormalizing student, subject and group data
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_grades"))
+    @Query(value = "INSERT INTO archived_grades " +
+           "(original_grade_id, original_student_id, student_number, student_name, original_subject_id, subject_name, " +
+           "grade_category_enum, grade_value, grade_type, comments, original_group_id, group_code, " +
+           "original_created_at, original_updated_at, archived_at, archived_by, archive_reason) " +
+           "SELECT g.id, g.student_id, s.student_number, CONCAT(u.first_name, ' ', u.last_name), g.subject_id, sub.subject_name, " +
+           "g.grade_category_enum, g.grade_value, g.grade_type, g.comments, s.group_id, sg.group_code, " +
+           "g.created_at, g.updated_at, :archivedAt, :archivedBy, :archiveReason " +
+           "FROM grades g " +
+           "JOIN students s ON s.id = g.student_id " +
+           "LEFT JOIN users u ON u.id = s.user_id " +
+           "LEFT JOIN subjects sub ON sub.id = g.subject_id " +
+           "LEFT JOIN student_groups sg ON sg.id = s.group_id " +
+           "WHERE g.id IN (:gradeIds)", nativeQuery = true)
+    int insertFromGrades(@Param("gradeIds") Collection<Long> gradeIds,
+                         @Param("archivedAt") LocalDateTime archivedAt,
+                         @Param("archivedBy") String archivedBy,
+                         @Param("archiveReason") String archiveReason);
 }
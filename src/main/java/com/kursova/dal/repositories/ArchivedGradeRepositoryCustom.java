@@ -0,0 +1,18 @@
+package com.kursova.dal.repositories;
+
+import java.util.function.Consumer;
+
+/**
+ * Custom repository operations for ArchivedGrade entity that need direct Hibernate session access
+ */
+public interface ArchivedGradeRepositoryCustom {
+
+    /**
+     * Scroll over the archived grades matching the filter (newest archived first) on a forward-only cursor,
+     * passing each row to the consumer as [id, originalGradeId, originalStudentId, studentNumber, studentName,
+     * originalGroupId, groupCode, originalSubjectId, subjectName, gradeType, gradeCategoryEnum, gradeValue,
+     * comments, originalCreatedAt, originalUpdatedAt, archivedAt, archivedBy, archiveReason].
+     * Grades keep no date of their own in the archive, so the date range applies to originalCreatedAt.
+     */
+    void scrollRows(GradeExportFilter filter, int fetchSize, Consumer<Object[]> consumer);
+}
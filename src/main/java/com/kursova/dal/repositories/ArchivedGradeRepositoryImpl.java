@@ -0,0 +1,65 @@
+package com.kursova.dal.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of custom ArchivedGrade repository operations
+ */
+public class ArchivedGradeRepositoryImpl implements ArchivedGradeRepositoryCustom {
+
+    private static final String ROWS_QUERY = "SELECT ag.id, ag.originalGradeId, ag.originalStudentId, " +
+        "ag.studentNumber, ag.studentName, ag.originalGroupId, ag.groupCode, ag.originalSubjectId, ag.subjectName, " +
+        "ag.gradeType, ag.gradeCategoryEnum, ag.gradeValue, ag.comments, ag.originalCreatedAt, ag.originalUpdatedAt, " +
+        "ag.archivedAt, ag.archivedBy, ag.archiveReason " +
+        "FROM ArchivedGrade ag WHERE 1 = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void scrollRows(GradeExportFilter filter, int fetchSize, Consumer<Object[]> consumer) {
+        StringBuilder hql = new StringBuilder(ROWS_QUERY);
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.groupId() != null) {
+            hql.append(" AND ag.originalGroupId = :groupId");
+            parameters.put("groupId", filter.groupId());
+        }
+        if (filter.subjectId() != null) {
+            hql.append(" AND ag.originalSubjectId = :subjectId");
+            parameters.put("subjectId", filter.subjectId());
+        }
+        if (filter.startDate() != null) {
+            hql.append(" AND ag.originalCreatedAt >= :startDate");
+            parameters.put("startDate", filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            hql.append(" AND ag.originalCreatedAt <= :endDate");
+            parameters.put("endDate", filter.endDate());
+        }
+        if (filter.gradeType() != null) {
+            hql.append(" AND ag.gradeType = :gradeType");
+            parameters.put("gradeType", filter.gradeType());
+        }
+        hql.append(" ORDER BY ag.archivedAt DESC, ag.id DESC");
+
+        Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(hql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        try (ScrollableResults<Object[]> results = query
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                consumer.accept(results.get());
+            }
+        }
+    }
+}
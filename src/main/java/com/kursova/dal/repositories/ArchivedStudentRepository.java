@@ -1,12 +1,17 @@
 package com.kursova.dal.repositories;
 
 import com.kursova.dal.entities.ArchivedStudent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -50,4 +55,23 @@ public interface ArchivedStudentRepository extends JpaRepository<ArchivedStudent
      * Find all archived students ordered by archived date (newest first)
      */
     List<ArchivedStudent> findAllByOrderByArchivedAtDesc();
+
+    /**
+     * Copy students into the archive in one statement, denormalizing group data
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_students"))
+    @Query(value = "INSERT INTO archived_students " +
+           "(original_student_id, student_number, enrollment_year, phone_number, address, study_form, " +
+           "original_group_id, group_code, group_name, original_created_at, original_updated_at, " +
+           "archived_at, archived_by, archive_reason) " +
+           "SELECT s.id, s.student_number, s.enrollment_year, s.phone_number, s.address, s.study_form, " +
+           "s.group_id, sg.group_code, sg.group_name, s.created_at, s.updated_at, " +
+           ":archivedAt, :archivedBy, :archiveReason " +
+           "FROM students s LEFT JOIN student_groups sg ON sg.id = s.group_id " +
+           "WHERE s.id IN (:studentIds)", nativeQuery = true)
+    int insertFromStudents(@Param("studentIds") Collection<Long> studentIds,
+                           @Param("archivedAt") LocalDateTime archivedAt,
+                           @Param("archivedBy") String archivedBy,
+                           @Param("archiveReason") String archiveReason);
 }
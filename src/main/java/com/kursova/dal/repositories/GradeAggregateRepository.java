@@ -0,0 +1,139 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.GradeAggregate;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for GradeAggregate entity
+ */
+@Repository
+public interface GradeAggregateRepository extends BaseRepository<GradeAggregate, Long> {
+
+    /**
+     * Find aggregate row for student and subject (ALL_SUBJECTS for the overall row)
+     */
+    Optional<GradeAggregate> findByStudentIdAndSubjectId(Long studentId, Long subjectId);
+
+    /**
+     * Find aggregate row for student and subject, locking it for an incremental update
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM GradeAggregate a WHERE a.studentId = :studentId AND a.subjectId = :subjectId")
+    Optional<GradeAggregate> findForUpdate(@Param("studentId") Long studentId, @Param("subjectId") Long subjectId);
+
+    /**
+     * Add one grade to the aggregate row for student and subject, creating the row for the first grade.
+     * One statement, so two first grades committed at the same time both end up in the same row
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "grade_aggregates"))
+    @Query(value = "INSERT INTO grade_aggregates " +
+           "(student_id, subject_id, grade_count, grade_sum, min_grade, max_grade, final_count, final_sum, updated_at) " +
+           "VALUES (:studentId, :subjectId, 1, :gradeValue, :gradeValue, :gradeValue, :finalCount, :finalSum, CURRENT_TIMESTAMP) " +
+           "ON DUPLICATE KEY UPDATE grade_count = grade_count + 1, grade_sum = grade_sum + :gradeValue, " +
+           "min_grade = LEAST(COALESCE(min_grade, :gradeValue), :gradeValue), " +
+           "max_grade = GREATEST(COALESCE(max_grade, :gradeValue), :gradeValue), " +
+           "final_count = final_count + :finalCount, final_sum = final_sum + :finalSum, " +
+           "updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int addGrade(@Param("studentId") Long studentId, @Param("subjectId") Long subjectId,
+                 @Param("gradeValue") int gradeValue, @Param("finalCount") int finalCount,
+                 @Param("finalSum") int finalSum);
+
+    /**
+     * Find aggregate rows for a set of students in one subject (ALL_SUBJECTS for overall rows)
+     */
+    List<GradeAggregate> findByStudentIdInAndSubjectId(Collection<Long> studentIds, Long subjectId);
+
+    /**
+     * Find top performing students by average final grade, as rows of [studentId, average]
+     */
+    @Query("SELECT a.studentId, a.finalSum * 1.0 / a.finalCount FROM GradeAggregate a " +
+           "WHERE a.subjectId = " + GradeAggregate.ALL_SUBJECTS + " AND a.finalCount > 0 " +
+           "ORDER BY a.finalSum * 1.0 / a.finalCount DESC")
+    List<Object[]> findTopPerformingStudents();
+
+    /**
+     * Delete all aggregate rows of a student
+     */
+    @Modifying
+    @Query("DELETE FROM GradeAggregate a WHERE a.studentId = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Delete all aggregate rows of a set of students
+     */
+    @Modifying
+    @Query("DELETE FROM GradeAggregate a WHERE a.studentId IN :studentIds")
+    int deleteByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Delete all aggregate rows (first step of a rebuild)
+     */
+    @Modifying
+    @Query("DELETE FROM GradeAggregate a")
+    int deleteAllAggregates();
+
+    /**
+     * Recompute per student x subject rows from the grades table
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "grade_aggregates"))
+    @Query(value = "INSERT INTO grade_aggregates " +
+           "(student_id, subject_id, grade_count, grade_sum, min_grade, max_grade, final_count, final_sum, updated_at) " +
+           "SELECT g.student_id, g.subject_id, COUNT(*), SUM(g.grade_value), MIN(g.grade_value), MAX(g.grade_value), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN g.grade_value ELSE 0 END), CURRENT_TIMESTAMP " +
+           "FROM grades g GROUP BY g.student_id, g.subject_id", nativeQuery = true)
+    int insertSubjectAggregatesFromGrades();
+
+    /**
+     * Recompute per student (all subjects) rows from the grades table
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "grade_aggregates"))
+    @Query(value = "INSERT INTO grade_aggregates " +
+           "(student_id, subject_id, grade_count, grade_sum, min_grade, max_grade, final_count, final_sum, updated_at) " +
+           "SELECT g.student_id, " + GradeAggregate.ALL_SUBJECTS + ", COUNT(*), SUM(g.grade_value), MIN(g.grade_value), MAX(g.grade_value), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN g.grade_value ELSE 0 END), CURRENT_TIMESTAMP " +
+           "FROM grades g GROUP BY g.student_id", nativeQuery = true)
+    int insertStudentAggregatesFromGrades();
+
+    /**
+     * Recompute per student x subject rows of a set of students from the grades table
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "grade_aggregates"))
+    @Query(value = "INSERT INTO grade_aggregates " +
+           "(student_id, subject_id, grade_count, grade_sum, min_grade, max_grade, final_count, final_sum, updated_at) " +
+           "SELECT g.student_id, g.subject_id, COUNT(*), SUM(g.grade_value), MIN(g.grade_value), MAX(g.grade_value), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN g.grade_value ELSE 0 END), CURRENT_TIMESTAMP " +
+           "FROM grades g WHERE g.student_id IN (:studentIds) GROUP BY g.student_id, g.subject_id", nativeQuery = true)
+    int insertSubjectAggregatesForStudents(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Recompute per student (all subjects) rows of a set of students from the grades table
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "grade_aggregates"))
+    @Query(value = "INSERT INTO grade_aggregates " +
+           "(student_id, subject_id, grade_count, grade_sum, min_grade, max_grade, final_count, final_sum, updated_at) " +
+           "SELECT g.student_id, " + GradeAggregate.ALL_SUBJECTS + ", COUNT(*), SUM(g.grade_value), MIN(g.grade_value), MAX(g.grade_value), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN g.is_final = TRUE THEN g.grade_value ELSE 0 END), CURRENT_TIMESTAMP " +
+           "FROM grades g WHERE g.student_id IN (:studentIds) GROUP BY g.student_id", nativeQuery = true)
+    int insertStudentAggregatesForStudents(@Param("studentIds") Collection<Long> studentIds);
+}
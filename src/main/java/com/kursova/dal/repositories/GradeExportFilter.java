@@ -0,0 +1,17 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.GradeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional conditions of a grade export; a null field does not restrict the rows.
+ * The date range is inclusive on both ends, like the other date range finders.
+ */
+public record GradeExportFilter(
+        Long groupId,
+        Long subjectId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        GradeType gradeType) {
+}
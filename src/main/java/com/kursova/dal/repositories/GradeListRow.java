@@ -0,0 +1,51 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.GradeCategory;
+import com.kursova.dal.entities.GradeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a grade list with the student, teacher, subject and group columns it shows,
+ * read by a constructor expression so no Grade entities or proxies are loaded
+ */
+public record GradeListRow(
+        Long id,
+        Integer gradeValue,
+        GradeType gradeType,
+        GradeCategory gradeCategoryEnum,
+        LocalDateTime gradeDate,
+        String comments,
+        Boolean isFinal,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long studentId,
+        Long studentUserId,
+        String studentName,
+        String studentNumber,
+        Long teacherId,
+        String teacherName,
+        Long subjectId,
+        String subjectName,
+        String subjectCode,
+        Long groupId,
+        String groupName) {
+
+    /**
+     * Select list and joins matching the constructor; queries append their WHERE and ORDER BY.
+     * Student, teacher and subject are joined by id rather than through the associations so that
+     * conditions on g.student.id and the like stay on the grades foreign key columns and the
+     * grade indexes keep driving the query.
+     */
+    public static final String SELECT = "SELECT new com.kursova.dal.repositories.GradeListRow(" +
+            "g.id, g.gradeValue, g.gradeType, g.gradeCategoryEnum, g.gradeDate, g.comments, g.isFinal, " +
+            "g.createdAt, g.updatedAt, " +
+            "s.id, su.id, CONCAT(su.firstName, ' ', su.lastName), s.studentNumber, " +
+            "t.id, CONCAT(tu.firstName, ' ', tu.lastName), " +
+            "sub.id, sub.subjectName, sub.subjectCode, " +
+            "sg.id, sg.groupName) " +
+            "FROM Grade g " +
+            "JOIN Student s ON s.id = g.student.id JOIN s.user su LEFT JOIN s.group sg " +
+            "JOIN Teacher t ON t.id = g.teacher.id JOIN t.user tu " +
+            "JOIN Subject sub ON sub.id = g.subject.id ";
+}
@@ -2,11 +2,16 @@ package com.kursova.dal.repositories;
 
 import com.kursova.dal.entities.Grade;
 import com.kursova.dal.entities.GradeType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,27 +19,33 @@ import java.util.Optional;
  * Repository interface for Grade entity
  */
 @Repository
-public interface GradeRepository extends BaseRepository<Grade, Long> {
+public interface GradeRepository extends BaseRepository<Grade, Long>, GradeRepositoryCustom {
 
     /**
-     * Find grades by student ID
+     * Find grade list rows by student ID
      */
-    List<Grade> findByStudentIdOrderByGradeDateDesc(Long studentId);
+    @Query(GradeListRow.SELECT + "WHERE g.student.id = :studentId ORDER BY g.gradeDate DESC")
+    List<GradeListRow> findByStudentIdOrderByGradeDateDesc(@Param("studentId") Long studentId);
 
     /**
-     * Find grades by teacher ID
+     * Find grade list rows by teacher ID
      */
-    List<Grade> findByTeacherIdOrderByGradeDateDesc(Long teacherId);
+    @Query(GradeListRow.SELECT + "WHERE g.teacher.id = :teacherId ORDER BY g.gradeDate DESC")
+    List<GradeListRow> findByTeacherIdOrderByGradeDateDesc(@Param("teacherId") Long teacherId);
 
     /**
-     * Find grades by subject ID
+     * Find grade list rows by subject ID
      */
-    List<Grade> findBySubjectIdOrderByGradeDateDesc(Long subjectId);
+    @Query(GradeListRow.SELECT + "WHERE g.subject.id = :subjectId ORDER BY g.gradeDate DESC")
+    List<GradeListRow> findBySubjectIdOrderByGradeDateDesc(@Param("subjectId") Long subjectId);
 
     /**
-     * Find grades by student and subject
+     * Find grade list rows by student and subject
      */
-    List<Grade> findByStudentIdAndSubjectIdOrderByGradeDateDesc(Long studentId, Long subjectId);
+    @Query(GradeListRow.SELECT + "WHERE g.student.id = :studentId AND g.subject.id = :subjectId " +
+           "ORDER BY g.gradeDate DESC")
+    List<GradeListRow> findByStudentIdAndSubjectIdOrderByGradeDateDesc(@Param("studentId") Long studentId,
+                                                                       @Param("subjectId") Long subjectId);
 
     /**
      * Find grades by student, subject and grade type
@@ -42,19 +53,39 @@ public interface GradeRepository extends BaseRepository<Grade, Long> {
     Optional<Grade> findByStudentIdAndSubjectIdAndGradeType(Long studentId, Long subjectId, GradeType gradeType);
 
     /**
-     * Find final grades by student
+     * Find grade by student, subject and grade type, locking it for an update
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM Grade g " +
+           "WHERE g.student.id = :studentId AND g.subject.id = :subjectId AND g.gradeType = :gradeType")
+    Optional<Grade> findForUpdate(@Param("studentId") Long studentId, @Param("subjectId") Long subjectId,
+                                  @Param("gradeType") GradeType gradeType);
+
+    /**
+     * Find the list row of one grade
      */
-    List<Grade> findByStudentIdAndIsFinalTrueOrderBySubjectSubjectNameAsc(Long studentId);
+    @Query(GradeListRow.SELECT + "WHERE g.id = :id")
+    Optional<GradeListRow> findListRowById(@Param("id") Long id);
 
     /**
-     * Find grades by grade type
+     * Find final grade list rows by student
      */
-    List<Grade> findByGradeTypeOrderByGradeDateDesc(GradeType gradeType);
+    @Query(GradeListRow.SELECT + "WHERE g.student.id = :studentId AND g.isFinal = true " +
+           "ORDER BY sub.subjectName ASC")
+    List<GradeListRow> findByStudentIdAndIsFinalTrueOrderBySubjectSubjectNameAsc(@Param("studentId") Long studentId);
 
     /**
-     * Find grades in date range
+     * Find grade list rows by grade type
      */
-    List<Grade> findByGradeDateBetweenOrderByGradeDateDesc(LocalDateTime startDate, LocalDateTime endDate);
+    @Query(GradeListRow.SELECT + "WHERE g.gradeType = :gradeType ORDER BY g.gradeDate DESC")
+    List<GradeListRow> findByGradeTypeOrderByGradeDateDesc(@Param("gradeType") GradeType gradeType);
+
+    /**
+     * Find grade list rows in date range
+     */
+    @Query(GradeListRow.SELECT + "WHERE g.gradeDate BETWEEN :startDate AND :endDate ORDER BY g.gradeDate DESC")
+    List<GradeListRow> findByGradeDateBetweenOrderByGradeDateDesc(@Param("startDate") LocalDateTime startDate,
+                                                                  @Param("endDate") LocalDateTime endDate);
 
     /**
      * Find grade by id and fetch related student.user, teacher.user and subject to avoid lazy init issues
@@ -80,6 +111,54 @@ public interface GradeRepository extends BaseRepository<Grade, Long> {
     @Query("SELECT AVG(g.gradeValue) FROM Grade g WHERE g.student.id = :studentId AND g.isFinal = true")
     Double getOverallAverageGradeForStudent(@Param("studentId") Long studentId);
 
+    /**
+     * Find existing (studentId, gradeType) pairs of a subject for a set of students
+     */
+    @Query("SELECT g.student.id, g.gradeType FROM Grade g " +
+           "WHERE g.subject.id = :subjectId AND g.student.id IN :studentIds")
+    List<Object[]> findStudentGradeTypesInSubject(@Param("subjectId") Long subjectId,
+                                                  @Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Find ids of all grades of a set of students, in id order
+     */
+    @Query("SELECT g.id FROM Grade g WHERE g.student.id IN :studentIds ORDER BY g.id")
+    List<Long> findIdsByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Find ids of all grades given within date range, in id order
+     */
+    @Query("SELECT g.id FROM Grade g WHERE g.gradeDate BETWEEN :startDate AND :endDate ORDER BY g.id")
+    List<Long> findIdsByGradeDateBetween(@Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find ids of students having grades within date range
+     */
+    @Query("SELECT DISTINCT g.student.id FROM Grade g WHERE g.gradeDate BETWEEN :startDate AND :endDate")
+    List<Long> findStudentIdsByGradeDateBetween(@Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Delete grades by id in one statement
+     */
+    @Modifying
+    @Query("DELETE FROM Grade g WHERE g.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find lowest and highest grade of student in subject, as a single row of [min, max]
+     */
+    @Query("SELECT MIN(g.gradeValue), MAX(g.gradeValue) FROM Grade g " +
+           "WHERE g.student.id = :studentId AND g.subject.id = :subjectId")
+    List<Object[]> findGradeRangeForStudentInSubject(@Param("studentId") Long studentId, @Param("subjectId") Long subjectId);
+
+    /**
+     * Find lowest and highest grade of student across all subjects, as a single row of [min, max]
+     */
+    @Query("SELECT MIN(g.gradeValue), MAX(g.gradeValue) FROM Grade g WHERE g.student.id = :studentId")
+    List<Object[]> findGradeRangeForStudent(@Param("studentId") Long studentId);
+
     /**
      * Find top performing students
      */
@@ -94,23 +173,72 @@ public interface GradeRepository extends BaseRepository<Grade, Long> {
     Long countGradesByTeacherAndSubject(@Param("teacherId") Long teacherId, @Param("subjectId") Long subjectId);
 
     /**
-     * Find all grades and fetch related student.user, teacher.user and subject to avoid lazy init issues
+     * Find all grades and fetch related student.user, teacher.user and subject to avoid lazy init issues.
+     * The inverse user links and the student group are fetched too, otherwise each row loads them separately.
      */
     @Query("select distinct g from Grade g " +
         "left join fetch g.student s " +
         "left join fetch s.user su " +
+        "left join fetch su.teacher " +
+        "left join fetch s.group " +
         "left join fetch g.teacher t " +
         "left join fetch t.user tu " +
+        "left join fetch tu.student " +
         "left join fetch g.subject subj")
     List<Grade> findAllWithRelations();
 
     /**
-     * Find grades for subjects taught by teacher
+     * Find grade list rows for subjects taught by teacher
      */
-    @Query("SELECT g FROM Grade g " +
-           "JOIN g.subject s " +
-           "JOIN s.teachers t " +
-           "WHERE t.id = :teacherId " +
+    @Query(GradeListRow.SELECT +
+           "JOIN sub.teachers st " +
+           "WHERE st.id = :teacherId " +
            "ORDER BY g.gradeDate DESC")
-    List<Grade> findGradesByTeacherId(@Param("teacherId") Long teacherId);
+    List<GradeListRow> findGradesByTeacherId(@Param("teacherId") Long teacherId);
+
+    /**
+     * Find first page of grades (newest first) with related entities, ordered by grade date and id.
+     * The inverse user links and the student group are fetched as in findAllWithRelations.
+     */
+    @Query("select g from Grade g " +
+        "join fetch g.student s " +
+        "join fetch s.user su " +
+        "left join fetch su.teacher " +
+        "left join fetch s.group " +
+        "join fetch g.teacher t " +
+        "join fetch t.user tu " +
+        "left join fetch tu.student " +
+        "join fetch g.subject subj " +
+        "order by g.gradeDate desc, g.id desc")
+    List<Grade> findFirstPageWithRelations(Pageable pageable);
+
+    /**
+     * Find next page of grades strictly after the (gradeDate, id) keyset cursor.
+     * The leading gradeDate bound is implied by the rest but gives the date index a range to seek.
+     */
+    @Query("select g from Grade g " +
+        "join fetch g.student s " +
+        "join fetch s.user su " +
+        "left join fetch su.teacher " +
+        "left join fetch s.group " +
+        "join fetch g.teacher t " +
+        "join fetch t.user tu " +
+        "left join fetch tu.student " +
+        "join fetch g.subject subj " +
+        "where g.gradeDate <= :gradeDate and (g.gradeDate < :gradeDate or g.id < :id) " +
+        "order by g.gradeDate desc, g.id desc")
+    List<Grade> findPageWithRelationsAfter(@Param("gradeDate") LocalDateTime gradeDate,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    /**
+     * Find gradebook cells of a group in a subject, as rows of [studentId, firstName, lastName, gradeType, gradeValue]
+     * ordered by student name; an active student without grades in the subject gives one row with null type and value
+     */
+    @Query("SELECT s.id, su.firstName, su.lastName, g.gradeType, g.gradeValue FROM Student s " +
+           "JOIN s.user su " +
+           "LEFT JOIN Grade g ON g.student.id = s.id AND g.subject.id = :subjectId " +
+           "WHERE s.group.id = :groupId AND s.isActive = true " +
+           "ORDER BY su.lastName, su.firstName, s.id")
+    List<Object[]> findGradebookCells(@Param("groupId") Long groupId, @Param("subjectId") Long subjectId);
 }
@@ -0,0 +1,33 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.Grade;
+
+import java.util.function.Consumer;
+
+/**
+ * Custom repository operations for Grade entity that need direct Hibernate session access
+ */
+public interface GradeRepositoryCustom {
+
+    /**
+     * Scroll over all grades (newest first) with student.user, teacher.user and subject fetched,
+     * passing each grade to the consumer. The persistence context is cleared every fetchSize rows,
+     * so memory usage does not grow with the table size.
+     */
+    void scrollAllWithRelations(int fetchSize, Consumer<Grade> consumer);
+
+    /**
+     * Scroll over the grade list rows matching the filter (newest first) on a forward-only cursor,
+     * passing each row to the consumer. Rows are projections, so nothing is kept in the persistence context.
+     */
+    void scrollListRows(GradeExportFilter filter, int fetchSize, Consumer<GradeListRow> consumer);
+
+    /**
+     * Insert the grade in a single statement unless the student already has a grade of the same type in the subject
+     * (INSERT IGNORE on MySQL, MERGE on H2), so concurrent writers are settled by the unique key and an existing
+     * grade is never written. The id comes from the grade sequence and is set on the grade when a row was inserted;
+     * the grade stays transient. Returns whether the row was inserted. A missing student, teacher or subject fails
+     * on the foreign keys on H2, while MySQL's IGNORE turns that failure into a warning and nothing is inserted.
+     */
+    boolean insertIfAbsent(Grade grade);
+}
@@ -0,0 +1,141 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.Grade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of custom Grade repository operations
+ */
+public class GradeRepositoryImpl implements GradeRepositoryCustom {
+
+    private static final String ALL_WITH_RELATIONS_QUERY = "select g from Grade g " +
+        "join fetch g.student s " +
+        "join fetch s.user su " +
+        "left join fetch su.teacher " +
+        "left join fetch s.group " +
+        "join fetch g.teacher t " +
+        "join fetch t.user tu " +
+        "left join fetch tu.student " +
+        "join fetch g.subject subj " +
+        "order by g.gradeDate desc, g.id desc";
+
+    private static final String INSERT_COLUMNS = "(id, student_id, teacher_id, subject_id, grade_value, grade_type, " +
+        "grade_category_enum, grade_date, comments, is_final, created_at, updated_at)";
+
+    private static final String INSERT_VALUES = "(:id, :studentId, :teacherId, :subjectId, :gradeValue, :gradeType, " +
+        ":gradeCategory, :gradeDate, :comments, :isFinal, :createdAt, :updatedAt)";
+
+    // IGNORE reports a duplicate key as 0 rows and leaves the existing grade as it is; it also downgrades
+    // foreign key failures to warnings, so callers check the referenced rows when nothing was inserted
+    private static final String MYSQL_INSERT_IF_ABSENT = "INSERT IGNORE INTO grades " + INSERT_COLUMNS +
+        " VALUES " + INSERT_VALUES;
+
+    private static final String H2_INSERT_IF_ABSENT = "MERGE INTO grades g USING (SELECT 1) s " +
+        "ON g.student_id = :studentId AND g.subject_id = :subjectId AND g.grade_type = :gradeType " +
+        "WHEN NOT MATCHED THEN INSERT " + INSERT_COLUMNS + " VALUES " + INSERT_VALUES;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void scrollAllWithRelations(int fetchSize, Consumer<Grade> consumer) {
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<Grade> results = session.createQuery(ALL_WITH_RELATIONS_QUERY, Grade.class)
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            int processed = 0;
+            while (results.next()) {
+                consumer.accept(results.get());
+                if (++processed % fetchSize == 0) {
+                    // Detach already written rows so the session does not keep the whole table
+                    session.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void scrollListRows(GradeExportFilter filter, int fetchSize, Consumer<GradeListRow> consumer) {
+        StringBuilder hql = new StringBuilder(GradeListRow.SELECT).append("WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.groupId() != null) {
+            hql.append(" AND sg.id = :groupId");
+            parameters.put("groupId", filter.groupId());
+        }
+        if (filter.subjectId() != null) {
+            hql.append(" AND g.subject.id = :subjectId");
+            parameters.put("subjectId", filter.subjectId());
+        }
+        if (filter.startDate() != null) {
+            hql.append(" AND g.gradeDate >= :startDate");
+            parameters.put("startDate", filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            hql.append(" AND g.gradeDate <= :endDate");
+            parameters.put("endDate", filter.endDate());
+        }
+        if (filter.gradeType() != null) {
+            hql.append(" AND g.gradeType = :gradeType");
+            parameters.put("gradeType", filter.gradeType());
+        }
+        hql.append(" ORDER BY g.gradeDate DESC, g.id DESC");
+
+        Query<GradeListRow> query = entityManager.unwrap(Session.class).createQuery(hql.toString(), GradeListRow.class);
+        parameters.forEach(query::setParameter);
+        try (ScrollableResults<GradeListRow> results = query
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                consumer.accept(results.get());
+            }
+        }
+    }
+
+    @Override
+    public boolean insertIfAbsent(Grade grade) {
+        Session session = entityManager.unwrap(Session.class);
+        SharedSessionContractImplementor sessionImplementor = entityManager.unwrap(SharedSessionContractImplementor.class);
+        // Same pooled generator as persist(), so ids stay unique without a round trip per insert
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) sessionImplementor.getFactory()
+                .getMappingMetamodel().getEntityDescriptor(Grade.class).getGenerator();
+        Long id = (Long) generator.generate(sessionImplementor, grade, null, EventType.INSERT);
+
+        boolean h2 = sessionImplementor.getFactory().getJdbcServices().getDialect() instanceof H2Dialect;
+        NativeQuery<?> query = session.createNativeQuery(h2 ? H2_INSERT_IF_ABSENT : MYSQL_INSERT_IF_ABSENT)
+                .addSynchronizedEntityClass(Grade.class);
+        query.setParameter("id", id);
+        query.setParameter("studentId", grade.getStudent().getId());
+        query.setParameter("teacherId", grade.getTeacher().getId());
+        query.setParameter("subjectId", grade.getSubject().getId());
+        query.setParameter("gradeValue", grade.getGradeValue());
+        query.setParameter("gradeType", grade.getGradeType().name());
+        query.setParameter("gradeCategory", grade.getGradeCategoryEnum().name());
+        query.setParameter("gradeDate", grade.getGradeDate());
+        query.setParameter("comments", grade.getComments(), String.class);
+        query.setParameter("isFinal", Boolean.TRUE.equals(grade.getIsFinal()));
+        query.setParameter("createdAt", grade.getCreatedAt());
+        query.setParameter("updatedAt", grade.getUpdatedAt());
+
+        if (query.executeUpdate() != 1) {
+            return false;
+        }
+        grade.setId(id);
+        return true;
+    }
+}
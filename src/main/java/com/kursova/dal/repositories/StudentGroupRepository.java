@@ -2,10 +2,17 @@ package com.kursova.dal.repositories;
 
 import com.kursova.dal.entities.StudentGroup;
 import com.kursova.dal.entities.StudyForm;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -70,6 +77,7 @@ public interface StudentGroupRepository extends BaseRepository<StudentGroup, Lon
     /**
      * Find group by group code
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<StudentGroup> findByGroupCode(String groupCode);
 
     /**
@@ -77,6 +85,11 @@ public interface StudentGroupRepository extends BaseRepository<StudentGroup, Lon
      */
     boolean existsByGroupCode(String groupCode);
 
+    /**
+     * Find groups by group codes
+     */
+    List<StudentGroup> findByGroupCodeIn(Collection<String> groupCodes);
+
     /**
      * Find groups by enrollment year
      */
@@ -98,18 +111,57 @@ public interface StudentGroupRepository extends BaseRepository<StudentGroup, Lon
     List<StudentGroup> findByGroupNameContainingIgnoreCaseOrGroupCodeContainingIgnoreCase(String name, String code);
 
     /**
-     * Find groups that have students
+     * Find all groups together with their student counts, rows of [group, count]
      */
-    @Query("SELECT DISTINCT g FROM StudentGroup g JOIN g.students s WHERE g.isActive = true ORDER BY g.groupName")
-    List<StudentGroup> findGroupsWithStudents();
+    @Query("SELECT g, COUNT(s) FROM StudentGroup g " +
+           "LEFT JOIN g.students s " +
+           "GROUP BY g ORDER BY g.groupName")
+    List<Object[]> findAllWithStudentCounts();
 
     /**
-     * Find groups taught by a specific teacher (through subjects)
+     * Find groups that have students together with their active-student counts, rows of [group, count]
      */
-    @Query("SELECT DISTINCT g FROM StudentGroup g " +
-           "JOIN g.subjects s " +
-           "JOIN s.teachers t " +
-           "WHERE t.id = :teacherId AND g.isActive = true " +
-           "ORDER BY g.groupName")
-    List<StudentGroup> findGroupsByTeacherId(@Param("teacherId") Long teacherId);
+    @Query("SELECT g, SUM(CASE WHEN s.isActive = true THEN 1 ELSE 0 END) FROM StudentGroup g " +
+           "JOIN g.students s " +
+           "WHERE g.isActive = true " +
+           "GROUP BY g ORDER BY g.groupName")
+    List<Object[]> findGroupsWithActiveStudentCounts();
+
+    /**
+     * Find groups taught by a specific teacher together with their active-student counts, rows of [group, count]
+     */
+    @Query("SELECT g, COUNT(s) FROM StudentGroup g " +
+           "LEFT JOIN g.students s ON s.isActive = true " +
+           "WHERE g.isActive = true AND EXISTS (" +
+           "    SELECT 1 FROM Subject sub JOIN sub.groups sg JOIN sub.teachers t " +
+           "    WHERE sg.id = g.id AND t.id = :teacherId) " +
+           "GROUP BY g ORDER BY g.groupName")
+    List<Object[]> findGroupsByTeacherIdWithActiveStudentCounts(@Param("teacherId") Long teacherId);
+
+    /**
+     * Find groups not yet assigned to the subject whose name or code contains the (lowercase) term,
+     * rows of [id, groupName, groupCode, educationLevel, courseYear, studyForm]
+     */
+    @Query("SELECT g.id, g.groupName, g.groupCode, g.educationLevel, g.courseYear, g.studyForm FROM StudentGroup g " +
+           "WHERE NOT EXISTS (" +
+           "    SELECT 1 FROM Subject sub JOIN sub.groups sg WHERE sub.id = :subjectId AND sg.id = g.id) " +
+           "AND (LOWER(g.groupName) LIKE CONCAT('%', :searchTerm, '%') " +
+           "OR LOWER(g.groupCode) LIKE CONCAT('%', :searchTerm, '%')) " +
+           "ORDER BY g.groupName ASC, g.id ASC")
+    List<Object[]> findAvailableForSubject(@Param("subjectId") Long subjectId,
+                                           @Param("searchTerm") String searchTerm,
+                                           Pageable pageable);
+
+    /**
+     * Find active groups for the academic year rollover, rows of [id, educationLevel, courseYear]
+     */
+    @Query("SELECT g.id, g.educationLevel, g.courseYear FROM StudentGroup g WHERE g.isActive = true ORDER BY g.id")
+    List<Object[]> findActiveCourseRows();
+
+    /**
+     * Move the given groups to the next course in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StudentGroup g SET g.courseYear = g.courseYear + 1, g.updatedAt = :updatedAt WHERE g.id IN :groupIds")
+    int promoteCourseYear(@Param("groupIds") Collection<Long> groupIds, @Param("updatedAt") LocalDateTime updatedAt);
 }
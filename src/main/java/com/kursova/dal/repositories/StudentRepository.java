@@ -1,11 +1,18 @@
 package com.kursova.dal.repositories;
 
+import com.kursova.dal.entities.EducationLevel;
 import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.StudentGroup;
 import com.kursova.dal.entities.StudyForm;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,13 +39,22 @@ public interface StudentRepository extends BaseRepository<Student, Long> {
     Optional<Student> findByStudentNumber(String studentNumber);
 
     /**
-     * Find active students
+     * Find active students with user and group fetched in the same query
      */
+    @EntityGraph(attributePaths = {"user", "user.teacher", "group"})
     List<Student> findByIsActiveTrueOrderByUserLastNameAsc();
 
+    /**
+     * Find all students with user and group fetched in the same query
+     */
+    @EntityGraph(attributePaths = {"user", "group"})
+    @Query("SELECT s FROM Student s")
+    List<Student> findAllWithUserAndGroup();
+
     /**
      * Find students by group
      */
+    @EntityGraph(attributePaths = {"user", "group"})
     List<Student> findByGroupIdAndIsActiveTrueOrderByUserLastNameAsc(Long groupId);
 
     /**
@@ -46,6 +62,18 @@ public interface StudentRepository extends BaseRepository<Student, Long> {
      */
     List<Student> findByGroupIsNullAndIsActiveTrueOrderByUserLastNameAsc();
 
+    /**
+     * Search active students without group by name or email, rows of [id, firstName, lastName, email, studentNumber]
+     */
+    @Query("SELECT s.id, u.firstName, u.lastName, u.email, s.studentNumber FROM Student s JOIN s.user u " +
+           "WHERE s.group IS NULL AND s.isActive = true AND (" +
+           "LOWER(u.firstName) LIKE CONCAT('%', :searchTerm, '%') " +
+           "OR LOWER(u.lastName) LIKE CONCAT('%', :searchTerm, '%') " +
+           "OR LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE CONCAT('%', :searchTerm, '%') " +
+           "OR LOWER(u.email) LIKE CONCAT('%', :searchTerm, '%')) " +
+           "ORDER BY u.lastName ASC, u.firstName ASC")
+    List<Object[]> searchWithoutGroup(@Param("searchTerm") String searchTerm, Pageable pageable);
+
     /**
      * Find all students by group (including inactive)
      */
@@ -54,6 +82,7 @@ public interface StudentRepository extends BaseRepository<Student, Long> {
     /**
      * Simple find by group ID
      */
+    @EntityGraph(attributePaths = {"user", "user.teacher", "group"})
     List<Student> findByGroupId(Long groupId);
 
     /**
@@ -77,23 +106,118 @@ public interface StudentRepository extends BaseRepository<Student, Long> {
     /**
      * Search students by name or email
      */
+    @EntityGraph(attributePaths = {"user", "group"})
     @Query("SELECT s FROM Student s JOIN s.user u WHERE " +
            "(LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
            "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
            "AND s.isActive = true ORDER BY u.lastName, u.firstName")
     List<Student> searchByNameOrEmail(@Param("searchTerm") String searchTerm);
 
+    /**
+     * Search all students (including inactive) whose first name, last name or email contains the term
+     */
+    @EntityGraph(attributePaths = {"user", "group"})
+    @Query("SELECT s FROM Student s JOIN s.user u WHERE " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<Student> searchAllByNameOrEmail(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Find students by their user ids
+     */
+    @EntityGraph(attributePaths = {"user", "group"})
+    List<Student> findByUserIdIn(Collection<Long> userIds);
+
+    /**
+     * Find active students by their user ids
+     */
+    @EntityGraph(attributePaths = {"user", "group"})
+    List<Student> findByUserIdInAndIsActiveTrue(Collection<Long> userIds);
+
     /**
      * Check if student number exists
      */
     boolean existsByStudentNumber(String studentNumber);
 
+    /**
+     * Find which of the given student numbers are already taken
+     */
+    @Query("SELECT s.studentNumber FROM Student s WHERE s.studentNumber IN :studentNumbers")
+    List<String> findExistingStudentNumbers(@Param("studentNumbers") Collection<String> studentNumbers);
+
     /**
      * Count students in group
      */
     @Query("SELECT COUNT(s) FROM Student s WHERE s.group.id = :groupId AND s.isActive = true")
     Long countByGroupId(@Param("groupId") Long groupId);
 
+    /**
+     * Find ids of all students in group
+     */
+    @Query("SELECT s.id FROM Student s WHERE s.group.id = :groupId")
+    List<Long> findIdsByGroupId(@Param("groupId") Long groupId);
+
+    /**
+     * Delete students by id in one statement (their grades must already be gone)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Unassign all students from a group in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.group = null, s.updatedAt = :updatedAt WHERE s.group.id = :groupId")
+    int unassignAllFromGroup(@Param("groupId") Long groupId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Find which of the given ids belong to existing students
+     */
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :studentIds")
+    List<Long> findExistingIds(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Unassign the given students from a group in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.group = null, s.updatedAt = :updatedAt " +
+           "WHERE s.group.id = :groupId AND s.id IN :studentIds")
+    int unassignFromGroup(@Param("groupId") Long groupId, @Param("studentIds") Collection<Long> studentIds,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Assign the given students to a group in one statement, copying the group's education level, study form and course
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.group = :group, s.educationLevel = :educationLevel, s.studyForm = :studyForm, " +
+           "s.courseYear = :courseYear, s.updatedAt = :updatedAt " +
+           "WHERE s.id IN :studentIds")
+    int assignAllToGroup(@Param("group") StudentGroup group, @Param("educationLevel") EducationLevel educationLevel,
+                         @Param("studyForm") StudyForm studyForm, @Param("courseYear") Integer courseYear,
+                         @Param("studentIds") Collection<Long> studentIds, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Copy a group's education level, study form and course to all of its students in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.educationLevel = :educationLevel, s.studyForm = :studyForm, " +
+           "s.courseYear = :courseYear, s.updatedAt = :updatedAt " +
+           "WHERE s.group.id = :groupId")
+    int syncWithGroup(@Param("groupId") Long groupId, @Param("educationLevel") EducationLevel educationLevel,
+                      @Param("studyForm") StudyForm studyForm, @Param("courseYear") Integer courseYear,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Set the course of active students in the given groups to their group's course in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.courseYear = (SELECT g.courseYear FROM StudentGroup g WHERE g.id = s.group.id), " +
+           "s.updatedAt = :updatedAt " +
+           "WHERE s.isActive = true AND s.group.id IN :groupIds")
+    int syncCourseYearWithGroups(@Param("groupIds") Collection<Long> groupIds, @Param("updatedAt") LocalDateTime updatedAt);
+
     /**
      * Find students taught by specific teacher (either have grades or study subjects taught by teacher)
      */
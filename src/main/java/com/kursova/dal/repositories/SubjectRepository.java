@@ -2,10 +2,15 @@ package com.kursova.dal.repositories;
 
 import com.kursova.dal.entities.Subject;
 import com.kursova.dal.entities.AssessmentType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +23,7 @@ public interface SubjectRepository extends BaseRepository<Subject, Long> {
     /**
      * Find subject by code
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Subject> findBySubjectCode(String subjectCode);
 
     /**
@@ -25,6 +31,11 @@ public interface SubjectRepository extends BaseRepository<Subject, Long> {
      */
     List<Subject> findByIsActiveTrueOrderBySubjectNameAsc();
 
+    /**
+     * Count active subjects
+     */
+    long countByIsActiveTrue();
+
     /**
      * Find active subjects with groups loaded
      */
@@ -35,6 +46,30 @@ public interface SubjectRepository extends BaseRepository<Subject, Long> {
            "ORDER BY s.subjectName ASC")
     List<Subject> findActiveSubjectsWithGroups();
 
+    /**
+     * Find active subjects for listings with their group counts,
+     * rows of [id, subjectName, subjectCode, credits, semester, assessmentType, isActive, groupCount]
+     */
+    @Query("SELECT s.id, s.subjectName, s.subjectCode, s.credits, s.semester, s.assessmentType, s.isActive, COUNT(g) " +
+           "FROM Subject s LEFT JOIN s.groups g " +
+           "WHERE s.isActive = true " +
+           "GROUP BY s.id, s.subjectName, s.subjectCode, s.credits, s.semester, s.assessmentType, s.isActive " +
+           "ORDER BY s.subjectName ASC")
+    List<Object[]> findActiveForListing();
+
+    /**
+     * Find teacher names of subjects, rows of [subjectId, teacherId, firstName, lastName]
+     */
+    @Query("SELECT s.id, t.id, u.firstName, u.lastName FROM Subject s JOIN s.teachers t JOIN t.user u " +
+           "WHERE s.id IN :subjectIds ORDER BY u.lastName, u.firstName")
+    List<Object[]> findTeacherNamesBySubjectIds(@Param("subjectIds") Collection<Long> subjectIds);
+
+    /**
+     * Find subjects by ids with teachers and their users loaded
+     */
+    @EntityGraph(attributePaths = {"teachers", "teachers.user", "teachers.user.student"})
+    List<Subject> findWithTeachersByIdIn(Collection<Long> ids);
+
     /**
      * Find subjects by assessment type
      */
@@ -82,6 +117,12 @@ public interface SubjectRepository extends BaseRepository<Subject, Long> {
     @Query("SELECT COUNT(g) FROM Subject s JOIN s.groups g WHERE s.id = :subjectId")
     Long countGroupsBySubjectId(@Param("subjectId") Long subjectId);
 
+    /**
+     * Count groups per subject, rows of [subjectId, groupCount]; subjects without groups are omitted
+     */
+    @Query("SELECT s.id, COUNT(g) FROM Subject s JOIN s.groups g WHERE s.id IN :subjectIds GROUP BY s.id")
+    List<Object[]> countGroupsBySubjectIds(@Param("subjectIds") Collection<Long> subjectIds);
+
     /**
      * Search subjects by name
      */
@@ -1,10 +1,13 @@
 package com.kursova.dal.repositories;
 
 import com.kursova.dal.entities.Teacher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,24 +29,42 @@ public interface TeacherRepository extends BaseRepository<Teacher, Long> {
     Optional<Teacher> findByUsername(@Param("username") String username);
 
     /**
-     * Find active teachers
+     * Find all teachers with user and subjects fetched in the same query
      */
+    @Override
+    @EntityGraph(attributePaths = {"user", "user.student", "subjects"})
+    List<Teacher> findAll();
+
+    /**
+     * Find active teachers with user and subjects fetched in the same query
+     */
+    @EntityGraph(attributePaths = {"user", "user.student", "subjects"})
     List<Teacher> findByIsActiveTrueOrderByUserLastNameAsc();
 
+    /**
+     * Count active teachers
+     */
+    long countByIsActiveTrue();
+
     /**
      * Find teachers by academic title
      */
+    @EntityGraph(attributePaths = {"user", "user.student", "subjects"})
     List<Teacher> findByAcademicTitleContainingIgnoreCaseAndIsActiveTrue(String academicTitle);
 
     /**
      * Find teachers by department position
      */
+    @EntityGraph(attributePaths = {"user", "user.student", "subjects"})
     List<Teacher> findByDepartmentPositionContainingIgnoreCaseAndIsActiveTrue(String position);
 
     /**
      * Find teachers teaching specific subject
      */
-    @Query("SELECT DISTINCT t FROM Teacher t JOIN t.subjects s WHERE s.id = :subjectId AND t.isActive = true")
+    @EntityGraph(attributePaths = {"user", "user.student", "subjects"})
+    @Query("SELECT t FROM Teacher t JOIN t.user u WHERE t.isActive = true " +
+           "AND EXISTS (SELECT 1 FROM Subject sub JOIN sub.teachers st WHERE sub.id = :subjectId AND st = t) " +
+           "ORDER BY u.lastName, u.firstName")
     List<Teacher> findBySubjectId(@Param("subjectId") Long subjectId);
 
     /**
@@ -62,4 +83,27 @@ public interface TeacherRepository extends BaseRepository<Teacher, Long> {
            "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
            "AND t.isActive = true ORDER BY u.lastName, u.firstName")
     List<Teacher> searchByNameOrEmail(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Find active teachers by their user ids
+     */
+    @EntityGraph(attributePaths = {"user"})
+    List<Teacher> findByUserIdInAndIsActiveTrue(Collection<Long> userIds);
+
+    /**
+     * Find teachers not yet assigned to the subject whose name or email contains the (lowercase) term,
+     * rows of [id, firstName, lastName, email, academicTitle, departmentPosition]
+     */
+    @Query("SELECT t.id, u.firstName, u.lastName, u.email, t.academicTitle, t.departmentPosition " +
+           "FROM Teacher t JOIN t.user u " +
+           "WHERE NOT EXISTS (" +
+           "    SELECT 1 FROM Subject sub JOIN sub.teachers st WHERE sub.id = :subjectId AND st.id = t.id) " +
+           "AND (LOWER(u.firstName) LIKE CONCAT('%', :searchTerm, '%') " +
+           "OR LOWER(u.lastName) LIKE CONCAT('%', :searchTerm, '%') " +
+           "OR LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE CONCAT('%', :searchTerm, '%') " +
+           "OR LOWER(u.email) LIKE CONCAT('%', :searchTerm, '%')) " +
+           "ORDER BY u.lastName ASC, u.firstName ASC, t.id ASC")
+    List<Object[]> findAvailableForSubject(@Param("subjectId") Long subjectId,
+                                           @Param("searchTerm") String searchTerm,
+                                           Pageable pageable);
 }
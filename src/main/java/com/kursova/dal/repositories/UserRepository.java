@@ -2,10 +2,14 @@ package com.kursova.dal.repositories;
 
 import com.kursova.dal.entities.User;
 import com.kursova.dal.entities.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +22,7 @@ public interface UserRepository extends BaseRepository<User, Long> {
     /**
      * Find user by username
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
 
     /**
@@ -45,6 +50,18 @@ public interface UserRepository extends BaseRepository<User, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Find which of the given usernames are already taken
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Find which of the given emails are already taken
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     /**
      * Find users by name containing (case insensitive)
      */
@@ -64,4 +81,10 @@ public interface UserRepository extends BaseRepository<User, Long> {
      * Find active users
      */
     List<User> findByIsActiveTrue();
+
+    /**
+     * Find the fields indexed for name search, as rows of [id, firstName, lastName, email, role]
+     */
+    @Query("SELECT u.id, u.firstName, u.lastName, u.email, u.role FROM User u")
+    List<Object[]> findSearchIndexRows();
 }
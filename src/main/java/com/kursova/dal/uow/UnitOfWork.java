@@ -1,6 +1,8 @@
 package com.kursova.dal.uow;
 
 import com.kursova.dal.repositories.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +24,10 @@ public class UnitOfWork {
     private final ArchivedStudentGroupRepository archivedStudentGroupRepository;
     private final ArchivedStudentRepository archivedStudentRepository;
     private final ArchivedGradeRepository archivedGradeRepository;
+    private final GradeAggregateRepository gradeAggregateRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     public UnitOfWork(
@@ -33,7 +39,8 @@ public class UnitOfWork {
             GradeRepository gradeRepository,
             ArchivedStudentGroupRepository archivedStudentGroupRepository,
             ArchivedStudentRepository archivedStudentRepository,
-            ArchivedGradeRepository archivedGradeRepository) {
+            ArchivedGradeRepository archivedGradeRepository,
+            GradeAggregateRepository gradeAggregateRepository) {
         this.userRepository = userRepository;
         this.teacherRepository = teacherRepository;
         this.studentRepository = studentRepository;
@@ -43,6 +50,7 @@ public class UnitOfWork {
         this.archivedStudentGroupRepository = archivedStudentGroupRepository;
         this.archivedStudentRepository = archivedStudentRepository;
         this.archivedGradeRepository = archivedGradeRepository;
+        this.gradeAggregateRepository = gradeAggregateRepository;
     }
 
     // Repository getters
@@ -82,6 +90,19 @@ public class UnitOfWork {
         return archivedGradeRepository;
     }
 
+    public GradeAggregateRepository getGradeAggregateRepository() {
+        return gradeAggregateRepository;
+    }
+
+    /**
+     * Write pending changes and detach all loaded entities, so that long batch operations
+     * do not keep every processed row in the persistence context
+     */
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     /**
      * Commit all pending changes
      * Spring automatically handles transaction commit/rollback
@@ -1,5 +1,8 @@
 package com.kursova.pl.controllers;
 
+import com.kursova.bll.dto.ArchiveJobRequestDto;
+import com.kursova.bll.dto.ArchiveJobStatusDto;
+import com.kursova.bll.services.ArchiveJobService;
 import com.kursova.bll.services.ArchiveService;
 import com.kursova.dal.entities.ArchivedGrade;
 import com.kursova.dal.entities.ArchivedStudent;
@@ -7,8 +10,10 @@ import com.kursova.dal.entities.ArchivedStudentGroup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -26,10 +31,12 @@ import java.util.List;
 public class ArchiveController {
 
     private final ArchiveService archiveService;
+    private final ArchiveJobService archiveJobService;
 
     @Autowired
-    public ArchiveController(ArchiveService archiveService) {
+    public ArchiveController(ArchiveService archiveService, ArchiveJobService archiveJobService) {
         this.archiveService = archiveService;
+        this.archiveJobService = archiveJobService;
     }
 
     @GetMapping("/groups")
@@ -129,6 +136,34 @@ public class ArchiveController {
         }
     }
 
+    @PostMapping("/jobs")
+    @Operation(summary = "Submit archive job", description = "Queues archiving of a group, a set of students or a grade date range and returns the job id")
+    public ResponseEntity<?> submitArchiveJob(@Valid @RequestBody ArchiveJobRequestDto request) {
+        try {
+            ArchiveJobStatusDto status = archiveJobService.submit(request, "ADMIN");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error submitting archive job: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error submitting archive job: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get archive job status", description = "Retrieves state, progress, throughput and ETA of an archive job")
+    public ResponseEntity<ArchiveJobStatusDto> getArchiveJobStatus(
+            @PathVariable @Parameter(description = "Job ID") String jobId) {
+        return archiveJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/jobs")
+    @Operation(summary = "Get archive jobs", description = "Retrieves recent archive jobs (newest first)")
+    public ResponseEntity<List<ArchiveJobStatusDto>> getArchiveJobs() {
+        return ResponseEntity.ok(archiveJobService.getJobs());
+    }
+
     @DeleteMapping("/groups/{id}")
     @Operation(summary = "Permanently delete archived group", description = "Permanently deletes an archived group record")
     public ResponseEntity<String> deleteArchivedGroup(
@@ -2,6 +2,7 @@ package com.kursova.pl.controllers;
 
 import com.kursova.bll.dto.UserDto;
 import com.kursova.bll.services.UserService;
+import com.kursova.config.jwt.CustomUserDetails;
 import com.kursova.config.jwt.JwtUtils;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.AuthenticationException;
@@ -116,7 +117,7 @@ public class AuthController {
                         .body(new LoginResponse(false, "Invalid credentials or user is not active", null));
             }
 
-            String token = jwtUtils.generateToken(user.getUsername(), user.getRole().name());
+            String token = jwtUtils.generateToken(user.getUsername(), user.getRole().name(), user.getId());
 
             // Return token in message field and user info
             LoginResponse resp = new LoginResponse(true, token, user);
@@ -195,7 +196,11 @@ public class AuthController {
                     return ResponseEntity.ok(guestUser);
                 }
                 
-                UserDto user = userService.findByUsername(authentication.getName());
+                // The principal may come from the principal cache, so the profile is always read fresh
+                Long userId = CustomUserDetails.from(authentication).map(CustomUserDetails::getUserId).orElse(null);
+                UserDto user = userId != null
+                        ? userService.findById(userId)
+                        : userService.findByUsername(authentication.getName());
                 return ResponseEntity.ok(user);
             } catch (Exception e) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -0,0 +1,95 @@
+package com.kursova.pl.controllers;
+
+import com.kursova.bll.services.ExportService;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.repositories.GradeExportFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller for CSV exports
+ */
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export", description = "CSV exports streamed with constant server memory")
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    // Lets spreadsheet applications detect UTF-8 for Cyrillic names
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/grades.csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Export grades", description = "Streams grades as CSV, newest first, optionally filtered")
+    public ResponseEntity<StreamingResponseBody> exportGrades(
+            @RequestParam(required = false) @Parameter(description = "Group ID") Long groupId,
+            @RequestParam(required = false) @Parameter(description = "Subject ID") Long subjectId,
+            @RequestParam(required = false) @Parameter(description = "Start date")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @Parameter(description = "End date")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) @Parameter(description = "Grade type") GradeType gradeType) {
+        GradeExportFilter filter = new GradeExportFilter(groupId, subjectId, startDate, endDate, gradeType);
+        return csv("grades.csv", writer -> exportService.writeGradesCsv(filter, writer));
+    }
+
+    @GetMapping("/archive/grades.csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export archived grades", description = "Streams archived grades as CSV, newest archived first, optionally filtered; the date range applies to the original creation date")
+    public ResponseEntity<StreamingResponseBody> exportArchivedGrades(
+            @RequestParam(required = false) @Parameter(description = "Original group ID") Long groupId,
+            @RequestParam(required = false) @Parameter(description = "Original subject ID") Long subjectId,
+            @RequestParam(required = false) @Parameter(description = "Start date")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @Parameter(description = "End date")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) @Parameter(description = "Grade type") GradeType gradeType) {
+        GradeExportFilter filter = new GradeExportFilter(groupId, subjectId, startDate, endDate, gradeType);
+        return csv("archived-grades.csv", writer -> exportService.writeArchivedGradesCsv(filter, writer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> csv(String fileName, CsvWriter csvWriter) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(BYTE_ORDER_MARK);
+            csvWriter.write(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface CsvWriter {
+        void write(Writer writer) throws IOException;
+    }
+}
@@ -1,23 +1,35 @@
 package com.kursova.pl.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.bll.dto.BulkGradeRequestDto;
+import com.kursova.bll.dto.BulkGradeResultDto;
 import com.kursova.bll.dto.GradeDto;
+import com.kursova.bll.dto.GradePageDto;
 import com.kursova.bll.services.GradeService;
+import com.kursova.config.jwt.CustomUserDetails;
 import com.kursova.dal.entities.GradeType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import com.kursova.dal.uow.UnitOfWork;
 import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.Student;
 
 /**
  * REST Controller for Grade management
@@ -30,10 +42,12 @@ public class GradeController {
 
     private final GradeService gradeService;
     private final UnitOfWork unitOfWork;
+    private final ObjectMapper objectMapper;
 
-    public GradeController(GradeService gradeService, UnitOfWork unitOfWork) {
+    public GradeController(GradeService gradeService, UnitOfWork unitOfWork, ObjectMapper objectMapper) {
         this.gradeService = gradeService;
         this.unitOfWork = unitOfWork;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -44,19 +58,23 @@ public class GradeController {
                 .noneMatch(auth -> auth.getAuthority().equals("ROLE_STUDENT"))) {
             return false; // Not a student, let @PreAuthorize handle it
         }
-        
-        var currentUser = unitOfWork.getUserRepository().findByUsername(authentication.getName());
-        if (currentUser.isEmpty()) {
-            return true;
-        }
-        
-        var studentOpt = unitOfWork.getStudentRepository().findByUserId(currentUser.get().getId());
-        if (studentOpt.isEmpty()) {
-            return true;
+
+        return currentStudentId(authentication)
+                .map(currentStudentId -> !currentStudentId.equals(studentId))
+                .orElse(true);
+    }
+
+    /**
+     * Student id of the caller, taken from the JWT principal; looked up only when the principal does not carry it
+     */
+    private Optional<Long> currentStudentId(Authentication authentication) {
+        Optional<CustomUserDetails> principal = CustomUserDetails.from(authentication);
+        if (principal.isPresent()) {
+            return Optional.ofNullable(principal.get().getStudentId());
         }
-        
-        Long currentStudentId = studentOpt.get().getId();
-        return !currentStudentId.equals(studentId);
+        return unitOfWork.getUserRepository().findByUsername(authentication.getName())
+                .flatMap(user -> unitOfWork.getStudentRepository().findByUserId(user.getId()))
+                .map(Student::getId);
     }
 
     @PostMapping
@@ -119,6 +137,28 @@ public class GradeController {
     }
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER')")
+    @Operation(summary = "Create grades in bulk", description = "Creates grades of one subject and teacher for many students, returning the outcome of every entry")
+    public ResponseEntity<BulkGradeResultDto> createGradesBulk(@Valid @RequestBody BulkGradeRequestDto request) {
+        BulkGradeResultDto result = gradeService.createGradesBulk(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PutMapping("/set")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER')")
+    @Operation(summary = "Set grade", description = "Creates the grade of a student for a subject and grade type, or replaces its value, archiving the previous value when it changed")
+    public ResponseEntity<GradeDto> setGrade(
+            @RequestParam @Parameter(description = "Student ID") Long studentId,
+            @RequestParam @Parameter(description = "Teacher ID") Long teacherId,
+            @RequestParam @Parameter(description = "Subject ID") Long subjectId,
+            @RequestParam @Parameter(description = "Grade value (0-100)") Integer gradeValue,
+            @RequestParam @Parameter(description = "Grade type") GradeType gradeType,
+            @RequestParam(required = false) @Parameter(description = "Comments") String comments) {
+        GradeDto grade = gradeService.setGrade(studentId, teacherId, subjectId, gradeValue, gradeType, comments);
+        return ResponseEntity.ok(grade);
+    }
+
     @PostMapping("/by-user-ids")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER')")
     @Operation(summary = "Create grade by user ids", description = "Creates a new grade given userId (not studentId), teacherId, subjectId and value")
@@ -172,6 +212,38 @@ public class GradeController {
         return ResponseEntity.ok(grades);
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER')")
+    @Operation(summary = "Get grades page", description = "Retrieves grades newest first using keyset pagination on (gradeDate, id)")
+    public ResponseEntity<GradePageDto> getGradesPage(
+            @RequestParam(required = false) @Parameter(description = "Cursor returned as nextCursor by the previous page") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Page size (1-500)") int limit) {
+        GradePageDto page = gradeService.findPage(cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER')")
+    @Operation(summary = "Stream all grades", description = "Streams all grades as a JSON array, newest first, with constant server memory")
+    public ResponseEntity<StreamingResponseBody> streamAllGrades() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                gradeService.streamAll(grade -> {
+                    try {
+                        generator.writeObject(grade);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER')")
     @Operation(summary = "Get grades by student", description = "Retrieves all grades for a specific student (Admin/Manager/Teacher)")
@@ -191,19 +263,12 @@ public class GradeController {
         }
 
         // Get current user's student ID
-        var currentUser = unitOfWork.getUserRepository().findByUsername(authentication.getName());
-        if (currentUser.isEmpty()) {
+        Optional<Long> studentId = currentStudentId(authentication);
+        if (studentId.isEmpty()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        
-        var studentOpt = unitOfWork.getStudentRepository().findByUserId(currentUser.get().getId());
-        if (studentOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-        
-        Long studentId = studentOpt.get().getId();
 
-        List<GradeDto> grades = gradeService.findByStudentId(studentId);
+        List<GradeDto> grades = gradeService.findByStudentId(studentId.get());
         return ResponseEntity.ok(grades);
     }
 
@@ -314,6 +379,14 @@ public class GradeController {
         return ResponseEntity.ok(averageGrade);
     }
 
+    @PostMapping("/aggregates/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild grade aggregates", description = "Recomputes materialized per-student and per-subject grade statistics")
+    public ResponseEntity<Map<String, Object>> rebuildGradeAggregates() {
+        int rows = gradeService.rebuildGradeAggregates();
+        return ResponseEntity.ok(Map.of("success", true, "rows", rows));
+    }
+
     @GetMapping("/diagnostics")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Debug grades raw", description = "Returns raw grade ids and values for diagnostics")
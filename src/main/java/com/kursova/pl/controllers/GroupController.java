@@ -1,7 +1,11 @@
 package com.kursova.pl.controllers;
 
+import com.kursova.bll.dto.AcademicYearRolloverDto;
+import com.kursova.bll.dto.GradebookDto;
+import com.kursova.bll.dto.GroupMembershipDeltaDto;
 import com.kursova.bll.dto.StudentGroupDto;
 import com.kursova.bll.dto.StudentDto;
+import com.kursova.bll.services.GradeService;
 import com.kursova.bll.services.StudentGroupService;
 import com.kursova.bll.services.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -27,11 +32,13 @@ public class GroupController {
 
     private final StudentGroupService groupService;
     private final StudentService studentService;
+    private final GradeService gradeService;
 
     @Autowired
-    public GroupController(StudentGroupService groupService, StudentService studentService) {
+    public GroupController(StudentGroupService groupService, StudentService studentService, GradeService gradeService) {
         this.groupService = groupService;
         this.studentService = studentService;
+        this.gradeService = gradeService;
     }
 
     @PostMapping
@@ -94,6 +101,16 @@ public class GroupController {
         return ResponseEntity.ok(students);
     }
 
+    @GetMapping("/{id}/gradebook")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER')")
+    @Operation(summary = "Get group gradebook", description = "Retrieves the student by grade type matrix of a group in a subject")
+    public ResponseEntity<GradebookDto> getGroupGradebook(
+            @PathVariable @Parameter(description = "Group ID") Long id,
+            @RequestParam @Parameter(description = "Subject ID") Long subjectId) {
+        GradebookDto gradebook = gradeService.getGroupGradebook(id, subjectId);
+        return ResponseEntity.ok(gradebook);
+    }
+
     @PostMapping("/{groupId}/students/{studentId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @Operation(summary = "Add student to group", description = "Adds a student to a specific group")
@@ -131,20 +148,9 @@ public class GroupController {
             @PathVariable @Parameter(description = "Group ID") Long id,
             @RequestBody List<Long> studentIds) {
         try {
-            // First, remove all students from the group
-            List<StudentDto> currentStudents = studentService.findByGroupId(id);
-            for (StudentDto student : currentStudents) {
-                studentService.removeFromGroup(student.getId());
-            }
-            
-            // Then, add the new students to the group
-            for (Long studentId : studentIds) {
-                studentService.assignToGroup(studentId, id);
-            }
-            
-            // Return updated student list
-            List<StudentDto> updatedStudents = studentService.findByGroupId(id);
-            return ResponseEntity.ok(Map.of("success", true, "data", updatedStudents));
+            // Only the difference to the current membership is written, in one transaction
+            GroupMembershipDeltaDto delta = groupService.replaceMembers(id, new LinkedHashSet<>(studentIds));
+            return ResponseEntity.ok(Map.of("success", true, "data", delta));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("success", false, "error", e.getMessage()));
@@ -179,6 +185,14 @@ public class GroupController {
         return ResponseEntity.ok(deactivatedGroup);
     }
 
+    @PostMapping("/academic-year-rollover")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Academic year rollover", description = "Moves all active groups and their students to the next course")
+    public ResponseEntity<AcademicYearRolloverDto> rolloverAcademicYear() {
+        AcademicYearRolloverDto result = groupService.rolloverAcademicYear();
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @Operation(summary = "Delete group", description = "Deletes student group")
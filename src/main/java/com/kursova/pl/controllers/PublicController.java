@@ -1,6 +1,7 @@
 package com.kursova.pl.controllers;
 
 import com.kursova.bll.dto.SubjectDto;
+import com.kursova.bll.dto.SubjectListItem;
 import com.kursova.bll.dto.TeacherDto;
 import com.kursova.bll.dto.StudentDto;
 import com.kursova.bll.services.SubjectService;
@@ -68,6 +69,12 @@ public class PublicController {
         return ResponseEntity.ok(subjects);
     }
 
+    @GetMapping("/subjects/list")
+    @Operation(summary = "Get subject list", description = "Retrieves active subjects as lightweight list items")
+    public ResponseEntity<List<SubjectListItem>> getSubjectList() {
+        return ResponseEntity.ok(subjectService.findActiveSubjectListItems());
+    }
+
     @GetMapping("/subjects/{id}")
     @Operation(summary = "Get subject by ID", description = "Retrieves subject information by ID")
     public ResponseEntity<SubjectDto> getSubjectById(
@@ -106,8 +113,8 @@ public class PublicController {
         DepartmentInfoDto info = new DepartmentInfoDto();
         info.setName("Кафедра комп'ютерних наук");
         info.setDescription("Кафедра комп'ютерних наук готує спеціалістів у галузі інформаційних технологій");
-        info.setTotalTeachers(teacherService.findActiveTeachers().size());
-        info.setTotalSubjects(subjectService.findActiveSubjects().size());
+        info.setTotalTeachers((int) teacherService.countActiveTeachers());
+        info.setTotalSubjects((int) subjectService.countActiveSubjects());
 
         return ResponseEntity.ok(info);
     }
@@ -1,7 +1,9 @@
 package com.kursova.pl.controllers;
 
 import com.kursova.bll.dto.StudentDto;
+import com.kursova.bll.dto.StudentSummaryDto;
 import com.kursova.bll.services.StudentService;
+import com.kursova.config.jwt.CustomUserDetails;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -91,25 +93,12 @@ public class StudentController {
 
     @GetMapping("/search-without-group")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    @Operation(summary = "Search students without group by name", description = "Searches students without group by first or last name")
-    public ResponseEntity<List<StudentDto>> searchStudentsWithoutGroupByName(
-            @RequestParam @Parameter(description = "Search term") String name) {
-        List<StudentDto> allStudentsWithoutGroup = studentService.findStudentsWithoutGroup();
-        
-        if (name == null || name.trim().isEmpty()) {
-            return ResponseEntity.ok(allStudentsWithoutGroup);
-        }
-        
-        String searchTerm = name.trim().toLowerCase();
-        List<StudentDto> filteredStudents = allStudentsWithoutGroup.stream()
-                .filter(student -> {
-                    String fullName = student.getFullName().toLowerCase();
-                    String email = student.getUser() != null ? student.getUser().getEmail().toLowerCase() : "";
-                    return fullName.contains(searchTerm) || email.contains(searchTerm);
-                })
-                .collect(java.util.stream.Collectors.toList());
-        
-        return ResponseEntity.ok(filteredStudents);
+    @Operation(summary = "Search students without group by name", description = "Searches active students without group by name or email")
+    public ResponseEntity<List<StudentSummaryDto>> searchStudentsWithoutGroupByName(
+            @RequestParam(required = false) @Parameter(description = "Search term") String name,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Maximum number of results (1-100)") int limit) {
+        List<StudentSummaryDto> students = studentService.searchWithoutGroup(name, limit);
+        return ResponseEntity.ok(students);
     }
 
     @PutMapping("/{id}")
@@ -163,18 +152,16 @@ public class StudentController {
     @PreAuthorize("hasRole('STUDENT')")
     @Operation(summary = "Get current student", description = "Get current student information for authenticated student user")
     public ResponseEntity<StudentDto> getCurrentStudent(Authentication authentication) {
-        System.out.println("DEBUG: getCurrentStudent called");
-        System.out.println("DEBUG: Authentication: " + authentication);
-        if (authentication != null) {
-            System.out.println("DEBUG: Authentication name: " + authentication.getName());
-        }
-
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        String email = authentication.getName();
-        StudentDto student = studentService.findByEmail(email);
-        System.out.println("DEBUG: Found student: " + student.getId());
+        // The JWT principal already knows the student id; fall back to the username lookup otherwise
+        Long studentId = CustomUserDetails.from(authentication)
+                .map(CustomUserDetails::getStudentId)
+                .orElse(null);
+        StudentDto student = studentId != null
+                ? studentService.findById(studentId)
+                : studentService.findByEmail(authentication.getName());
         return ResponseEntity.ok(student);
     }
 }
@@ -1,6 +1,9 @@
 package com.kursova.pl.controllers;
 
+import com.kursova.bll.dto.GroupSummaryDto;
 import com.kursova.bll.dto.SubjectDto;
+import com.kursova.bll.dto.SubjectListItem;
+import com.kursova.bll.dto.TeacherSummaryDto;
 import com.kursova.bll.services.SubjectService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -36,6 +39,13 @@ public class SubjectController {
         return ResponseEntity.ok(subjects);
     }
 
+    @GetMapping("/list")
+    @Operation(summary = "Get subject list", description = "Retrieve active subjects as lightweight list items with teacher names and group counts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER', 'STUDENT')")
+    public ResponseEntity<List<SubjectListItem>> getSubjectList() {
+        return ResponseEntity.ok(subjectService.findActiveSubjectListItems());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get subject by ID", description = "Retrieve a specific subject by its ID")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER', 'STUDENT')")
@@ -117,10 +127,14 @@ public class SubjectController {
     }
 
     @GetMapping("/{subjectId}/available-groups")
-    @Operation(summary = "Get available groups for subject", description = "Retrieve groups that can be assigned to a subject")
+    @Operation(summary = "Get available groups for subject", description = "Retrieve the groups that can be assigned to a subject, optionally filtered by name or code; one page of them when size is given")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<List<Object>> getAvailableGroupsForSubject(@PathVariable Long subjectId) {
-        List<Object> groups = subjectService.getAvailableGroups(subjectId);
+    public ResponseEntity<List<GroupSummaryDto>> getAvailableGroupsForSubject(
+            @PathVariable Long subjectId,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        List<GroupSummaryDto> groups = subjectService.getAvailableGroups(subjectId, search, page, size);
         return ResponseEntity.ok(groups);
     }
 
@@ -158,10 +172,14 @@ public class SubjectController {
     }
 
     @GetMapping("/{subjectId}/available-teachers")
-    @Operation(summary = "Get available teachers for subject", description = "Retrieve teachers that can be assigned to a subject")
+    @Operation(summary = "Get available teachers for subject", description = "Retrieve the teachers that can be assigned to a subject, optionally filtered by name or email; one page of them when size is given")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<List<Object>> getAvailableTeachersForSubject(@PathVariable Long subjectId) {
-        List<Object> teachers = subjectService.getAvailableTeachers(subjectId);
+    public ResponseEntity<List<TeacherSummaryDto>> getAvailableTeachersForSubject(
+            @PathVariable Long subjectId,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        List<TeacherSummaryDto> teachers = subjectService.getAvailableTeachers(subjectId, search, page, size);
         return ResponseEntity.ok(teachers);
     }
 }
@@ -1,6 +1,8 @@
 package com.kursova.pl.controllers;
 
 import com.kursova.bll.dto.UserDto;
+import com.kursova.bll.dto.UserImportResultDto;
+import com.kursova.bll.services.UserImportService;
 import com.kursova.bll.services.UserService;
 import com.kursova.dal.entities.UserRole;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,10 +11,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -24,10 +30,12 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     @PostMapping
@@ -48,6 +56,16 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import users from CSV", description = "Creates users (and students or teachers) from a CSV file and reports the outcome of every line")
+    public ResponseEntity<UserImportResultDto> importUsers(
+            @RequestParam("file") @Parameter(description = "CSV file with a header line") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(userImportService.importCsv(csv));
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TEACHER', 'STUDENT')")
     @Operation(summary = "Get user by ID", description = "Retrieves user information by ID")
@@ -0,0 +1,36 @@
+-- Materialized grade statistics per student x subject and per student (subject_id = 0)
+-- Kept up to date incrementally by GradeService and rebuilt nightly
+
+CREATE TABLE grade_aggregates (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  student_id BIGINT NOT NULL,
+  subject_id BIGINT NOT NULL,
+  grade_count BIGINT NOT NULL DEFAULT 0,
+  grade_sum BIGINT NOT NULL DEFAULT 0,
+  min_grade INT DEFAULT NULL,
+  max_grade INT DEFAULT NULL,
+  final_count BIGINT NOT NULL DEFAULT 0,
+  final_sum BIGINT NOT NULL DEFAULT 0,
+  updated_at DATETIME(6) DEFAULT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_grade_aggregates_student_subject (student_id, subject_id),
+  KEY idx_grade_aggregates_subject_final (subject_id, final_count),
+  CONSTRAINT fk_grade_aggregates_student FOREIGN KEY (student_id) REFERENCES students (id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Initial population from existing grades
+INSERT INTO grade_aggregates
+  (student_id, subject_id, grade_count, grade_sum, min_grade, max_grade, final_count, final_sum, updated_at)
+SELECT student_id, subject_id, COUNT(*), SUM(grade_value), MIN(grade_value), MAX(grade_value),
+       SUM(CASE WHEN is_final = TRUE THEN 1 ELSE 0 END),
+       SUM(CASE WHEN is_final = TRUE THEN grade_value ELSE 0 END), CURRENT_TIMESTAMP(6)
+FROM grades
+GROUP BY student_id, subject_id;
+
+INSERT INTO grade_aggregates
+  (student_id, subject_id, grade_count, grade_sum, min_grade, max_grade, final_count, final_sum, updated_at)
+SELECT student_id, 0, COUNT(*), SUM(grade_value), MIN(grade_value), MAX(grade_value),
+       SUM(CASE WHEN is_final = TRUE THEN 1 ELSE 0 END),
+       SUM(CASE WHEN is_final = TRUE THEN grade_value ELSE 0 END), CURRENT_TIMESTAMP(6)
+FROM grades
+GROUP BY student_id;
@@ -0,0 +1,10 @@
+-- Pooled id generator for grades (MySQL has no sequences, Hibernate emulates them with a table)
+-- Lets Hibernate batch grade inserts instead of one round trip per IDENTITY insert
+
+CREATE TABLE grades_seq (
+  next_val BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+-- Start above every existing id (allocation size 50)
+INSERT INTO grades_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM grades;
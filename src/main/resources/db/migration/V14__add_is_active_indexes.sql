@@ -0,0 +1,9 @@
+-- Indexes for the active-only reads (active students/teachers/subjects/groups lists, public pages)
+-- Subjects and groups are listed ordered by name, so the name follows is_active in the key
+
+CREATE INDEX idx_users_active ON users (is_active);
+CREATE INDEX idx_students_active ON students (is_active);
+CREATE INDEX idx_students_group_active ON students (group_id, is_active);
+CREATE INDEX idx_teachers_active ON teachers (is_active);
+CREATE INDEX idx_subjects_active_name ON subjects (is_active, subject_name);
+CREATE INDEX idx_student_groups_active_name ON student_groups (is_active, group_name);
@@ -0,0 +1,19 @@
+-- Composite indexes matching the grade access paths in GradeRepository
+-- Lists are ordered newest first, so grade_date is descending in the key and no filesort is needed
+
+-- findByStudentIdOrderByGradeDateDesc
+CREATE INDEX idx_grades_student_date ON grades (student_id, grade_date DESC);
+-- findByStudentIdAndSubjectIdOrderByGradeDateDesc
+CREATE INDEX idx_grades_student_subject_date ON grades (student_id, subject_id, grade_date DESC);
+-- findBySubjectIdOrderByGradeDateDesc
+CREATE INDEX idx_grades_subject_date ON grades (subject_id, grade_date DESC);
+-- findByTeacherIdOrderByGradeDateDesc
+CREATE INDEX idx_grades_teacher_date ON grades (teacher_id, grade_date DESC);
+-- findByGradeTypeOrderByGradeDateDesc
+CREATE INDEX idx_grades_type_date ON grades (grade_type, grade_date DESC);
+-- findByGradeDateBetween..., date range archiving and keyset paging by (grade_date, id)
+CREATE INDEX idx_grades_date_id ON grades (grade_date DESC, id DESC);
+-- Final grades of one student (list and overall average), covering grade_value
+CREATE INDEX idx_grades_student_final ON grades (student_id, is_final, grade_value);
+-- Final grades of all students (top performers), covering grade_value
+CREATE INDEX idx_grades_final_student ON grades (is_final, student_id, grade_value);
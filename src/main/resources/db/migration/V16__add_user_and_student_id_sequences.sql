@@ -0,0 +1,17 @@
+-- Pooled id generators for users and students (MySQL has no sequences, Hibernate emulates them with tables)
+-- Lets Hibernate batch the inserts of a user import instead of one round trip per IDENTITY insert
+
+CREATE TABLE users_seq (
+  next_val BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+CREATE TABLE students_seq (
+  next_val BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+-- Start above every existing id (allocation size 50)
+INSERT INTO users_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM users;
+
+INSERT INTO students_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM students;
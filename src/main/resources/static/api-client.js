@@ -232,6 +232,10 @@ class ApiClient {
         return await this.apiCall(`/api/groups/${groupId}/students`);
     }
     
+    async getGroupGradebook(groupId, subjectId) {
+        return await this.apiCall(`/api/groups/${groupId}/gradebook?subjectId=${subjectId}`);
+    }
+    
     async addStudentToGroup(groupId, studentId) {
         return await this.apiCall(`/api/groups/${groupId}/students/${studentId}`, {
             method: 'POST'
@@ -339,6 +343,14 @@ class ApiClient {
         });
     }
 
+    async setGrade(studentId, subjectId, teacherId, gradeType, value, comments = null) {
+        const params = new URLSearchParams({ studentId, subjectId, teacherId, gradeType, gradeValue: value });
+        if (comments) {
+            params.append('comments', comments);
+        }
+        return await this.apiCall(`/api/grades/set?${params}`, { method: 'PUT' });
+    }
+
     async updateGrade(id, gradeData) {
         return await this.apiCall(`/api/grades/${id}`, {
             method: 'PUT',
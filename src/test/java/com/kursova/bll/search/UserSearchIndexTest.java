@@ -0,0 +1,110 @@
+package com.kursova.bll.search;
+
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.dal.repositories.UserRepository;
+import com.kursova.dal.uow.UnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Search Index Tests")
+class UserSearchIndexTest {
+
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(unitOfWork);
+        when(unitOfWork.getUserRepository()).thenReturn(userRepository);
+        when(userRepository.findSearchIndexRows()).thenReturn(List.of(
+                new Object[]{1L, "Іван", "Петренко", "ivan.petrenko@univ.edu", UserRole.STUDENT},
+                new Object[]{2L, "Петро", "Іваненко", "p.ivanenko@univ.edu", UserRole.STUDENT},
+                new Object[]{3L, "Олена", "Коваль", "olena@univ.edu", UserRole.TEACHER},
+                new Object[]{4L, "Ґанна", "Д'ячук", "hanna@univ.edu", UserRole.STUDENT}
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should be ready with all users after rebuild")
+    void shouldBeReadyAfterRebuild() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should rank exact and prefix name matches before substring matches")
+    void shouldRankPrefixMatchesFirst() {
+        // "іван" is the whole first name of user 1 and only a last name prefix for user 2
+        assertThat(index.search("Іван", null, 10)).containsExactly(1L, 2L);
+        // "петр" is a last name prefix for user 1 and a first name prefix for user 2
+        assertThat(index.search("петр", null, 10)).containsExactly(2L, 1L);
+        assertThat(index.search("енко", null, 10)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should match full name in either order and email")
+    void shouldMatchFullNameAndEmail() {
+        assertThat(index.search("петренко іван", null, 10)).containsExactly(1L);
+        assertThat(index.search("  Іван   Петренко ", null, 10)).containsExactly(1L);
+        assertThat(index.search("olena@", null, 10)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should ignore case, apostrophes and Ukrainian letter variants")
+    void shouldNormalizeCyrillic() {
+        assertThat(index.search("ДЯЧУК", null, 10)).containsExactly(4L);
+        assertThat(index.search("ганна", null, 10)).containsExactly(4L);
+        assertThat(index.search("ivan", null, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should filter by role and respect the limit")
+    void shouldFilterByRoleAndLimit() {
+        assertThat(index.search("univ", UserRole.TEACHER, 10)).containsExactly(3L);
+        assertThat(index.search("univ", null, 2)).hasSize(2);
+        assertThat(index.search("ко", UserRole.TEACHER, 10)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should reflect upserts and removals")
+    void shouldApplyUpsertAndRemove() {
+        User user = new User();
+        user.setId(1L);
+        user.setFirstName("Іван");
+        user.setLastName("Шевченко");
+        user.setEmail("ivan.shevchenko@univ.edu");
+        user.setRole(UserRole.STUDENT);
+
+        index.upsert(user);
+        assertThat(index.search("петренко", null, 10)).isEmpty();
+        assertThat(index.search("шевч", null, 10)).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("шевч", null, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for blank queries")
+    void shouldReturnNothingForBlankQuery() {
+        assertThat(index.search("   ", null, 10)).isEmpty();
+        assertThat(index.search(null, null, 10)).isEmpty();
+    }
+}
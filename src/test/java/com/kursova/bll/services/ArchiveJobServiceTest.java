@@ -0,0 +1,137 @@
+package com.kursova.bll.services;
+
+import com.kursova.bll.dto.ArchiveJobRequestDto;
+import com.kursova.bll.dto.ArchiveJobStatusDto;
+import com.kursova.bll.services.impl.ArchiveJobServiceImpl;
+import com.kursova.dal.repositories.StudentGroupRepository;
+import com.kursova.dal.repositories.StudentRepository;
+import com.kursova.dal.uow.UnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ArchiveJobService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Archive Job Service Tests")
+class ArchiveJobServiceTest {
+
+    @Mock
+    private ArchiveService archiveService;
+
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private StudentGroupRepository studentGroupRepository;
+
+    private ExecutorService executor;
+    private ArchiveJobServiceImpl archiveJobService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        archiveJobService = new ArchiveJobServiceImpl(archiveService, unitOfWork, executor);
+    }
+
+    private void awaitJobs() throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should archive group students and the group, reporting progress")
+    void submit_GroupJob_ShouldCompleteWithProgress() throws InterruptedException {
+        // Arrange
+        ArchiveJobRequestDto request = new ArchiveJobRequestDto();
+        request.setScope(ArchiveJobRequestDto.Scope.GROUP);
+        request.setGroupId(5L);
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentGroupRepository.existsById(5L)).thenReturn(true);
+        when(studentRepository.findIdsByGroupId(5L)).thenReturn(List.of(1L, 2L));
+        when(archiveService.archiveStudents(eq(List.of(1L, 2L)), eq("ADMIN"), eq("Graduated"), any()))
+                .thenAnswer(invocation -> {
+                    ArchiveService.ProgressListener progress = invocation.getArgument(3);
+                    progress.onProgress(12, 12);
+                    return 2L;
+                });
+        request.setReason("Graduated");
+
+        // Act
+        ArchiveJobStatusDto submitted = archiveJobService.submit(request, "ADMIN");
+        awaitJobs();
+
+        // Assert
+        assertThat(submitted.getJobId()).isNotBlank();
+        ArchiveJobStatusDto status = archiveJobService.getStatus(submitted.getJobId()).orElseThrow();
+        assertThat(status.getState()).isEqualTo(ArchiveJobStatusDto.State.COMPLETED);
+        assertThat(status.getProcessed()).isEqualTo(12);
+        assertThat(status.getTotal()).isEqualTo(12);
+        assertThat(status.getFinishedAt()).isNotNull();
+        assertThat(status.getEtaSeconds()).isNull();
+        verify(archiveService).archiveStudentGroup(5L, "ADMIN", "Graduated");
+    }
+
+    @Test
+    @DisplayName("Should mark job as failed when archiving throws")
+    void submit_DateRangeJob_ShouldReportFailure() throws InterruptedException {
+        // Arrange
+        ArchiveJobRequestDto request = new ArchiveJobRequestDto();
+        request.setScope(ArchiveJobRequestDto.Scope.DATE_RANGE);
+        request.setStartDate(LocalDateTime.of(2024, 9, 1, 0, 0));
+        request.setEndDate(LocalDateTime.of(2025, 6, 30, 0, 0));
+        when(archiveService.archiveGradesInDateRange(any(), any(), anyString(), anyString(), any()))
+                .thenThrow(new RuntimeException("Lock wait timeout"));
+
+        // Act
+        ArchiveJobStatusDto submitted = archiveJobService.submit(request, "ADMIN");
+        awaitJobs();
+
+        // Assert
+        ArchiveJobStatusDto status = archiveJobService.getStatus(submitted.getJobId()).orElseThrow();
+        assertThat(status.getState()).isEqualTo(ArchiveJobStatusDto.State.FAILED);
+        assertThat(status.getError()).isEqualTo("Lock wait timeout");
+        assertThat(archiveJobService.getJobs()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid requests before queueing")
+    void submit_ShouldRejectInvalidRequest() {
+        // Arrange
+        ArchiveJobRequestDto request = new ArchiveJobRequestDto();
+        request.setScope(ArchiveJobRequestDto.Scope.STUDENTS);
+
+        // Act & Assert
+        assertThatThrownBy(() -> archiveJobService.submit(request, "ADMIN"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(archiveJobService.getJobs()).isEmpty();
+        verifyNoInteractions(archiveService);
+    }
+
+    @Test
+    @DisplayName("Should return empty status for unknown job")
+    void getStatus_ShouldReturnEmpty_WhenUnknown() {
+        assertThat(archiveJobService.getStatus("missing")).isEmpty();
+    }
+}
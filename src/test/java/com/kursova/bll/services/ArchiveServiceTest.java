@@ -5,6 +5,10 @@ import com.kursova.dal.entities.*;
 import com.kursova.dal.repositories.ArchivedGradeRepository;
 import com.kursova.dal.repositories.ArchivedStudentGroupRepository;
 import com.kursova.dal.repositories.ArchivedStudentRepository;
+import com.kursova.dal.repositories.GradeAggregateRepository;
+import com.kursova.dal.repositories.GradeRepository;
+import com.kursova.dal.repositories.StudentGroupRepository;
+import com.kursova.dal.repositories.StudentRepository;
 import com.kursova.dal.uow.UnitOfWork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,11 +17,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -45,6 +52,24 @@ class ArchiveServiceTest {
     @Mock
     private ArchivedGradeRepository archivedGradeRepository;
 
+    @Mock
+    private GradeRepository gradeRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private StudentGroupRepository studentGroupRepository;
+
+    @Mock
+    private GradeAggregateRepository gradeAggregateRepository;
+
+    @Mock
+    private GradeAggregateService gradeAggregateService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ArchiveServiceImpl archiveService;
 
@@ -388,6 +413,112 @@ class ArchiveServiceTest {
         verify(archivedGradeRepository).deleteById(gradeId);
     }
 
+    // ===============================
+    // ARCHIVE OPERATION TESTS
+    // ===============================
+
+    @Test
+    @DisplayName("Should move grades to the archive in chunks and report progress")
+    void archiveGradesOfStudents_ShouldProcessInChunks() {
+        // Arrange
+        List<Long> gradeIds = LongStream.rangeClosed(1, 1200).boxed().toList();
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeRepository.findIdsByStudentIdIn(List.of(1L, 2L))).thenReturn(gradeIds);
+        List<Long> progress = new java.util.ArrayList<>();
+
+        // Act
+        long archived = archiveService.archiveGradesOfStudents(List.of(1L, 2L), "ADMIN", "Graduated",
+                (processed, total) -> progress.add(processed));
+
+        // Assert
+        assertThat(archived).isEqualTo(1200);
+        assertThat(progress).containsExactly(500L, 1000L, 1200L);
+        verify(archivedGradeRepository, times(3)).insertFromGrades(anyCollection(), any(LocalDateTime.class),
+                eq("ADMIN"), eq("Graduated"));
+        verify(gradeRepository, times(3)).deleteAllByIdIn(anyCollection());
+        verify(gradeAggregateRepository).deleteByStudentIdIn(List.of(1L, 2L));
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should archive student with grades set-based")
+    void archiveStudent_ShouldArchiveGradesAndDeleteStudent() {
+        // Arrange
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(studentRepository.existsById(1L)).thenReturn(true);
+        when(gradeRepository.findIdsByStudentIdIn(List.of(1L))).thenReturn(List.of(10L, 11L));
+        when(archivedStudentRepository.insertFromStudents(eq(List.of(1L)), any(LocalDateTime.class),
+                eq("ADMIN"), eq("Expelled"))).thenReturn(1);
+
+        // Act
+        archiveService.archiveStudent(1L, "ADMIN", "Expelled");
+
+        // Assert
+        verify(archivedGradeRepository).insertFromGrades(eq(List.of(10L, 11L)), any(LocalDateTime.class),
+                eq("ADMIN"), eq("Expelled"));
+        verify(gradeRepository).deleteAllByIdIn(List.of(10L, 11L));
+        verify(gradeAggregateRepository).deleteByStudentIdIn(List.of(1L));
+        verify(studentRepository).deleteAllByIdIn(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should throw when archiving non-existent student")
+    void archiveStudent_ShouldThrowWhenNotExists() {
+        // Arrange
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> archiveService.archiveStudent(99L, "ADMIN", "Expelled"))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Student not found with id: 99");
+        verifyNoInteractions(archivedGradeRepository);
+    }
+
+    @Test
+    @DisplayName("Should archive grades in date range and recompute aggregates of affected students")
+    void archiveGradesInDateRange_ShouldRebuildAggregates() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 9, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 6, 30, 23, 59);
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(gradeRepository.findStudentIdsByGradeDateBetween(start, end)).thenReturn(List.of(1L, 2L));
+        when(gradeRepository.findIdsByGradeDateBetween(start, end)).thenReturn(List.of(10L, 11L, 12L));
+
+        // Act
+        long archived = archiveService.archiveGradesInDateRange(start, end, "ADMIN", "Year closed", null);
+
+        // Assert
+        assertThat(archived).isEqualTo(3);
+        verify(gradeRepository).deleteAllByIdIn(List.of(10L, 11L, 12L));
+        verify(gradeAggregateService).rebuildForStudents(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should unassign students with one update when archiving group")
+    void archiveStudentGroup_ShouldUnassignStudentsInBulk() {
+        // Arrange
+        StudentGroup group = new StudentGroup();
+        group.setId(5L);
+        group.setGroupCode("BZ121");
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentGroupRepository.findById(5L)).thenReturn(Optional.of(group));
+        when(studentRepository.unassignAllFromGroup(eq(5L), any(LocalDateTime.class))).thenReturn(25);
+
+        // Act
+        archiveService.archiveStudentGroup(5L, "ADMIN", "Graduated");
+
+        // Assert
+        verify(studentRepository).unassignAllFromGroup(eq(5L), any(LocalDateTime.class));
+        verify(studentRepository, never()).save(any());
+        verify(archivedStudentGroupRepository).save(any(ArchivedStudentGroup.class));
+        verify(studentGroupRepository).deleteById(5L);
+    }
+
     // ===============================
     // EDGE CASES
     // ===============================
@@ -0,0 +1,122 @@
+package com.kursova.bll.services;
+
+import com.kursova.bll.services.impl.ExportServiceImpl;
+import com.kursova.dal.entities.GradeCategory;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.repositories.ArchivedGradeRepository;
+import com.kursova.dal.repositories.GradeExportFilter;
+import com.kursova.dal.repositories.GradeListRow;
+import com.kursova.dal.repositories.GradeRepository;
+import com.kursova.dal.uow.UnitOfWork;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExportService
+ * Tests follow the Triple A pattern (Arrange-Act-Assert)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Export Service Tests")
+class ExportServiceTest {
+
+    private static final GradeExportFilter NO_FILTER = new GradeExportFilter(null, null, null, null, null);
+
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    @Mock
+    private GradeRepository gradeRepository;
+
+    @Mock
+    private ArchivedGradeRepository archivedGradeRepository;
+
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    @Test
+    @DisplayName("Should write a header and one escaped line per grade row")
+    @SuppressWarnings("unchecked")
+    void writeGradesCsv_ShouldWriteRows_WhenGradesExist() throws IOException {
+        // Arrange
+        GradeListRow row = new GradeListRow(7L, 85, GradeType.EXAM, GradeCategory.FINAL_CONTROL,
+                LocalDateTime.of(2024, 9, 1, 10, 30), "Good, \"solid\" work", true, null, null,
+                3L, 4L, "Ivan Petrenko", "ST-1", 5L, "Olena Koval", 6L, "Math", "M-1", null, null);
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        doAnswer(invocation -> {
+            invocation.<Consumer<GradeListRow>>getArgument(2).accept(row);
+            return null;
+        }).when(gradeRepository).scrollListRows(eq(NO_FILTER), anyInt(), any(Consumer.class));
+        StringWriter writer = new StringWriter();
+
+        // Act
+        exportService.writeGradesCsv(NO_FILTER, writer);
+
+        // Assert
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,grade_date,student_id");
+        assertThat(lines[1]).isEqualTo("7,2024-09-01 10:30:00,3,ST-1,Ivan Petrenko,,,6,M-1,Math,5,Olena Koval,"
+                + "EXAM,FINAL_CONTROL,85,true,\"Good, \"\"solid\"\" work\"");
+    }
+
+    @Test
+    @DisplayName("Should keep spreadsheet formulas in text cells inert")
+    @SuppressWarnings("unchecked")
+    void writeArchivedGradesCsv_ShouldGuardFormulas_WhenCellStartsWithFormulaCharacter() throws IOException {
+        // Arrange
+        Object[] row = {1L, 7L, 3L, "ST-1", "=HYPERLINK(\"x\")", null, null, 6L, "Math", GradeType.EXAM,
+                GradeCategory.FINAL_CONTROL, 85, null, null, null, null, "admin", "graduated"};
+        when(unitOfWork.getArchivedGradeRepository()).thenReturn(archivedGradeRepository);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object[]>>getArgument(2).accept(row);
+            return null;
+        }).when(archivedGradeRepository).scrollRows(eq(NO_FILTER), anyInt(), any(Consumer.class));
+        StringWriter writer = new StringWriter();
+
+        // Act
+        exportService.writeArchivedGradesCsv(NO_FILTER, writer);
+
+        // Assert
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).isEqualTo("1,7,3,ST-1,\"'=HYPERLINK(\"\"x\"\")\",,,6,Math,EXAM,FINAL_CONTROL,85,,,,,admin,graduated");
+    }
+
+    @Test
+    @DisplayName("Should report a failed write as IOException")
+    @SuppressWarnings("unchecked")
+    void writeGradesCsv_ShouldThrowIOException_WhenClientDisconnects() throws IOException {
+        // Arrange
+        GradeListRow row = new GradeListRow(7L, 85, GradeType.EXAM, GradeCategory.FINAL_CONTROL, null, null, false,
+                null, null, 3L, 4L, "Ivan Petrenko", "ST-1", 5L, "Olena Koval", 6L, "Math", "M-1", null, null);
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        doAnswer(invocation -> {
+            invocation.<Consumer<GradeListRow>>getArgument(2).accept(row);
+            return null;
+        }).when(gradeRepository).scrollListRows(eq(NO_FILTER), anyInt(), any(Consumer.class));
+        Writer writer = spy(new StringWriter());
+        doCallRealMethod().doThrow(new IOException("Broken pipe")).when(writer).write(anyString());
+
+        // Act & Assert
+        assertThatThrownBy(() -> exportService.writeGradesCsv(NO_FILTER, writer))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+}
@@ -0,0 +1,92 @@
+package com.kursova.bll.services;
+
+import com.kursova.dal.entities.GradeAggregate;
+import com.kursova.dal.repositories.GradeAggregateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records grades from concurrent transactions, like two teachers grading the same student at once.
+ * Runs without a test-wide transaction so that each thread commits on its own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never", "app.data.initialize=false"})
+@DisplayName("Grade Aggregate Concurrency Tests")
+class GradeAggregateConcurrencyTest {
+
+    private static final long STUDENT_ID = 9001L;
+    private static final long SUBJECT_ID = 9002L;
+
+    @Autowired
+    private GradeAggregateService gradeAggregateService;
+
+    @Autowired
+    private GradeAggregateRepository gradeAggregateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                gradeAggregateRepository.deleteByStudentId(STUDENT_ID));
+    }
+
+    @Test
+    @DisplayName("Should count both of two first grades recorded at the same time")
+    void shouldCountConcurrentFirstGrades() throws Exception {
+        // Both transactions are open before either records its grade, so neither sees the other's row
+        CyclicBarrier bothStarted = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() -> recordGrade(bothStarted, 70, false), executor);
+            CompletableFuture<Void> second = CompletableFuture.runAsync(() -> recordGrade(bothStarted, 90, true), executor);
+            CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<GradeAggregate> rows = gradeAggregateRepository.findAll().stream()
+                .filter(aggregate -> aggregate.getStudentId() == STUDENT_ID)
+                .toList();
+        assertThat(rows).hasSize(2);
+        assertThat(rows).allSatisfy(aggregate -> {
+            assertThat(aggregate.getGradeCount()).isEqualTo(2L);
+            assertThat(aggregate.getGradeSum()).isEqualTo(160L);
+            assertThat(aggregate.getMinGrade()).isEqualTo(70);
+            assertThat(aggregate.getMaxGrade()).isEqualTo(90);
+            assertThat(aggregate.getFinalCount()).isEqualTo(1L);
+            assertThat(aggregate.getFinalSum()).isEqualTo(90L);
+        });
+        assertThat(rows).extracting(GradeAggregate::getSubjectId)
+                .containsExactlyInAnyOrder(SUBJECT_ID, GradeAggregate.ALL_SUBJECTS);
+    }
+
+    private void recordGrade(CyclicBarrier bothStarted, int gradeValue, boolean isFinal) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                bothStarted.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            gradeAggregateService.recordGradeAdded(STUDENT_ID, SUBJECT_ID, gradeValue, isFinal);
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.kursova.bll.services;
+
+import com.kursova.bll.services.impl.GradeAggregateServiceImpl;
+import com.kursova.dal.entities.GradeAggregate;
+import com.kursova.dal.repositories.GradeAggregateRepository;
+import com.kursova.dal.repositories.GradeRepository;
+import com.kursova.dal.uow.UnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GradeAggregateService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Grade Aggregate Service Tests")
+class GradeAggregateServiceTest {
+
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    @Mock
+    private GradeAggregateRepository gradeAggregateRepository;
+
+    @Mock
+    private GradeRepository gradeRepository;
+
+    @InjectMocks
+    private GradeAggregateServiceImpl gradeAggregateService;
+
+    private GradeAggregate subjectAggregate;
+    private GradeAggregate studentAggregate;
+
+    @BeforeEach
+    void setUp() {
+        subjectAggregate = aggregate(10L, 20L, 2, 150, 60, 90, 1, 90);
+        studentAggregate = aggregate(10L, GradeAggregate.ALL_SUBJECTS, 3, 220, 60, 90, 1, 90);
+    }
+
+    private GradeAggregate aggregate(Long studentId, Long subjectId, long count, long sum,
+                                     int min, int max, long finalCount, long finalSum) {
+        GradeAggregate aggregate = new GradeAggregate(studentId, subjectId);
+        aggregate.setGradeCount(count);
+        aggregate.setGradeSum(sum);
+        aggregate.setMinGrade(min);
+        aggregate.setMaxGrade(max);
+        aggregate.setFinalCount(finalCount);
+        aggregate.setFinalSum(finalSum);
+        return aggregate;
+    }
+
+    @Test
+    @DisplayName("Should upsert the subject and overall rows of a final grade")
+    void recordGradeAdded_ShouldUpsertBothRows() {
+        // Given
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+
+        // When
+        gradeAggregateService.recordGradeAdded(10L, 20L, 75, true);
+
+        // Then
+        verify(gradeAggregateRepository).addGrade(10L, 20L, 75, 1, 75);
+        verify(gradeAggregateRepository).addGrade(10L, GradeAggregate.ALL_SUBJECTS, 75, 1, 75);
+        verify(gradeAggregateRepository, never()).findForUpdate(anyLong(), anyLong());
+        verify(gradeAggregateRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should leave final count and sum alone for a regular grade")
+    void recordGradeAdded_ShouldNotCountRegularGradeAsFinal() {
+        // Given
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+
+        // When
+        gradeAggregateService.recordGradeAdded(10L, 20L, 100, false);
+
+        // Then
+        verify(gradeAggregateRepository).addGrade(10L, 20L, 100, 0, 0);
+        verify(gradeAggregateRepository).addGrade(10L, GradeAggregate.ALL_SUBJECTS, 100, 0, 0);
+        verifyNoInteractions(gradeRepository);
+    }
+
+    @Test
+    @DisplayName("Should re-read range only when removed value was a boundary")
+    void recordGradeRemoved_ShouldRefreshRange_WhenBoundaryRemoved() {
+        // Given
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(gradeAggregateRepository.findForUpdate(10L, 20L)).thenReturn(Optional.of(subjectAggregate));
+        when(gradeAggregateRepository.findForUpdate(10L, GradeAggregate.ALL_SUBJECTS)).thenReturn(Optional.of(studentAggregate));
+        when(gradeRepository.findGradeRangeForStudentInSubject(10L, 20L))
+                .thenReturn(Collections.singletonList(new Object[]{60, 60}));
+        when(gradeRepository.findGradeRangeForStudent(10L))
+                .thenReturn(Collections.singletonList(new Object[]{60, 70}));
+
+        // When
+        gradeAggregateService.recordGradeRemoved(10L, 20L, 90, true);
+
+        // Then
+        assertThat(subjectAggregate.getGradeCount()).isEqualTo(1L);
+        assertThat(subjectAggregate.getMaxGrade()).isEqualTo(60);
+        assertThat(subjectAggregate.getFinalAverage()).isNull();
+        assertThat(studentAggregate.getMaxGrade()).isEqualTo(70);
+        assertThat(studentAggregate.getAverage()).isEqualTo(65.0);
+    }
+
+    @Test
+    @DisplayName("Should delete aggregate row when its last grade is removed")
+    void recordGradeRemoved_ShouldDeleteRow_WhenLastGradeRemoved() {
+        // Given
+        GradeAggregate single = aggregate(10L, 20L, 1, 75, 75, 75, 0, 0);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeAggregateRepository.findForUpdate(10L, 20L)).thenReturn(Optional.of(single));
+        when(gradeAggregateRepository.findForUpdate(10L, GradeAggregate.ALL_SUBJECTS)).thenReturn(Optional.empty());
+
+        // When
+        gradeAggregateService.recordGradeRemoved(10L, 20L, 75, false);
+
+        // Then
+        verify(gradeAggregateRepository).delete(single);
+        verify(gradeAggregateRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should rebuild all aggregates with set-based statements")
+    void rebuildAll_ShouldReplaceAllRows() {
+        // Given
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeAggregateRepository.insertSubjectAggregatesFromGrades()).thenReturn(5);
+        when(gradeAggregateRepository.insertStudentAggregatesFromGrades()).thenReturn(2);
+
+        // When
+        int rows = gradeAggregateService.rebuildAll();
+
+        // Then
+        assertThat(rows).isEqualTo(7);
+        verify(gradeAggregateRepository).deleteAllAggregates();
+    }
+
+    @Test
+    @DisplayName("Should recompute rows of the given students only")
+    void rebuildForStudents_ShouldReplaceStudentRows() {
+        // Given
+        Set<Long> studentIds = Set.of(1L, 2L);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+
+        // When
+        gradeAggregateService.rebuildForStudents(studentIds);
+
+        // Then
+        verify(gradeAggregateRepository).deleteByStudentIdIn(studentIds);
+        verify(gradeAggregateRepository).insertSubjectAggregatesForStudents(studentIds);
+        verify(gradeAggregateRepository).insertStudentAggregatesForStudents(studentIds);
+        verify(gradeAggregateRepository, never()).deleteAllAggregates();
+    }
+}
@@ -1,27 +1,39 @@
 package com.kursova.bll.services;
 
+import com.kursova.bll.dto.BulkGradeRequestDto;
+import com.kursova.bll.dto.BulkGradeResultDto;
 import com.kursova.bll.dto.GradeDto;
+import com.kursova.bll.dto.GradePageDto;
+import com.kursova.bll.dto.GradebookDto;
 import com.kursova.bll.mappers.GradeMapper;
 import com.kursova.bll.services.impl.GradeServiceImpl;
+import com.kursova.dal.entities.ArchivedGrade;
 import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.GradeAggregate;
+import com.kursova.dal.entities.GradeCategory;
 import com.kursova.dal.entities.GradeType;
 import com.kursova.dal.entities.Student;
 import com.kursova.dal.entities.Subject;
 import com.kursova.dal.entities.Teacher;
+import com.kursova.dal.repositories.GradeListRow;
 import com.kursova.dal.repositories.GradeRepository;
 import com.kursova.dal.uow.UnitOfWork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -53,13 +65,23 @@ class GradeServiceTest {
     @Mock
     private com.kursova.dal.repositories.ArchivedGradeRepository archivedGradeRepository;
 
+    @Mock
+    private com.kursova.dal.repositories.GradeAggregateRepository gradeAggregateRepository;
+
+    @Mock
+    private com.kursova.dal.repositories.StudentGroupRepository studentGroupRepository;
+
     @Mock
     private GradeMapper gradeMapper;
 
+    @Mock
+    private GradeAggregateService gradeAggregateService;
+
     @InjectMocks
     private GradeServiceImpl gradeService;
 
     private Grade testGrade;
+    private GradeListRow testGradeRow;
     private GradeDto testGradeDto;
     private Student testStudent;
     private Teacher testTeacher;
@@ -86,6 +108,10 @@ class GradeServiceTest {
         testGrade.setSubject(testSubject);
         testGrade.setGradeDate(LocalDateTime.now());
 
+        testGradeRow = new GradeListRow(1L, 85, GradeType.CONTROL_WORK, GradeCategory.CURRENT_CONTROL,
+                testGrade.getGradeDate(), null, false, null, null,
+                1L, null, null, null, 1L, null, 1L, null, null, null, null);
+
         testGradeDto = new GradeDto();
         testGradeDto.setId(1L);
         testGradeDto.setGradeValue(85);
@@ -131,11 +157,11 @@ class GradeServiceTest {
     @DisplayName("Should find all grades by student ID")
     void findByStudentId_ShouldReturnGrades_WhenStudentHasGrades() {
         // Arrange
-        List<Grade> grades = Collections.singletonList(testGrade);
+        List<GradeListRow> grades = Collections.singletonList(testGradeRow);
 
         when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
         when(gradeRepository.findByStudentIdOrderByGradeDateDesc(1L)).thenReturn(grades);
-        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+        when(gradeMapper.rowToDto(testGradeRow)).thenReturn(testGradeDto);
 
         // Act
         List<GradeDto> result = gradeService.findByStudentId(1L);
@@ -152,11 +178,11 @@ class GradeServiceTest {
     @DisplayName("Should find all grades by teacher ID")
     void findByTeacherId_ShouldReturnGrades_WhenTeacherHasGrades() {
         // Arrange
-        List<Grade> grades = Collections.singletonList(testGrade);
+        List<GradeListRow> grades = Collections.singletonList(testGradeRow);
 
         when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
         when(gradeRepository.findGradesByTeacherId(1L)).thenReturn(grades);
-        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+        when(gradeMapper.rowToDto(testGradeRow)).thenReturn(testGradeDto);
 
         // Act
         List<GradeDto> result = gradeService.findByTeacherId(1L);
@@ -195,6 +221,7 @@ class GradeServiceTest {
         verify(gradeRepository).save(any(Grade.class));
         verify(gradeMapper).toEntity(testGradeDto);
         verify(gradeMapper).toDto(testGrade);
+        verify(gradeAggregateService).recordGradeAdded(1L, 1L, 85, testGrade.getIsFinal());
     }
 
     @Test
@@ -239,6 +266,7 @@ class GradeServiceTest {
         verify(gradeRepository).findById(1L);
         verify(archivedGradeRepository).save(any());
         verify(gradeRepository).deleteById(1L);
+        verify(gradeAggregateService).recordGradeRemoved(1L, 1L, 85, false);
     }
 
     @Test
@@ -261,11 +289,11 @@ class GradeServiceTest {
     @DisplayName("Should find grades by student and subject")
     void findByStudentAndSubject_ShouldReturnGrades_WhenGradesExist() {
         // Arrange
-        List<Grade> grades = Collections.singletonList(testGrade);
+        List<GradeListRow> grades = Collections.singletonList(testGradeRow);
 
         when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
         when(gradeRepository.findByStudentIdAndSubjectIdOrderByGradeDateDesc(1L, 1L)).thenReturn(grades);
-        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+        when(gradeMapper.rowToDto(testGradeRow)).thenReturn(testGradeDto);
 
         // Act
         List<GradeDto> result = gradeService.findByStudentAndSubject(1L, 1L);
@@ -283,34 +311,39 @@ class GradeServiceTest {
     @DisplayName("Should calculate average grade for student in subject")
     void getAverageGradeForStudentInSubject_ShouldReturnAverage_WhenGradesExist() {
         // Arrange
-        Double expectedAverage = 85.5;
+        GradeAggregate aggregate = new GradeAggregate(1L, 1L);
+        aggregate.setGradeCount(2L);
+        aggregate.setGradeSum(171L);
 
-        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
-        when(gradeRepository.getAverageGradeForStudentInSubject(1L, 1L)).thenReturn(expectedAverage);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeAggregateRepository.findByStudentIdAndSubjectId(1L, 1L)).thenReturn(Optional.of(aggregate));
 
         // Act
         Double result = gradeService.getAverageGradeForStudentInSubject(1L, 1L);
 
         // Assert
-        assertThat(result).isEqualTo(expectedAverage);
-        verify(gradeRepository).getAverageGradeForStudentInSubject(1L, 1L);
+        assertThat(result).isEqualTo(85.5);
+        verify(gradeRepository, never()).getAverageGradeForStudentInSubject(anyLong(), anyLong());
     }
 
     @Test
     @DisplayName("Should calculate overall average grade for student")
     void getOverallAverageGradeForStudent_ShouldReturnAverage_WhenGradesExist() {
         // Arrange
-        Double expectedAverage = 82.7;
+        GradeAggregate aggregate = new GradeAggregate(1L, GradeAggregate.ALL_SUBJECTS);
+        aggregate.setGradeCount(5L);
+        aggregate.setGradeSum(400L);
+        aggregate.setFinalCount(2L);
+        aggregate.setFinalSum(165L);
 
-        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
-        when(gradeRepository.getOverallAverageGradeForStudent(1L)).thenReturn(expectedAverage);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeAggregateRepository.findByStudentIdAndSubjectId(1L, GradeAggregate.ALL_SUBJECTS)).thenReturn(Optional.of(aggregate));
 
         // Act
         Double result = gradeService.getOverallAverageGradeForStudent(1L);
 
         // Assert
-        assertThat(result).isEqualTo(expectedAverage);
-        verify(gradeRepository).getOverallAverageGradeForStudent(1L);
+        assertThat(result).isEqualTo(82.5);
     }
 
     @Test
@@ -319,11 +352,11 @@ class GradeServiceTest {
         // Arrange
         testGrade.setIsFinal(true);
         testGradeDto.setIsFinal(true);
-        List<Grade> finalGrades = Collections.singletonList(testGrade);
+        List<GradeListRow> finalGrades = Collections.singletonList(testGradeRow);
 
         when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
         when(gradeRepository.findByStudentIdAndIsFinalTrueOrderBySubjectSubjectNameAsc(1L)).thenReturn(finalGrades);
-        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+        when(gradeMapper.rowToDto(testGradeRow)).thenReturn(testGradeDto);
 
         // Act
         List<GradeDto> result = gradeService.findFinalGradesByStudent(1L);
@@ -364,4 +397,349 @@ class GradeServiceTest {
         assertThat(result).isFalse();
         verify(gradeRepository).existsById(999L);
     }
+
+    @Test
+    @DisplayName("Should return first page with next cursor when more grades exist")
+    void findPage_ShouldReturnNextCursor_WhenMoreGradesExist() {
+        // Arrange
+        Grade newer = new Grade();
+        newer.setId(3L);
+        newer.setGradeDate(LocalDateTime.of(2024, 5, 2, 10, 0, 0));
+        Grade older = new Grade();
+        older.setId(2L);
+        older.setGradeDate(LocalDateTime.of(2024, 5, 1, 9, 30, 15));
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(gradeRepository.findFirstPageWithRelations(any())).thenReturn(new ArrayList<>(List.of(newer, older, testGrade)));
+        when(gradeMapper.toDto(any(Grade.class))).thenReturn(testGradeDto);
+
+        // Act
+        GradePageDto result = gradeService.findPage(null, 2);
+
+        // Assert
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.isHasMore()).isTrue();
+        assertThat(result.getNextCursor()).isEqualTo("2024-05-01T09:30:15_2");
+    }
+
+    @Test
+    @DisplayName("Should seek after cursor and report last page")
+    void findPage_ShouldSeekAfterCursor_WhenCursorProvided() {
+        // Arrange
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(gradeRepository.findPageWithRelationsAfter(eq(LocalDateTime.of(2024, 5, 1, 9, 30, 15)), eq(2L), any()))
+                .thenReturn(List.of(testGrade));
+        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+
+        // Act
+        GradePageDto result = gradeService.findPage("2024-05-01T09:30:15_2", 2);
+
+        // Assert
+        assertThat(result.getItems()).containsExactly(testGradeDto);
+        assertThat(result.isHasMore()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void findPage_ShouldThrowException_WhenCursorInvalid() {
+        // Act & Assert
+        assertThatThrownBy(() -> gradeService.findPage("not-a-cursor_x", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("Should reject page limit out of range")
+    void findPage_ShouldThrowException_WhenLimitOutOfRange() {
+        // Act & Assert
+        assertThatThrownBy(() -> gradeService.findPage(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(unitOfWork);
+    }
+
+    @Test
+    @DisplayName("Should stream every scrolled grade as DTO")
+    void streamAll_ShouldPassMappedGradesToConsumer() {
+        // Arrange
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        doAnswer(invocation -> {
+            java.util.function.Consumer<Grade> consumer = invocation.getArgument(1);
+            consumer.accept(testGrade);
+            consumer.accept(testGrade);
+            return null;
+        }).when(gradeRepository).scrollAllWithRelations(anyInt(), any());
+        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+        List<GradeDto> received = new ArrayList<>();
+
+        // Act
+        gradeService.streamAll(received::add);
+
+        // Assert
+        assertThat(received).containsExactly(testGradeDto, testGradeDto);
+    }
+
+    @Test
+    @DisplayName("Should move grade contribution between aggregates when marked as final")
+    void markAsFinal_ShouldUpdateAggregates_WhenGradeWasNotFinal() {
+        // Arrange
+        testGrade.setIsFinal(false);
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(gradeRepository.findById(1L)).thenReturn(Optional.of(testGrade));
+        when(gradeRepository.save(testGrade)).thenReturn(testGrade);
+        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+
+        // Act
+        gradeService.markAsFinal(1L);
+
+        // Assert
+        verify(gradeAggregateService).recordGradeRemoved(1L, 1L, 85, false);
+        verify(gradeAggregateService).recordGradeAdded(1L, 1L, 85, true);
+    }
+
+    @Test
+    @DisplayName("Should shift aggregate contribution on validated update")
+    void updateGradeWithValidation_ShouldUpdateAggregates_WhenValueChanges() {
+        // Arrange
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(unitOfWork.getArchivedGradeRepository()).thenReturn(archivedGradeRepository);
+        when(gradeRepository.findById(1L)).thenReturn(Optional.of(testGrade));
+        when(gradeRepository.save(testGrade)).thenReturn(testGrade);
+        when(gradeMapper.toDto(testGrade)).thenReturn(testGradeDto);
+
+        // Act
+        gradeService.updateGradeWithValidation(1L, 70, "retake");
+
+        // Assert
+        verify(gradeAggregateService).recordGradeRemoved(1L, 1L, 85, false);
+        verify(gradeAggregateService).recordGradeAdded(1L, 1L, 70, false);
+    }
+
+    @Test
+    @DisplayName("Should create valid bulk grades and report rejected rows")
+    void createGradesBulk_ShouldReportPerRowResults() {
+        // Arrange
+        Student secondStudent = new Student();
+        secondStudent.setId(2L);
+        BulkGradeRequestDto request = new BulkGradeRequestDto();
+        request.setTeacherId(1L);
+        request.setSubjectId(1L);
+        request.setGradeType(GradeType.EXAM);
+        request.setGrades(List.of(
+                new BulkGradeRequestDto.Entry(1L, 90, null, null),          // already has an exam grade
+                new BulkGradeRequestDto.Entry(2L, 75, null, "ok"),
+                new BulkGradeRequestDto.Entry(2L, 80, null, null),          // duplicate within request
+                new BulkGradeRequestDto.Entry(3L, 70, null, null),          // unknown student
+                new BulkGradeRequestDto.Entry(2L, 150, GradeType.CREDIT, null)));
+
+        when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
+        when(unitOfWork.getSubjectRepository()).thenReturn(subjectRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(teacherRepository.findById(1L)).thenReturn(Optional.of(testTeacher));
+        when(subjectRepository.findById(1L)).thenReturn(Optional.of(testSubject));
+        when(studentRepository.findAllById(anyCollection())).thenReturn(List.of(testStudent, secondStudent));
+        List<Object[]> existing = new ArrayList<>();
+        existing.add(new Object[]{1L, GradeType.EXAM});
+        when(gradeRepository.findStudentGradeTypesInSubject(eq(1L), anyCollection())).thenReturn(existing);
+        when(gradeRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Grade> grades = invocation.getArgument(0);
+            grades.forEach(grade -> grade.setId(100L));
+            return grades;
+        });
+
+        // Act
+        BulkGradeResultDto result = gradeService.createGradesBulk(request);
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.getRows()).extracting(BulkGradeResultDto.Row::getStatus).containsExactly(
+                BulkGradeResultDto.Status.DUPLICATE,
+                BulkGradeResultDto.Status.CREATED,
+                BulkGradeResultDto.Status.DUPLICATE,
+                BulkGradeResultDto.Status.STUDENT_NOT_FOUND,
+                BulkGradeResultDto.Status.INVALID);
+        assertThat(result.getRows().get(1).getGradeId()).isEqualTo(100L);
+        verify(studentRepository, times(1)).findAllById(anyCollection());
+        verify(gradeRepository, times(1)).findStudentGradeTypesInSubject(eq(1L), anyCollection());
+        verify(gradeAggregateService).rebuildForStudents(Set.of(2L));
+    }
+
+    @Test
+    @DisplayName("Should reject empty bulk request")
+    void createGradesBulk_ShouldThrow_WhenNoGrades() {
+        // Arrange
+        BulkGradeRequestDto request = new BulkGradeRequestDto();
+        request.setTeacherId(1L);
+        request.setSubjectId(1L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> gradeService.createGradesBulk(request))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(unitOfWork);
+    }
+
+    @Test
+    @DisplayName("Should pivot gradebook cells into a student by grade type matrix")
+    void getGroupGradebook_ShouldBuildMatrix_WhenGroupHasGrades() {
+        // Arrange
+        List<Object[]> cells = List.of(
+                new Object[]{2L, "Anna", "Adams", GradeType.EXAM, 90},
+                new Object[]{2L, "Anna", "Adams", GradeType.LABORATORY_WORK, 75},
+                new Object[]{5L, "Boris", "Brown", null, null},
+                new Object[]{7L, "Clara", "Cole", GradeType.LABORATORY_WORK, 60});
+
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(gradeRepository.findGradebookCells(1L, 3L)).thenReturn(cells);
+
+        // Act
+        GradebookDto result = gradeService.getGroupGradebook(1L, 3L);
+
+        // Assert
+        assertThat(result.getStudentIds()).containsExactly(2L, 5L, 7L);
+        assertThat(result.getStudentNames()).containsExactly("Anna Adams", "Boris Brown", "Clara Cole");
+        assertThat(result.getGradeTypes()).containsExactly(GradeType.LABORATORY_WORK, GradeType.EXAM);
+        assertThat(result.getGrades()).isDeepEqualTo(new int[][]{
+                {75, 90},
+                {GradebookDto.NO_GRADE, GradebookDto.NO_GRADE},
+                {60, GradebookDto.NO_GRADE}});
+        verify(unitOfWork, never()).getStudentGroupRepository();
+    }
+
+    @Test
+    @DisplayName("Should throw exception when gradebook group not found")
+    void getGroupGradebook_ShouldThrowException_WhenGroupNotExists() {
+        // Arrange
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(gradeRepository.findGradebookCells(999L, 3L)).thenReturn(Collections.emptyList());
+        when(studentGroupRepository.existsById(999L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> gradeService.getGroupGradebook(999L, 3L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("StudentGroup not found with id: 999");
+    }
+
+    @Test
+    @DisplayName("Should create grade with a single insert when none of this type exists")
+    void createGradeWithValidation_ShouldInsertGrade_WhenNoGradeOfTypeExists() {
+        // Arrange
+        stubGradeReferences();
+        when(gradeRepository.insertIfAbsent(any(Grade.class))).thenAnswer(invocation -> {
+            invocation.<Grade>getArgument(0).setId(1L);
+            return true;
+        });
+        when(gradeRepository.findListRowById(1L)).thenReturn(Optional.of(testGradeRow));
+        when(gradeMapper.rowToDto(testGradeRow)).thenReturn(testGradeDto);
+
+        // Act
+        GradeDto result = gradeService.createGradeWithValidation(1L, 1L, 1L, 85, GradeType.CONTROL_WORK, null);
+
+        // Assert
+        assertThat(result).isEqualTo(testGradeDto);
+        verify(gradeRepository, never()).findByStudentIdAndSubjectIdAndGradeType(any(), any(), any());
+        verify(gradeAggregateService).recordGradeAdded(1L, 1L, 85, false);
+    }
+
+    @Test
+    @DisplayName("Should reject a second grade of the same type")
+    void createGradeWithValidation_ShouldThrow_WhenGradeOfTypeExists() {
+        // Arrange
+        stubGradeReferences();
+        when(gradeRepository.insertIfAbsent(any(Grade.class))).thenReturn(false);
+        when(studentRepository.existsById(1L)).thenReturn(true);
+        when(teacherRepository.existsById(1L)).thenReturn(true);
+        when(subjectRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> gradeService.createGradeWithValidation(1L, 1L, 1L, 85, GradeType.CONTROL_WORK, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Grade of this type already exists for this student and subject");
+        verifyNoInteractions(gradeAggregateService);
+    }
+
+    @Test
+    @DisplayName("Should report a missing teacher when the insert fails on a foreign key")
+    void createGradeWithValidation_ShouldThrow_WhenTeacherDoesNotExist() {
+        // Arrange
+        stubGradeReferences();
+        when(gradeRepository.insertIfAbsent(any(Grade.class))).thenThrow(new DataIntegrityViolationException("fk_grade_teacher"));
+        when(studentRepository.existsById(1L)).thenReturn(true);
+        when(teacherRepository.existsById(9L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> gradeService.createGradeWithValidation(1L, 9L, 1L, 85, GradeType.CONTROL_WORK, null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Teacher not found with id: 9");
+    }
+
+    @Test
+    @DisplayName("Should report a missing student when the insert skipped the grade and none exists")
+    void setGrade_ShouldThrow_WhenStudentDoesNotExist() {
+        // Arrange
+        stubGradeReferences();
+        when(gradeRepository.insertIfAbsent(any(Grade.class))).thenReturn(false);
+        when(gradeRepository.findForUpdate(1L, 1L, GradeType.CONTROL_WORK)).thenReturn(Optional.empty());
+        when(studentRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> gradeService.setGrade(1L, 1L, 1L, 85, GradeType.CONTROL_WORK, null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Student not found with id: 1");
+        verifyNoInteractions(gradeAggregateService);
+    }
+
+    @Test
+    @DisplayName("Should leave an existing grade with the same value unarchived")
+    void setGrade_ShouldNotArchive_WhenValueIsUnchanged() {
+        // Arrange
+        stubGradeReferences();
+        when(gradeRepository.insertIfAbsent(any(Grade.class))).thenReturn(false);
+        when(gradeRepository.findForUpdate(1L, 1L, GradeType.CONTROL_WORK)).thenReturn(Optional.of(testGrade));
+        when(gradeRepository.findListRowById(1L)).thenReturn(Optional.of(testGradeRow));
+        when(gradeMapper.rowToDto(testGradeRow)).thenReturn(testGradeDto);
+
+        // Act
+        GradeDto result = gradeService.setGrade(1L, 1L, 1L, 85, GradeType.CONTROL_WORK, "Resubmitted");
+
+        // Assert
+        assertThat(result).isEqualTo(testGradeDto);
+        assertThat(testGrade.getComments()).isEqualTo("Resubmitted");
+        verifyNoInteractions(archivedGradeRepository, gradeAggregateService);
+    }
+
+    @Test
+    @DisplayName("Should archive the previous value when the grade changes")
+    void setGrade_ShouldArchivePreviousValue_WhenValueChanges() {
+        // Arrange
+        stubGradeReferences();
+        when(unitOfWork.getArchivedGradeRepository()).thenReturn(archivedGradeRepository);
+        when(gradeRepository.insertIfAbsent(any(Grade.class))).thenReturn(false);
+        when(gradeRepository.findForUpdate(1L, 1L, GradeType.CONTROL_WORK)).thenReturn(Optional.of(testGrade));
+        when(gradeRepository.findListRowById(1L)).thenReturn(Optional.of(testGradeRow));
+        when(gradeMapper.rowToDto(testGradeRow)).thenReturn(testGradeDto);
+
+        // Act
+        gradeService.setGrade(1L, 1L, 1L, 92, GradeType.CONTROL_WORK, null);
+
+        // Assert
+        ArgumentCaptor<ArchivedGrade> archived = ArgumentCaptor.forClass(ArchivedGrade.class);
+        verify(archivedGradeRepository).save(archived.capture());
+        assertThat(archived.getValue().getGradeValue()).isEqualTo(85);
+        assertThat(archived.getValue().getOriginalGradeId()).isEqualTo(1L);
+        assertThat(testGrade.getGradeValue()).isEqualTo(92);
+        verify(gradeAggregateService).recordGradeRemoved(1L, 1L, 85, false);
+        verify(gradeAggregateService).recordGradeAdded(1L, 1L, 92, false);
+    }
+
+    private void stubGradeReferences() {
+        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
+        when(unitOfWork.getSubjectRepository()).thenReturn(subjectRepository);
+        when(studentRepository.getReferenceById(1L)).thenReturn(testStudent);
+        lenient().when(teacherRepository.getReferenceById(anyLong())).thenReturn(testTeacher);
+        when(subjectRepository.getReferenceById(1L)).thenReturn(testSubject);
+    }
 }
@@ -0,0 +1,87 @@
+package com.kursova.bll.services;
+
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.StudentGroup;
+import com.kursova.support.TestData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that moving students between groups leaves no stale group in the cache.
+ * Runs without a test-wide transaction, since cache evictions apply only after commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never", "app.data.initialize=false"})
+@DisplayName("Group Membership Cache Tests")
+class GroupMembershipCacheTest {
+
+    @Autowired
+    private StudentGroupService studentGroupService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long donorId;
+    private Long targetId;
+    private Long studentId;
+
+    @BeforeEach
+    void seed() {
+        inTransaction(em -> {
+            TestData data = new TestData(em);
+            StudentGroup donor = data.group("Donor", "CACHE-D");
+            StudentGroup target = data.group("Target", "CACHE-T");
+            Student student = data.student("cache.student", "Ivan", "Student", donor);
+            donorId = donor.getId();
+            targetId = target.getId();
+            studentId = student.getId();
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        inTransaction(em -> {
+            Student student = em.find(Student.class, studentId);
+            em.remove(student);
+            em.remove(student.getUser());
+            em.remove(em.find(StudentGroup.class, donorId));
+            em.remove(em.find(StudentGroup.class, targetId));
+        });
+    }
+
+    @Test
+    @DisplayName("Should refresh the group a replaced member was moved out of")
+    void shouldEvictDonorGroup() {
+        assertThat(studentGroupService.findById(donorId).getCurrentStudentCount()).isEqualTo(1);
+
+        studentGroupService.replaceMembers(targetId, Set.of(studentId));
+
+        assertThat(studentGroupService.findById(donorId).getCurrentStudentCount()).isZero();
+        assertThat(studentGroupService.findById(targetId).getCurrentStudentCount()).isEqualTo(1);
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                work.accept(EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)));
+    }
+}
@@ -0,0 +1,235 @@
+package com.kursova.bll.services;
+
+import com.kursova.bll.dto.GradeDto;
+import com.kursova.bll.dto.GradePageDto;
+import com.kursova.bll.dto.GradebookDto;
+import com.kursova.dal.entities.AssessmentType;
+import com.kursova.dal.entities.EducationLevel;
+import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.StudentGroup;
+import com.kursova.dal.entities.StudyForm;
+import com.kursova.dal.entities.Subject;
+import com.kursova.dal.entities.Teacher;
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.support.QueryBudget;
+import com.kursova.support.QueryCountingConfiguration;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets for the list reads behind the main pages. Each test seeds several groups,
+ * subjects, teachers and graded students, so a per-row lazy load shows up as a blown budget.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(QueryCountingConfiguration.class)
+@TestPropertySource(properties = {"spring.sql.init.mode=never", "app.data.initialize=false"})
+@DisplayName("Service Query Budget Tests")
+class ServiceQueryBudgetTest {
+
+    private static final int GROUPS = 3;
+    private static final int STUDENTS_PER_GROUP = 4;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private SubjectService subjectService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private StudentGroupService groupService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long groupId;
+    private Long subjectId;
+    private Long teacherId;
+
+    @BeforeEach
+    void seed() {
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = new User("budget.teacher" + i, "password", "budget.teacher" + i + "@univ.edu",
+                    "Teacher" + i, "Budget", UserRole.TEACHER);
+            entityManager.persist(user);
+            Teacher teacher = new Teacher(user, "Docent", "Lecturer");
+            entityManager.persist(teacher);
+            teachers.add(teacher);
+        }
+
+        List<StudentGroup> groups = new ArrayList<>();
+        for (int i = 0; i < GROUPS; i++) {
+            StudentGroup group = new StudentGroup("Budget group " + i, 1, StudyForm.FULL_TIME, 2024);
+            group.setGroupCode("BG" + i);
+            group.setEducationLevel(EducationLevel.BACHELOR);
+            entityManager.persist(group);
+            groups.add(group);
+        }
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Subject subject = new Subject("Budget subject " + i, "BS" + i, 5, AssessmentType.EXAM);
+            subject.getTeachers().add(teachers.get(i));
+            subject.getTeachers().add(teachers.get((i + 1) % teachers.size()));
+            groups.forEach(subject.getGroups()::add);
+            entityManager.persist(subject);
+            subjects.add(subject);
+        }
+
+        for (int g = 0; g < GROUPS; g++) {
+            for (int i = 0; i < STUDENTS_PER_GROUP; i++) {
+                User user = new User("budget.student" + g + i, "password", "budget.student" + g + i + "@univ.edu",
+                        "Student" + i, "Budget" + g, UserRole.STUDENT);
+                entityManager.persist(user);
+                Student student = new Student(user, "BUD" + g + i, 2024, StudyForm.FULL_TIME);
+                student.setGroup(groups.get(g));
+                entityManager.persist(student);
+                for (int s = 0; s < subjects.size(); s++) {
+                    entityManager.persist(new Grade(student, teachers.get(s), subjects.get(s), 70 + i + s, GradeType.EXAM));
+                }
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        groupId = groups.get(0).getId();
+        subjectId = subjects.get(0).getId();
+        teacherId = teachers.get(0).getId();
+    }
+
+    @Test
+    @DisplayName("Students of a group are listed in a fixed number of statements")
+    @QueryBudget(select = 3)
+    void studentsOfGroup() {
+        // students with user and group, grade aggregates of the whole list, student counts of the group
+        assertThat(studentService.findByGroupId(groupId)).hasSize(STUDENTS_PER_GROUP);
+    }
+
+    @Test
+    @DisplayName("Active students of several groups are listed in a fixed number of statements")
+    @QueryBudget(select = 3)
+    void activeStudents() {
+        assertThat(studentService.findActiveStudents()).hasSize(GROUPS * STUDENTS_PER_GROUP);
+    }
+
+    @Test
+    @DisplayName("Subjects are listed with their teachers and groups in a fixed number of statements")
+    @QueryBudget(select = 3)
+    void subjects() {
+        assertThat(subjectService.findAll()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Active teachers are listed with their subjects in one statement")
+    @QueryBudget(select = 1)
+    void activeTeachers() {
+        assertThat(teacherService.findActiveTeachers()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("All teachers are listed with their subjects in one statement")
+    @QueryBudget(select = 1)
+    void teachers() {
+        assertThat(teacherService.findAll()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Groups are listed with student counts in one statement")
+    @QueryBudget(select = 1)
+    void groups() {
+        assertThat(groupService.findAll()).hasSize(GROUPS);
+    }
+
+    @Test
+    @DisplayName("Groups with students are listed with counts in one statement")
+    @QueryBudget(select = 1)
+    void groupsWithStudents() {
+        assertThat(groupService.findGroupsWithStudents()).hasSize(GROUPS);
+    }
+
+    @Test
+    @DisplayName("Grades are listed with names in one statement")
+    @QueryBudget(select = 1)
+    void grades() {
+        assertThat(gradeService.findAll()).hasSize(GROUPS * STUDENTS_PER_GROUP * 3);
+    }
+
+    @Test
+    @DisplayName("A keyset page of grades and the page after it take one statement each")
+    @QueryBudget(select = 2)
+    void gradePages() {
+        GradePageDto first = gradeService.findPage(null, 10);
+        GradePageDto second = gradeService.findPage(first.getNextCursor(), 10);
+
+        assertThat(first.getItems()).hasSize(10);
+        assertThat(second.getItems()).hasSize(10)
+                .allSatisfy(grade -> assertThat(grade.getStudentName()).isNotBlank());
+    }
+
+    @Test
+    @DisplayName("All grades are streamed with names in one statement")
+    @QueryBudget(select = 1)
+    void gradeStream() {
+        List<GradeDto> streamed = new ArrayList<>();
+        gradeService.streamAll(streamed::add);
+
+        assertThat(streamed).hasSize(GROUPS * STUDENTS_PER_GROUP * 3)
+                .allSatisfy(grade -> assertThat(grade.getTeacherName()).isNotBlank());
+    }
+
+    @Test
+    @DisplayName("Grade lists are read as rows in one statement without loading entities")
+    @QueryBudget(select = 3)
+    void gradeLists() {
+        assertThat(gradeService.findBySubjectId(subjectId)).hasSize(GROUPS * STUDENTS_PER_GROUP)
+                .allSatisfy(grade -> assertThat(grade.getStudentName()).isNotBlank());
+        assertThat(gradeService.findByTeacherId(teacherId)).hasSize(2 * GROUPS * STUDENTS_PER_GROUP);
+        assertThat(gradeService.findByGradeType(GradeType.EXAM)).hasSize(GROUPS * STUDENTS_PER_GROUP * 3)
+                .allSatisfy(grade -> assertThat(grade.getGroupName()).startsWith("Budget group"));
+
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Group gradebook is built in one statement")
+    @QueryBudget(select = 1)
+    void gradebook() {
+        GradebookDto gradebook = gradeService.getGroupGradebook(groupId, subjectId);
+
+        assertThat(gradebook.getStudentIds()).hasSize(STUDENTS_PER_GROUP);
+        assertThat(gradebook.getGradeTypes()).containsExactly(GradeType.EXAM);
+        assertThat(gradebook.getGrades()).hasDimensions(STUDENTS_PER_GROUP, 1);
+        assertThat(gradebook.getGrades()[0][0]).isNotEqualTo(GradebookDto.NO_GRADE);
+    }
+}
@@ -1,8 +1,11 @@
 package com.kursova.bll.services;
 
+import com.kursova.bll.dto.AcademicYearRolloverDto;
+import com.kursova.bll.dto.GroupMembershipDeltaDto;
 import com.kursova.bll.dto.StudentGroupDto;
 import com.kursova.bll.mappers.StudentGroupMapper;
 import com.kursova.bll.services.impl.StudentGroupServiceImpl;
+import com.kursova.dal.entities.EducationLevel;
 import com.kursova.dal.entities.StudentGroup;
 import com.kursova.dal.repositories.StudentGroupRepository;
 import com.kursova.dal.repositories.StudentRepository;
@@ -15,10 +18,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -78,10 +84,10 @@ class StudentGroupServiceTest {
     @DisplayName("Should find all student groups")
     void shouldFindAll() {
         // Given
-        List<StudentGroup> groups = Arrays.asList(studentGroup);
+        List<Object[]> rows = Collections.singletonList(new Object[]{studentGroup, 2L});
         when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
-        when(studentGroupRepository.findAll()).thenReturn(groups);
-        when(groupMapper.toDto(studentGroup)).thenReturn(studentGroupDto);
+        when(studentGroupRepository.findAllWithStudentCounts()).thenReturn(rows);
+        when(groupMapper.toDtoWithCount(studentGroup, 2)).thenReturn(studentGroupDto);
 
         // When
         List<StudentGroupDto> result = studentGroupService.findAll();
@@ -89,8 +95,8 @@ class StudentGroupServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getGroupName()).isEqualTo("CS-101");
-        verify(unitOfWork.getStudentGroupRepository()).findAll();
-        verify(groupMapper).toDto(studentGroup);
+        verify(unitOfWork.getStudentGroupRepository()).findAllWithStudentCounts();
+        verify(groupMapper).toDtoWithCount(studentGroup, 2);
     }
 
     @Test
@@ -208,7 +214,9 @@ class StudentGroupServiceTest {
         when(studentGroupRepository.findById(1L)).thenReturn(Optional.of(studentGroup));
         when(studentGroupRepository.existsByGroupCode("CS102")).thenReturn(false);
         when(studentGroupRepository.save(studentGroup)).thenReturn(updatedGroup);
-        when(groupMapper.toDto(updatedGroup)).thenReturn(updatedGroupDto);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentRepository.countByGroupId(1L)).thenReturn(3L);
+        when(groupMapper.toDtoWithCount(updatedGroup, 3)).thenReturn(updatedGroupDto);
 
         // When
         StudentGroupDto result = studentGroupService.update(1L, updateDto);
@@ -220,6 +228,34 @@ class StudentGroupServiceTest {
         verify(studentGroupRepository).existsByGroupCode("CS102");
         verify(groupMapper).updateEntityFromDto(updateDto, studentGroup);
         verify(studentGroupRepository).save(studentGroup);
+        // Course year changed from 1 to 2, so the students follow in one statement
+        verify(studentRepository).syncWithGroup(eq(1L), isNull(), isNull(), eq(2), any(LocalDateTime.class));
+        verify(studentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not touch students when group course attributes are unchanged")
+    void shouldNotSyncStudentsWhenCourseAttributesUnchanged() {
+        // Given
+        StudentGroupDto updateDto = new StudentGroupDto();
+        updateDto.setGroupName("CS-101-Renamed");
+        updateDto.setGroupCode("CS101");
+        updateDto.setCourseYear(1);
+
+        StudentGroupDto updatedGroupDto = new StudentGroupDto();
+        updatedGroupDto.setGroupName("CS-101-Renamed");
+
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(studentGroupRepository.findById(1L)).thenReturn(Optional.of(studentGroup));
+        when(studentGroupRepository.save(studentGroup)).thenReturn(studentGroup);
+        when(groupMapper.toDto(studentGroup)).thenReturn(updatedGroupDto);
+
+        // When
+        StudentGroupDto result = studentGroupService.update(1L, updateDto);
+
+        // Then
+        assertThat(result.getGroupName()).isEqualTo("CS-101-Renamed");
+        verify(unitOfWork, never()).getStudentRepository();
     }
 
     @Test
@@ -491,12 +527,11 @@ class StudentGroupServiceTest {
     @DisplayName("Should find groups with students")
     void shouldFindGroupsWithStudents() {
         // Given
-        List<StudentGroup> groups = Arrays.asList(studentGroup);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{studentGroup, 25L});
+        studentGroupDto.setCurrentStudentCount(25);
         when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
-        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
-        when(studentGroupRepository.findGroupsWithStudents()).thenReturn(groups);
-        when(studentRepository.countByGroupId(1L)).thenReturn(25L);
-        when(groupMapper.toDto(studentGroup)).thenReturn(studentGroupDto);
+        when(studentGroupRepository.findGroupsWithActiveStudentCounts()).thenReturn(rows);
+        when(groupMapper.toDtoWithCount(studentGroup, 25)).thenReturn(studentGroupDto);
 
         // When
         List<StudentGroupDto> result = studentGroupService.findGroupsWithStudents();
@@ -504,20 +539,20 @@ class StudentGroupServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getCurrentStudentCount()).isEqualTo(25);
-        verify(unitOfWork.getStudentGroupRepository()).findGroupsWithStudents();
-        verify(unitOfWork.getStudentRepository()).countByGroupId(1L);
+        verify(studentGroupRepository).findGroupsWithActiveStudentCounts();
+        verify(studentRepository, never()).countByGroupId(anyLong());
+        verify(groupMapper, never()).toDto(any(StudentGroup.class));
     }
 
     @Test
     @DisplayName("Should find groups by teacher id")
     void shouldFindGroupsByTeacherId() {
         // Given
-        List<StudentGroup> groups = Arrays.asList(studentGroup);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{studentGroup, 25L});
+        studentGroupDto.setCurrentStudentCount(25);
         when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
-        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
-        when(studentGroupRepository.findGroupsByTeacherId(1L)).thenReturn(groups);
-        when(studentRepository.countByGroupId(1L)).thenReturn(25L);
-        when(groupMapper.toDto(studentGroup)).thenReturn(studentGroupDto);
+        when(studentGroupRepository.findGroupsByTeacherIdWithActiveStudentCounts(1L)).thenReturn(rows);
+        when(groupMapper.toDtoWithCount(studentGroup, 25)).thenReturn(studentGroupDto);
 
         // When
         List<StudentGroupDto> result = studentGroupService.findGroupsByTeacherId(1L);
@@ -525,8 +560,9 @@ class StudentGroupServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getCurrentStudentCount()).isEqualTo(25);
-        verify(unitOfWork.getStudentGroupRepository()).findGroupsByTeacherId(1L);
-        verify(unitOfWork.getStudentRepository()).countByGroupId(1L);
+        verify(studentGroupRepository).findGroupsByTeacherIdWithActiveStudentCounts(1L);
+        verify(studentRepository, never()).countByGroupId(anyLong());
+        verify(groupMapper, never()).toDto(any(StudentGroup.class));
     }
 
     @Test
@@ -534,14 +570,118 @@ class StudentGroupServiceTest {
     void shouldReturnEmptyListWhenNoGroupsFound() {
         // Given
         when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
-        when(studentGroupRepository.findAll()).thenReturn(Collections.emptyList());
+        when(studentGroupRepository.findAllWithStudentCounts()).thenReturn(Collections.emptyList());
 
         // When
         List<StudentGroupDto> result = studentGroupService.findAll();
 
         // Then
         assertThat(result).isEmpty();
-        verify(unitOfWork.getStudentGroupRepository()).findAll();
-        verify(groupMapper, never()).toDto(any());
+        verify(unitOfWork.getStudentGroupRepository()).findAllWithStudentCounts();
+        verify(groupMapper, never()).toDtoWithCount(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should replace group members by applying only the difference")
+    void shouldReplaceMembersWithDiff() {
+        // Given
+        Set<Long> requested = new LinkedHashSet<>(List.of(2L, 3L, 4L));
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentGroupRepository.findById(1L)).thenReturn(Optional.of(studentGroup));
+        when(studentRepository.findExistingIds(requested)).thenReturn(List.of(2L, 3L, 4L));
+        when(studentRepository.findIdsByGroupId(1L)).thenReturn(List.of(1L, 2L, 3L));
+
+        // When
+        GroupMembershipDeltaDto result = studentGroupService.replaceMembers(1L, requested);
+
+        // Then
+        assertThat(result.getAddedStudentIds()).containsExactly(4L);
+        assertThat(result.getRemovedStudentIds()).containsExactly(1L);
+        assertThat(result.getUnchangedCount()).isEqualTo(2);
+        verify(studentRepository).unassignFromGroup(eq(1L), eq(List.of(1L)), any(LocalDateTime.class));
+        verify(studentRepository).assignAllToGroup(eq(studentGroup), any(), any(), eq(1), eq(List.of(4L)),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should not update anything when membership is unchanged")
+    void shouldSkipUpdatesWhenMembershipUnchanged() {
+        // Given
+        Set<Long> requested = Set.of(1L, 2L);
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentGroupRepository.findById(1L)).thenReturn(Optional.of(studentGroup));
+        when(studentRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(studentRepository.findIdsByGroupId(1L)).thenReturn(List.of(1L, 2L));
+
+        // When
+        GroupMembershipDeltaDto result = studentGroupService.replaceMembers(1L, requested);
+
+        // Then
+        assertThat(result.getAddedStudentIds()).isEmpty();
+        assertThat(result.getRemovedStudentIds()).isEmpty();
+        assertThat(result.getUnchangedCount()).isEqualTo(2);
+        verify(studentRepository, never()).unassignFromGroup(anyLong(), anyCollection(), any());
+        verify(studentRepository, never()).assignAllToGroup(any(), any(), any(), any(), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject membership replacement with unknown student")
+    void shouldRejectReplaceMembersWithUnknownStudent() {
+        // Given
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentGroupRepository.findById(1L)).thenReturn(Optional.of(studentGroup));
+        when(studentRepository.findExistingIds(anyCollection())).thenReturn(List.of(2L));
+
+        // When & Then
+        assertThatThrownBy(() -> studentGroupService.replaceMembers(1L, new LinkedHashSet<>(List.of(2L, 99L))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Student not found with id: 99");
+        verify(studentRepository, never()).findIdsByGroupId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should promote groups below their last course together with their students")
+    void shouldRolloverAcademicYear() {
+        // Given
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentGroupRepository.findActiveCourseRows()).thenReturn(List.of(
+                new Object[]{1L, EducationLevel.BACHELOR, 1},
+                new Object[]{2L, EducationLevel.MASTER, 2},
+                new Object[]{3L, null, 3},
+                new Object[]{4L, EducationLevel.MASTER, 1}
+        ));
+        when(studentRepository.syncCourseYearWithGroups(eq(List.of(1L, 4L)), any(LocalDateTime.class))).thenReturn(25);
+
+        // When
+        AcademicYearRolloverDto result = studentGroupService.rolloverAcademicYear();
+
+        // Then
+        assertThat(result.getPromotedGroupIds()).containsExactly(1L, 4L);
+        assertThat(result.getSkippedGroupIds()).containsExactly(2L, 3L);
+        assertThat(result.getPromotedStudentCount()).isEqualTo(25);
+        verify(studentGroupRepository).promoteCourseYear(eq(List.of(1L, 4L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should not run updates when no group can be promoted")
+    void shouldSkipRolloverWhenAllGroupsInLastCourse() {
+        // Given
+        when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(studentGroupRepository.findActiveCourseRows()).thenReturn(List.<Object[]>of(
+                new Object[]{2L, EducationLevel.MASTER, 2}
+        ));
+
+        // When
+        AcademicYearRolloverDto result = studentGroupService.rolloverAcademicYear();
+
+        // Then
+        assertThat(result.getPromotedGroupIds()).isEmpty();
+        assertThat(result.getPromotedStudentCount()).isZero();
+        verify(studentGroupRepository, never()).promoteCourseYear(anyCollection(), any());
+        verify(unitOfWork, never()).getStudentRepository();
     }
 }
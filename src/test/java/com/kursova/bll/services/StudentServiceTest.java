@@ -1,8 +1,10 @@
 package com.kursova.bll.services;
 
 import com.kursova.bll.dto.StudentDto;
+import com.kursova.bll.dto.StudentSummaryDto;
 import com.kursova.bll.dto.UserDto;
 import com.kursova.bll.mappers.StudentMapper;
+import com.kursova.bll.search.UserSearchIndex;
 import com.kursova.bll.services.impl.StudentServiceImpl;
 import com.kursova.dal.entities.*;
 import com.kursova.dal.repositories.*;
@@ -14,11 +16,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -48,12 +52,18 @@ class StudentServiceTest {
     @Mock
     private GradeRepository gradeRepository;
 
+    @Mock
+    private GradeAggregateRepository gradeAggregateRepository;
+
     @Mock
     private StudentMapper studentMapper;
 
     @Mock
     private ArchiveService archiveService;
 
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private StudentServiceImpl studentService;
 
@@ -113,7 +123,7 @@ class StudentServiceTest {
         // Given
         List<Student> students = Arrays.asList(student);
         when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
-        when(studentRepository.findAll()).thenReturn(students);
+        when(studentRepository.findAllWithUserAndGroup()).thenReturn(students);
         when(studentMapper.toDto(student)).thenReturn(studentDto);
 
         // When
@@ -122,7 +132,37 @@ class StudentServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(studentDto);
-        verify(studentRepository).findAll();
+        verify(studentRepository).findAllWithUserAndGroup();
+    }
+
+    @Test
+    @DisplayName("Should load averages for a student list with one aggregate lookup")
+    void shouldLoadAveragesForStudentListInOneQuery() {
+        // Given
+        Student second = new Student();
+        second.setId(2L);
+        second.setCourseYear(1);
+        StudentDto firstDto = new StudentDto();
+        StudentDto secondDto = new StudentDto();
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(studentRepository.findByGroupIdAndIsActiveTrueOrderByUserLastNameAsc(1L)).thenReturn(Arrays.asList(student, second));
+        GradeAggregate aggregate = new GradeAggregate(1L, GradeAggregate.ALL_SUBJECTS);
+        aggregate.setGradeCount(3L);
+        aggregate.setGradeSum(260L);
+        when(gradeAggregateRepository.findByStudentIdInAndSubjectId(anyCollection(), eq(GradeAggregate.ALL_SUBJECTS)))
+                .thenReturn(Collections.singletonList(aggregate));
+        when(studentMapper.toDto(student)).thenReturn(firstDto);
+        when(studentMapper.toDto(second)).thenReturn(secondDto);
+
+        // When
+        List<StudentDto> result = studentService.findByGroup(1L);
+
+        // Then
+        assertThat(result).containsExactly(firstDto, secondDto);
+        assertThat(firstDto.getAverageGrade()).isEqualTo(86.67);
+        assertThat(secondDto.getAverageGrade()).isEqualTo(0.0);
+        verify(gradeAggregateRepository).findByStudentIdInAndSubjectId(anyCollection(), eq(GradeAggregate.ALL_SUBJECTS));
     }
 
     @Test
@@ -253,7 +293,7 @@ class StudentServiceTest {
         // Given
         List<Student> students = Arrays.asList(student);
         when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
-        when(studentRepository.findAll()).thenReturn(students);
+        when(studentRepository.findByIsActiveTrueOrderByUserLastNameAsc()).thenReturn(students);
         when(studentMapper.toDto(student)).thenReturn(studentDto);
 
         // When
@@ -262,6 +302,7 @@ class StudentServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(studentDto);
+        verify(studentRepository, never()).findAllWithUserAndGroup();
     }
 
     @Test
@@ -310,13 +351,64 @@ class StudentServiceTest {
         assertThat(result.get(0)).isEqualTo(studentDto);
     }
 
+    @Test
+    @DisplayName("Should search students through the index in ranked order when it is ready")
+    void shouldSearchStudentsThroughIndexWhenReady() {
+        // Given
+        User otherUser = new User();
+        otherUser.setId(2L);
+        otherUser.setFirstName("Johnny");
+        otherUser.setLastName("Smith");
+        Student otherStudent = new Student();
+        otherStudent.setId(2L);
+        otherStudent.setIsActive(true);
+        otherStudent.setUser(otherUser);
+        StudentDto otherDto = new StudentDto();
+        otherDto.setId(2L);
+
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search("John", UserRole.STUDENT, Integer.MAX_VALUE)).thenReturn(List.of(2L, 1L));
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentRepository.findByUserIdInAndIsActiveTrue(List.of(2L, 1L))).thenReturn(List.of(student, otherStudent));
+        when(studentMapper.toDto(student)).thenReturn(studentDto);
+        when(studentMapper.toDto(otherStudent)).thenReturn(otherDto);
+
+        // When
+        List<StudentDto> result = studentService.searchByName("John");
+
+        // Then
+        assertThat(result).containsExactly(otherDto, studentDto);
+        verify(studentRepository, never()).searchByNameOrEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep loading ranked matches until active students are found")
+    void shouldSkipInactiveIndexMatches() {
+        // Given
+        List<Long> userIds = LongStream.rangeClosed(100, 100 + UserSearchIndex.DEFAULT_LIMIT).boxed().toList();
+        List<Long> firstPage = userIds.subList(0, UserSearchIndex.DEFAULT_LIMIT);
+        List<Long> secondPage = userIds.subList(UserSearchIndex.DEFAULT_LIMIT, userIds.size());
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search("John", UserRole.STUDENT, Integer.MAX_VALUE)).thenReturn(userIds);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentRepository.findByUserIdInAndIsActiveTrue(firstPage)).thenReturn(List.of());
+        when(studentRepository.findByUserIdInAndIsActiveTrue(secondPage)).thenReturn(List.of(student));
+        when(studentMapper.toDto(student)).thenReturn(studentDto);
+
+        // When
+        List<StudentDto> result = studentService.searchByName("John");
+
+        // Then
+        assertThat(result).containsExactly(studentDto);
+    }
+
     @Test
     @DisplayName("Should return active students when search name is empty")
     void shouldReturnActiveStudentsWhenSearchNameIsEmpty() {
         // Given
         List<Student> students = Arrays.asList(student);
         when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
-        when(studentRepository.findAll()).thenReturn(students);
+        when(studentRepository.findByIsActiveTrueOrderByUserLastNameAsc()).thenReturn(students);
         when(studentMapper.toDto(student)).thenReturn(studentDto);
 
         // When
@@ -361,6 +453,35 @@ class StudentServiceTest {
         assertThat(result.get(0)).isEqualTo(studentDto);
     }
 
+    @Test
+    @DisplayName("Should search students without group with a limited compact projection")
+    void shouldSearchStudentsWithoutGroup() {
+        // Given
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        when(studentRepository.searchWithoutGroup("john", PageRequest.of(0, 10)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "John", "Doe", "john@test.com", "ST001"}));
+
+        // When
+        List<StudentSummaryDto> result = studentService.searchWithoutGroup("  John ", 10);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(1L);
+        assertThat(result.get(0).getFullName()).isEqualTo("John Doe");
+        assertThat(result.get(0).getEmail()).isEqualTo("john@test.com");
+        verifyNoInteractions(studentMapper);
+    }
+
+    @Test
+    @DisplayName("Should reject out of range search limit for students without group")
+    void shouldRejectInvalidSearchWithoutGroupLimit() {
+        assertThatThrownBy(() -> studentService.searchWithoutGroup("john", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> studentService.searchWithoutGroup("john", 101))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(studentRepository);
+    }
+
     @Test
     @DisplayName("Should find students by enrollment year")
     void shouldFindStudentsByEnrollmentYear() {
@@ -382,9 +503,11 @@ class StudentServiceTest {
     @DisplayName("Should calculate average grade")
     void shouldCalculateAverageGrade() {
         // Given
-        List<Grade> grades = Arrays.asList(grade);
-        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
-        when(gradeRepository.findByStudentIdOrderByGradeDateDesc(1L)).thenReturn(grades);
+        GradeAggregate aggregate = new GradeAggregate(1L, GradeAggregate.ALL_SUBJECTS);
+        aggregate.setGradeCount(1L);
+        aggregate.setGradeSum(85L);
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeAggregateRepository.findByStudentIdAndSubjectId(1L, GradeAggregate.ALL_SUBJECTS)).thenReturn(Optional.of(aggregate));
 
         // When
         Double result = studentService.calculateAverageGrade(1L);
@@ -397,8 +520,8 @@ class StudentServiceTest {
     @DisplayName("Should return 0.0 when no grades found")
     void shouldReturnZeroWhenNoGradesFound() {
         // Given
-        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
-        when(gradeRepository.findByStudentIdOrderByGradeDateDesc(1L)).thenReturn(Collections.emptyList());
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeAggregateRepository.findByStudentIdAndSubjectId(1L, GradeAggregate.ALL_SUBJECTS)).thenReturn(Optional.empty());
 
         // When
         Double result = studentService.calculateAverageGrade(1L);
@@ -411,8 +534,8 @@ class StudentServiceTest {
     @DisplayName("Should return 0.0 when exception occurs in average grade calculation")
     void shouldReturnZeroWhenExceptionOccursInAverageGradeCalculation() {
         // Given
-        when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
-        when(gradeRepository.findByStudentIdOrderByGradeDateDesc(1L)).thenThrow(new RuntimeException("Database error"));
+        when(unitOfWork.getGradeAggregateRepository()).thenReturn(gradeAggregateRepository);
+        when(gradeAggregateRepository.findByStudentIdAndSubjectId(1L, GradeAggregate.ALL_SUBJECTS)).thenThrow(new RuntimeException("Database error"));
 
         // When
         Double result = studentService.calculateAverageGrade(1L);
@@ -551,7 +674,7 @@ class StudentServiceTest {
         // Given
         List<Student> students = Arrays.asList(student);
         when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
-        when(studentRepository.findAll()).thenReturn(students);
+        when(studentRepository.searchAllByNameOrEmail("John")).thenReturn(students);
         when(studentMapper.toDto(student)).thenReturn(studentDto);
 
         // When
@@ -566,7 +689,7 @@ class StudentServiceTest {
     void shouldReturnEmptyListWhenExceptionOccursInSearchStudentsForGroup() {
         // Given
         when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
-        when(studentRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(studentRepository.searchAllByNameOrEmail("John")).thenThrow(new RuntimeException("Database error"));
 
         // When
         List<Object> result = studentService.searchStudentsForGroup("John", 1L);
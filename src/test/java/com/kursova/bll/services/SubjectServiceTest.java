@@ -1,7 +1,10 @@
 package com.kursova.bll.services;
 
+import com.kursova.bll.dto.GroupSummaryDto;
 import com.kursova.bll.dto.SubjectDto;
+import com.kursova.bll.dto.SubjectListItem;
 import com.kursova.bll.dto.TeacherDto;
+import com.kursova.bll.dto.TeacherSummaryDto;
 import com.kursova.bll.mappers.SubjectMapper;
 import com.kursova.bll.mappers.TeacherMapper;
 import com.kursova.bll.mappers.StudentGroupMapper;
@@ -10,6 +13,8 @@ import com.kursova.dal.entities.Subject;
 import com.kursova.dal.entities.Teacher;
 import com.kursova.dal.entities.StudentGroup;
 import com.kursova.dal.entities.AssessmentType;
+import com.kursova.dal.entities.EducationLevel;
+import com.kursova.dal.entities.StudyForm;
 import com.kursova.dal.repositories.SubjectRepository;
 import com.kursova.dal.repositories.TeacherRepository;
 import com.kursova.dal.repositories.StudentGroupRepository;
@@ -20,6 +25,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +35,8 @@ import java.util.HashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 /**
@@ -256,7 +265,7 @@ class SubjectServiceTest {
     void shouldFindActiveSubjects() {
         // Given
         List<Subject> subjects = Arrays.asList(subject);
-        when(subjectRepository.findActiveSubjectsWithGroups()).thenReturn(subjects);
+        when(subjectRepository.findByIsActiveTrueOrderBySubjectNameAsc()).thenReturn(subjects);
         when(subjectMapper.toDto(subject)).thenReturn(subjectDto);
 
         // When
@@ -267,6 +276,88 @@ class SubjectServiceTest {
         assertThat(result.get(0)).isEqualTo(subjectDto);
     }
 
+    @Test
+    @DisplayName("Should enrich subject lists with batched teacher and group count queries")
+    void shouldEnrichSubjectListsInBatch() {
+        // Given
+        Subject physics = new Subject("Physics", "PHYS101", 4, AssessmentType.EXAM);
+        physics.setId(2L);
+        physics.setTeachers(new HashSet<>());
+        SubjectDto physicsDto = new SubjectDto("Physics", "PHYS101", 4, AssessmentType.EXAM);
+        subject.getTeachers().add(teacher);
+
+        when(subjectRepository.findAll()).thenReturn(Arrays.asList(subject, physics));
+        when(subjectRepository.findWithTeachersByIdIn(List.of(1L, 2L))).thenReturn(Arrays.asList(subject, physics));
+        when(subjectRepository.countGroupsBySubjectIds(List.of(1L, 2L)))
+            .thenReturn(List.<Object[]>of(new Object[]{1L, 3L}));
+        when(subjectMapper.toDto(subject)).thenReturn(subjectDto);
+        when(subjectMapper.toDto(physics)).thenReturn(physicsDto);
+        when(teacherMapper.toDto(teacher)).thenReturn(new TeacherDto());
+
+        // When
+        List<SubjectDto> result = subjectService.findAll();
+
+        // Then
+        assertThat(result).containsExactly(subjectDto, physicsDto);
+        assertThat(subjectDto.getTeachers()).hasSize(1);
+        assertThat(subjectDto.getGroupCount()).isEqualTo(3);
+        assertThat(physicsDto.getTeachers()).isNull();
+        assertThat(physicsDto.getGroupCount()).isZero();
+        verify(subjectRepository, never()).countGroupsBySubjectId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should build subject list items from two projection queries")
+    void shouldFindActiveSubjectListItems() {
+        // Given
+        when(subjectRepository.findActiveForListing()).thenReturn(List.<Object[]>of(
+            new Object[]{1L, "Mathematics", "MATH101", 5, 1, AssessmentType.EXAM, true, 2L},
+            new Object[]{2L, "Physics", "PHYS101", 4, 2, AssessmentType.EXAM, true, 0L}));
+        when(subjectRepository.findTeacherNamesBySubjectIds(anyCollection())).thenReturn(List.<Object[]>of(
+            new Object[]{1L, 7L, "Ivan", "Petrenko"}));
+
+        // When
+        List<SubjectListItem> result = subjectService.findActiveSubjectListItems();
+
+        // Then
+        assertThat(result).extracting(SubjectListItem::getSubjectCode).containsExactly("MATH101", "PHYS101");
+        assertThat(result.get(0).getGroupCount()).isEqualTo(2);
+        assertThat(result.get(0).getTeachers()).extracting(SubjectListItem.TeacherRef::getFullName)
+            .containsExactly("Ivan Petrenko");
+        assertThat(result.get(1).getTeachers()).isEmpty();
+        verify(subjectRepository, never()).countGroupsBySubjectIds(anyCollection());
+        verifyNoInteractions(subjectMapper, teacherMapper);
+    }
+
+    @Test
+    @DisplayName("Should return empty list items without teacher query")
+    void shouldReturnEmptyListItems() {
+        // Given
+        when(subjectRepository.findActiveForListing()).thenReturn(List.of());
+
+        // When
+        List<SubjectListItem> result = subjectService.findActiveSubjectListItems();
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(subjectRepository, never()).findTeacherNamesBySubjectIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should count active subjects")
+    void shouldCountActiveSubjects() {
+        // Given
+        when(subjectRepository.countByIsActiveTrue()).thenReturn(7L);
+
+        // When
+        long result = subjectService.countActiveSubjects();
+
+        // Then
+        assertThat(result).isEqualTo(7L);
+        verify(subjectRepository).countByIsActiveTrue();
+        verifyNoInteractions(subjectMapper);
+    }
+
     @Test
     @DisplayName("Should search subjects by name")
     void shouldSearchSubjectsByName() {
@@ -518,19 +609,55 @@ class SubjectServiceTest {
     }
 
     @Test
-    @DisplayName("Should get available groups")
+    @DisplayName("Should get available groups from the anti-join query")
     void shouldGetAvailableGroups() {
         // Given
-        List<StudentGroup> allGroups = Arrays.asList(group);
-        when(subjectRepository.findById(1L)).thenReturn(Optional.of(subject));
-        when(groupRepository.findAll()).thenReturn(allGroups);
-        when(groupMapper.toDto(group)).thenReturn(new com.kursova.bll.dto.StudentGroupDto());
+        List<Object[]> rows = List.<Object[]>of(
+            new Object[]{2L, "CS-102", "CS102", EducationLevel.BACHELOR, 1, StudyForm.FULL_TIME});
+        when(subjectRepository.existsById(1L)).thenReturn(true);
+        when(groupRepository.findAvailableForSubject(1L, "cs", PageRequest.of(0, 20))).thenReturn(rows);
 
         // When
-        List<Object> result = subjectService.getAvailableGroups(1L);
+        List<GroupSummaryDto> result = subjectService.getAvailableGroups(1L, " CS ", 0, 20);
 
         // Then
         assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(2L);
+        assertThat(result.get(0).getGroupCode()).isEqualTo("CS102");
+        assertThat(result.get(0).getEducationLevel()).isEqualTo(EducationLevel.BACHELOR);
+        verify(groupRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should get all available groups when no page size is given")
+    void shouldGetAllAvailableGroupsWithoutPageSize() {
+        // Given
+        List<Object[]> rows = List.<Object[]>of(
+            new Object[]{2L, "CS-102", "CS102", EducationLevel.BACHELOR, 1, StudyForm.FULL_TIME},
+            new Object[]{3L, "CS-103", "CS103", EducationLevel.BACHELOR, 1, StudyForm.FULL_TIME});
+        when(subjectRepository.existsById(1L)).thenReturn(true);
+        when(groupRepository.findAvailableForSubject(1L, "", Pageable.unpaged())).thenReturn(rows);
+
+        // When
+        List<GroupSummaryDto> result = subjectService.getAvailableGroups(1L, null, 0, null);
+
+        // Then
+        assertThat(result).extracting(GroupSummaryDto::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should reject available groups request for unknown subject or bad page size")
+    void shouldRejectInvalidAvailableGroupsRequest() {
+        // Given
+        when(subjectRepository.existsById(99L)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> subjectService.getAvailableGroups(99L, null, 0, 20))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Subject not found with id: 99");
+        assertThatThrownBy(() -> subjectService.getAvailableGroups(1L, null, 0, 500))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Page size must be between 1 and 200");
     }
 
     @Test
@@ -582,19 +709,22 @@ class SubjectServiceTest {
     }
 
     @Test
-    @DisplayName("Should get available teachers")
+    @DisplayName("Should get available teachers from the anti-join query")
     void shouldGetAvailableTeachers() {
         // Given
-        List<Teacher> allTeachers = Arrays.asList(teacher);
-        when(subjectRepository.findById(1L)).thenReturn(Optional.of(subject));
-        when(teacherRepository.findAll()).thenReturn(allTeachers);
-        when(teacherMapper.toDto(teacher)).thenReturn(new TeacherDto());
+        List<Object[]> rows = List.<Object[]>of(
+            new Object[]{3L, "Olena", "Koval", "olena@univ.edu", "Docent", "Lecturer"});
+        when(subjectRepository.existsById(1L)).thenReturn(true);
+        when(teacherRepository.findAvailableForSubject(1L, "", PageRequest.of(1, 50))).thenReturn(rows);
 
         // When
-        List<Object> result = subjectService.getAvailableTeachers(1L);
+        List<TeacherSummaryDto> result = subjectService.getAvailableTeachers(1L, null, 1, 50);
 
         // Then
         assertThat(result).hasSize(1);
+        assertThat(result.get(0).getFullName()).isEqualTo("Olena Koval");
+        assertThat(result.get(0).getEmail()).isEqualTo("olena@univ.edu");
+        verify(teacherRepository, never()).findAll();
     }
 
     @Test
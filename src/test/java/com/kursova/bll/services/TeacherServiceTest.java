@@ -8,6 +8,7 @@ import com.kursova.bll.dto.UserDto;
 import com.kursova.bll.mappers.GradeMapper;
 import com.kursova.bll.mappers.SubjectMapper;
 import com.kursova.bll.mappers.TeacherMapper;
+import com.kursova.bll.search.UserSearchIndex;
 import com.kursova.bll.services.impl.TeacherServiceImpl;
 import com.kursova.dal.entities.*;
 import com.kursova.dal.repositories.*;
@@ -24,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -69,6 +71,9 @@ class TeacherServiceTest {
     @Mock
     private GradeMapper gradeMapper;
 
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private TeacherServiceImpl teacherService;
 
@@ -225,7 +230,7 @@ class TeacherServiceTest {
         // Given
         List<Teacher> teachers = Arrays.asList(teacher);
         when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
-        when(teacherRepository.findAll()).thenReturn(teachers);
+        when(teacherRepository.findByIsActiveTrueOrderByUserLastNameAsc()).thenReturn(teachers);
         when(teacherMapper.toDto(teacher)).thenReturn(teacherDto);
 
         // When
@@ -235,10 +240,26 @@ class TeacherServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getIsActive()).isTrue();
         verify(unitOfWork).getTeacherRepository();
-        verify(teacherRepository).findAll();
+        verify(teacherRepository).findByIsActiveTrueOrderByUserLastNameAsc();
         verify(teacherMapper).toDto(teacher);
     }
 
+    @Test
+    @DisplayName("Should count active teachers")
+    void shouldCountActiveTeachers() {
+        // Given
+        when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
+        when(teacherRepository.countByIsActiveTrue()).thenReturn(3L);
+
+        // When
+        long result = teacherService.countActiveTeachers();
+
+        // Then
+        assertThat(result).isEqualTo(3L);
+        verify(teacherRepository).countByIsActiveTrue();
+        verifyNoInteractions(teacherMapper);
+    }
+
     @Test
     @DisplayName("Should create teacher successfully")
     void shouldCreateTeacher() {
@@ -387,13 +408,60 @@ class TeacherServiceTest {
         verify(teacherMapper).toDto(teacher);
     }
 
+    @Test
+    @DisplayName("Should search active teachers through the index in ranked order")
+    void shouldSearchTeachersThroughIndexWhenReady() {
+        // Given
+        Teacher otherTeacher = new Teacher();
+        otherTeacher.setId(2L);
+        otherTeacher.setIsActive(true);
+        otherTeacher.setUser(new User());
+        otherTeacher.getUser().setId(2L);
+        TeacherDto otherDto = new TeacherDto();
+        otherDto.setId(2L);
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search("john", UserRole.TEACHER, Integer.MAX_VALUE)).thenReturn(List.of(2L, 1L));
+        when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
+        when(teacherRepository.findByUserIdInAndIsActiveTrue(List.of(2L, 1L))).thenReturn(List.of(teacher, otherTeacher));
+        when(teacherMapper.toDto(teacher)).thenReturn(teacherDto);
+        when(teacherMapper.toDto(otherTeacher)).thenReturn(otherDto);
+
+        // When
+        List<TeacherDto> result = teacherService.searchByName("john");
+
+        // Then
+        assertThat(result).containsExactly(otherDto, teacherDto);
+        verify(teacherRepository, never()).searchByNameOrEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep loading ranked matches until active teachers are found")
+    void shouldSkipInactiveIndexMatches() {
+        // Given
+        List<Long> userIds = LongStream.rangeClosed(100, 100 + UserSearchIndex.DEFAULT_LIMIT).boxed().toList();
+        List<Long> firstPage = userIds.subList(0, UserSearchIndex.DEFAULT_LIMIT);
+        List<Long> secondPage = userIds.subList(UserSearchIndex.DEFAULT_LIMIT, userIds.size());
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search("john", UserRole.TEACHER, Integer.MAX_VALUE)).thenReturn(userIds);
+        when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
+        when(teacherRepository.findByUserIdInAndIsActiveTrue(firstPage)).thenReturn(List.of());
+        when(teacherRepository.findByUserIdInAndIsActiveTrue(secondPage)).thenReturn(List.of(teacher));
+        when(teacherMapper.toDto(teacher)).thenReturn(teacherDto);
+
+        // When
+        List<TeacherDto> result = teacherService.searchByName("john");
+
+        // Then
+        assertThat(result).containsExactly(teacherDto);
+    }
+
     @Test
     @DisplayName("Should return all active teachers when search name is null")
     void shouldReturnAllActiveTeachersWhenSearchNameIsNull() {
         // Given
         List<Teacher> teachers = Arrays.asList(teacher);
         when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
-        when(teacherRepository.findAll()).thenReturn(teachers);
+        when(teacherRepository.findByIsActiveTrueOrderByUserLastNameAsc()).thenReturn(teachers);
         when(teacherMapper.toDto(teacher)).thenReturn(teacherDto);
 
         // When
@@ -402,7 +470,7 @@ class TeacherServiceTest {
         // Then
         assertThat(result).hasSize(1);
         verify(unitOfWork).getTeacherRepository();
-        verify(teacherRepository).findAll();
+        verify(teacherRepository).findByIsActiveTrueOrderByUserLastNameAsc();
         verify(teacherMapper).toDto(teacher);
     }
 
@@ -412,7 +480,7 @@ class TeacherServiceTest {
         // Given
         List<Teacher> teachers = Arrays.asList(teacher);
         when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
-        when(teacherRepository.findAll()).thenReturn(teachers);
+        when(teacherRepository.findByIsActiveTrueOrderByUserLastNameAsc()).thenReturn(teachers);
         when(teacherMapper.toDto(teacher)).thenReturn(teacherDto);
 
         // When
@@ -421,7 +489,7 @@ class TeacherServiceTest {
         // Then
         assertThat(result).hasSize(1);
         verify(unitOfWork).getTeacherRepository();
-        verify(teacherRepository).findAll();
+        verify(teacherRepository).findByIsActiveTrueOrderByUserLastNameAsc();
         verify(teacherMapper).toDto(teacher);
     }
 
@@ -599,13 +667,14 @@ class TeacherServiceTest {
     @DisplayName("Should find grades by teacher ID")
     void shouldFindGradesByTeacherId() {
         // Given
-        List<Grade> grades = Arrays.asList(grade);
+        List<GradeListRow> grades = Arrays.asList(new GradeListRow(1L, 85, null, null, grade.getGradeDate(),
+                null, false, null, null, null, null, null, null, 1L, null, null, null, null, null, null));
 
         when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
         when(unitOfWork.getGradeRepository()).thenReturn(gradeRepository);
         when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
         when(gradeRepository.findByTeacherIdOrderByGradeDateDesc(1L)).thenReturn(grades);
-        when(gradeMapper.toDtoList(grades)).thenReturn(Arrays.asList(gradeDto));
+        when(gradeMapper.rowsToDtoList(grades)).thenReturn(Arrays.asList(gradeDto));
 
         // When
         List<GradeDto> result = teacherService.findGradesByTeacherId(1L);
@@ -617,7 +686,7 @@ class TeacherServiceTest {
         verify(unitOfWork).getGradeRepository();
         verify(teacherRepository).findById(1L);
         verify(gradeRepository).findByTeacherIdOrderByGradeDateDesc(1L);
-        verify(gradeMapper).toDtoList(grades);
+        verify(gradeMapper).rowsToDtoList(grades);
     }
 
     @Test
@@ -677,7 +746,7 @@ class TeacherServiceTest {
         // Given
         List<Teacher> teachers = Arrays.asList(teacher);
         when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
-        when(teacherRepository.findAll()).thenReturn(teachers);
+        when(teacherRepository.findByAcademicTitleContainingIgnoreCaseAndIsActiveTrue("Professor")).thenReturn(teachers);
 
         // When
         List<TeacherDto> result = teacherService.findByAcademicTitle("Professor");
@@ -685,7 +754,8 @@ class TeacherServiceTest {
         // Then
         assertThat(result).hasSize(1);
         verify(unitOfWork).getTeacherRepository();
-        verify(teacherRepository).findAll();
+        verify(teacherRepository).findByAcademicTitleContainingIgnoreCaseAndIsActiveTrue("Professor");
+        verify(teacherRepository, never()).findAll();
     }
 
     @Test
@@ -694,7 +764,7 @@ class TeacherServiceTest {
         // Given
         List<Teacher> teachers = Arrays.asList(teacher);
         when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
-        when(teacherRepository.findAll()).thenReturn(teachers);
+        when(teacherRepository.findByDepartmentPositionContainingIgnoreCaseAndIsActiveTrue("Head of Department")).thenReturn(teachers);
 
         // When
         List<TeacherDto> result = teacherService.findByDepartmentPosition("Head of Department");
@@ -702,7 +772,8 @@ class TeacherServiceTest {
         // Then
         assertThat(result).hasSize(1);
         verify(unitOfWork).getTeacherRepository();
-        verify(teacherRepository).findAll();
+        verify(teacherRepository).findByDepartmentPositionContainingIgnoreCaseAndIsActiveTrue("Head of Department");
+        verify(teacherRepository, never()).findAll();
     }
 
     @Test
@@ -711,7 +782,7 @@ class TeacherServiceTest {
         // Given
         List<Teacher> teachers = Arrays.asList(teacher);
         when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
-        when(teacherRepository.findAll()).thenReturn(teachers);
+        when(teacherRepository.findBySubjectId(1L)).thenReturn(teachers);
 
         // When
         List<TeacherDto> result = teacherService.findBySubjectId(1L);
@@ -719,6 +790,22 @@ class TeacherServiceTest {
         // Then
         assertThat(result).hasSize(1);
         verify(unitOfWork).getTeacherRepository();
-        verify(teacherRepository).findAll();
+        verify(teacherRepository).findBySubjectId(1L);
+        verify(teacherRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should return active teachers when academic title is blank")
+    void shouldReturnActiveTeachersForBlankAcademicTitle() {
+        // Given
+        when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
+        when(teacherRepository.findByIsActiveTrueOrderByUserLastNameAsc()).thenReturn(Arrays.asList(teacher));
+
+        // When
+        List<TeacherDto> result = teacherService.findByAcademicTitle("  ");
+
+        // Then
+        assertThat(result).hasSize(1);
+        verify(teacherRepository, never()).findByAcademicTitleContainingIgnoreCaseAndIsActiveTrue(anyString());
     }
 }
@@ -0,0 +1,192 @@
+package com.kursova.bll.services;
+
+import com.kursova.bll.dto.UserImportResultDto;
+import com.kursova.bll.services.impl.UserImportServiceImpl;
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.StudentGroup;
+import com.kursova.dal.entities.StudyForm;
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.dal.repositories.StudentGroupRepository;
+import com.kursova.dal.repositories.StudentRepository;
+import com.kursova.dal.repositories.TeacherRepository;
+import com.kursova.dal.repositories.UserRepository;
+import com.kursova.dal.uow.UnitOfWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserImportService
+ * Tests follow the Triple A pattern (Arrange-Act-Assert)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Import Service Tests")
+class UserImportServiceTest {
+
+    private static final String HEADER = "username,email,first_name,last_name,password,role,student_number,group_code\n";
+
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private StudentGroupRepository studentGroupRepository;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private ExecutorService executor;
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        userImportService = new UserImportServiceImpl(unitOfWork, passwordEncoder, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should create valid lines and report rejected ones with their line numbers")
+    @SuppressWarnings("unchecked")
+    void importCsv_ShouldReportEveryLine_WhenFileHasMixedLines() throws IOException {
+        // Arrange
+        StudentGroup group = new StudentGroup("Group", 2, StudyForm.PART_TIME, 2023);
+        group.setGroupCode("G-1");
+        stubRepositories();
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("Taken.User"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(studentRepository.findExistingStudentNumbers(anyCollection())).thenReturn(List.of());
+        when(studentGroupRepository.findByGroupCodeIn(anyCollection())).thenReturn(List.of(group));
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userRepository.saveAll(any())).thenAnswer(invocation -> {
+            long id = 100;
+            for (User user : (List<User>) invocation.getArgument(0)) {
+                user.setId(id++);
+            }
+            return invocation.getArgument(0);
+        });
+        String csv = HEADER
+                + "new.student,new.student@univ.edu,Ivan,Petrenko,secret1,,ST-100,G-1\n"
+                + "\n"
+                + "taken.user,taken@univ.edu,Petro,Koval,secret2,STUDENT,ST-101,\n"
+                + "new.teacher,teacher@univ.edu,\"Olena, PhD\",Shevchenko,secret3,teacher,,\n"
+                + "bad,bad-email,A,B,secret4,,ST-102,\n"
+                + "NEW.STUDENT,other@univ.edu,Ivan,Copy,secret5,,ST-103,\n"
+                + "lost.student,lost@univ.edu,Ira,Lost,secret6,,ST-104,NO-GROUP\n"
+                + "\"unclosed,x@univ.edu,A,B,secret7,,ST-105,\n";
+
+        // Act
+        UserImportResultDto result = userImportService.importCsv(stream(csv));
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(5);
+        assertThat(result.getRows()).extracting(UserImportResultDto.Row::getLine).containsExactly(2, 4, 5, 6, 7, 8, 9);
+        assertThat(result.getRows()).extracting(UserImportResultDto.Row::getStatus).containsExactly(
+                UserImportResultDto.Status.CREATED, UserImportResultDto.Status.DUPLICATE,
+                UserImportResultDto.Status.CREATED, UserImportResultDto.Status.INVALID,
+                UserImportResultDto.Status.DUPLICATE, UserImportResultDto.Status.GROUP_NOT_FOUND,
+                UserImportResultDto.Status.INVALID);
+        assertThat(result.getRows().get(0).getUserId()).isEqualTo(100L);
+        assertThat(result.getRows().get(2).getUserId()).isEqualTo(101L);
+
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAll(users.capture());
+        assertThat(users.getValue()).extracting(User::getPassword).containsExactly("hash:secret1", "hash:secret3");
+        assertThat(users.getValue()).extracting(User::getRole).containsExactly(UserRole.STUDENT, UserRole.TEACHER);
+        assertThat(users.getValue().get(1).getFirstName()).isEqualTo("Olena, PhD");
+
+        ArgumentCaptor<List<Student>> students = ArgumentCaptor.forClass(List.class);
+        verify(studentRepository).saveAll(students.capture());
+        assertThat(students.getValue()).singleElement().satisfies(student -> {
+            assertThat(student.getGroup()).isSameAs(group);
+            assertThat(student.getStudyForm()).isEqualTo(StudyForm.PART_TIME);
+            assertThat(student.getCourseYear()).isEqualTo(2);
+        });
+        verify(teacherRepository).saveAll(argThat(teachers -> teachers.iterator().hasNext()));
+        verify(unitOfWork).flushAndClear();
+    }
+
+    @Test
+    @DisplayName("Should look up existing keys once per chunk instead of once per line")
+    void importCsv_ShouldBatchLookups_WhenFileSpansSeveralChunks() throws IOException {
+        // Arrange
+        stubRepositories();
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 501; i++) {
+            csv.append("user").append(i).append(",user").append(i).append("@univ.edu,First,Last,secret,,N")
+                    .append(i).append(",\n");
+        }
+
+        // Act
+        UserImportResultDto result = userImportService.importCsv(stream(csv.toString()));
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(501);
+        verify(userRepository, times(2)).findExistingUsernames(anyCollection());
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+        verify(studentRepository, times(2)).findExistingStudentNumbers(anyCollection());
+        verify(studentGroupRepository, never()).findByGroupCodeIn(anyCollection());
+        verify(unitOfWork, times(2)).flushAndClear();
+        verify(passwordEncoder, times(501)).encode("secret");
+    }
+
+    @Test
+    @DisplayName("Should reject a file whose header lacks required columns")
+    void importCsv_ShouldThrowException_WhenHeaderIsIncomplete() {
+        // Arrange
+        String csv = "\uFEFFUsername,Email,First_Name\nuser,user@univ.edu,First\n";
+
+        // Act & Assert
+        assertThatThrownBy(() -> userImportService.importCsv(stream(csv)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV header is missing columns: last_name, password");
+        verifyNoInteractions(unitOfWork);
+    }
+
+    private void stubRepositories() {
+        when(unitOfWork.getUserRepository()).thenReturn(userRepository);
+        when(unitOfWork.getStudentRepository()).thenReturn(studentRepository);
+        lenient().when(unitOfWork.getStudentGroupRepository()).thenReturn(studentGroupRepository);
+        when(unitOfWork.getTeacherRepository()).thenReturn(teacherRepository);
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
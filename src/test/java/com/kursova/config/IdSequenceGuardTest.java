@@ -0,0 +1,57 @@
+package com.kursova.config;
+
+import com.kursova.support.JpaRepositoryTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@JpaRepositoryTest
+@Import(IdSequenceGuard.class)
+@DisplayName("Id Sequence Guard Tests")
+class IdSequenceGuardTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private IdSequenceGuard idSequenceGuard;
+
+    @Test
+    @DisplayName("Should align the sequences while the session factory is built, before it serves any request")
+    void shouldObserveSessionFactoryCreation() {
+        // Given
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        // When & Then
+        assertThat(Arrays.asList(sessionFactory.getSessionFactoryOptions().getSessionFactoryObservers()))
+                .contains(idSequenceGuard);
+    }
+
+    @Test
+    @DisplayName("Should move every sequence table past the ids of its table")
+    void shouldAlignEverySequence() {
+        // Given
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        IdSequenceGuard guard = new IdSequenceGuard(jdbcTemplate);
+
+        // When
+        guard.sessionFactoryCreated(null);
+
+        // Then
+        verify(jdbcTemplate).update(contains("UPDATE grades_seq"), anyInt(), anyInt());
+        verify(jdbcTemplate).update(contains("UPDATE users_seq"), anyInt(), anyInt());
+        verify(jdbcTemplate).update(contains("UPDATE students_seq"), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,166 @@
+package com.kursova.config;
+
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.support.JpaRepositoryTest;
+import com.kursova.support.TestData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks which reference data caches a committed user change clears.
+ * Every step runs in its own transaction, like separate requests do.
+ */
+@JpaRepositoryTest
+@Import({CacheConfig.class, ReferenceCacheSync.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Reference Cache Sync Tests")
+class ReferenceCacheSyncTest {
+
+    private static final List<String> TEACHER_CACHES = List.of(CacheConfig.TEACHERS, CacheConfig.TEACHER_LISTS,
+            CacheConfig.SUBJECTS, CacheConfig.SUBJECT_LISTS);
+    private static final List<String> GROUP_CACHES = List.of(CacheConfig.GROUPS, CacheConfig.GROUP_LISTS);
+
+    @Autowired
+    private CaffeineCacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void fillCaches() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            cacheManager.getCache(cacheName).put("all", List.of());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        inTransaction(em -> userIds.forEach(id -> {
+            User user = em.find(User.class, id);
+            if (user != null) {
+                em.remove(user);
+            }
+        }));
+    }
+
+    @Test
+    @DisplayName("Should clear the teacher and subject caches when a teacher is renamed")
+    void shouldClearTeacherCachesOnTeacherChange() {
+        Long teacherId = createUser("sync.teacher", UserRole.TEACHER);
+        fillCaches();
+
+        inTransaction(em -> em.find(User.class, teacherId).setLastName("Renamed"));
+
+        assertThat(cachedNames()).containsExactlyInAnyOrderElementsOf(GROUP_CACHES);
+    }
+
+    @Test
+    @DisplayName("Should keep every cache when only the password changes")
+    void shouldKeepCachesOnPasswordChange() {
+        Long teacherId = createUser("sync.teacher", UserRole.TEACHER);
+        fillCaches();
+
+        inTransaction(em -> em.find(User.class, teacherId).setPassword("changed"));
+
+        assertThat(cachedNames()).containsExactlyInAnyOrderElementsOf(cacheManager.getCacheNames());
+    }
+
+    @Test
+    @DisplayName("Should keep every cache when a student is renamed")
+    void shouldKeepCachesOnStudentChange() {
+        Long studentId = createUser("sync.student", UserRole.STUDENT);
+        fillCaches();
+
+        inTransaction(em -> em.find(User.class, studentId).setLastName("Renamed"));
+
+        assertThat(cachedNames()).containsExactlyInAnyOrderElementsOf(cacheManager.getCacheNames());
+    }
+
+    @Test
+    @DisplayName("Should clear only the group caches when a student is created")
+    void shouldClearGroupCachesOnNewStudent() {
+        createUser("sync.student", UserRole.STUDENT);
+
+        assertThat(cachedNames()).containsExactlyInAnyOrderElementsOf(TEACHER_CACHES);
+    }
+
+    @Test
+    @DisplayName("Should clear the caches of both roles when the role changes")
+    void shouldClearBothRolesOnRoleChange() {
+        Long userId = createUser("sync.student", UserRole.STUDENT);
+        fillCaches();
+
+        inTransaction(em -> em.find(User.class, userId).setRole(UserRole.TEACHER));
+
+        assertThat(cachedNames()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep every cache when the change rolls back")
+    void shouldKeepCachesOnRollback() {
+        Long teacherId = createUser("sync.teacher", UserRole.TEACHER);
+        fillCaches();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            em.find(User.class, teacherId).setIsActive(false);
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(cachedNames()).containsExactlyInAnyOrderElementsOf(cacheManager.getCacheNames());
+    }
+
+    @Test
+    @DisplayName("Should clear the teacher and subject caches when a teacher is deleted")
+    void shouldClearTeacherCachesOnDelete() {
+        Long teacherId = createUser("sync.teacher", UserRole.TEACHER);
+        fillCaches();
+
+        inTransaction(em -> em.remove(em.find(User.class, teacherId)));
+
+        assertThat(cachedNames()).containsExactlyInAnyOrderElementsOf(GROUP_CACHES);
+    }
+
+    private Long createUser(String username, UserRole role) {
+        List<Long> created = new ArrayList<>();
+        inTransaction(em -> created.add(new TestData(em).user(username, "Sync", "User", role).getId()));
+        userIds.add(created.get(0));
+        return created.get(0);
+    }
+
+    private List<String> cachedNames() {
+        return cacheManager.getCacheNames().stream()
+                .filter(cacheName -> cacheManager.getCache(cacheName).get("all") != null)
+                .toList();
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                work.accept(EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)));
+    }
+}
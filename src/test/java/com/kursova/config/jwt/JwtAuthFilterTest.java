@@ -1,6 +1,8 @@
 package com.kursova.config.jwt;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import io.jsonwebtoken.Claims;
@@ -47,11 +49,14 @@ class JwtAuthFilterTest {
     @Mock
     private DbUserDetailsService userDetailsService;
 
+    private JwtPrincipalCache principalCache;
+
     private JwtAuthFilter jwtAuthFilter;
 
     @BeforeEach
     void setUp() {
-        jwtAuthFilter = new JwtAuthFilter(jwtUtils, userDetailsService);
+        principalCache = new JwtPrincipalCache(100, 60);
+        jwtAuthFilter = new JwtAuthFilter(jwtUtils, userDetailsService, principalCache);
         SecurityContextHolder.setContext(securityContext);
     }
 
@@ -67,7 +72,7 @@ class JwtAuthFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils, never()).validateToken(anyString());
+        verify(jwtUtils, never()).tryParseToken(anyString());
         verify(securityContext, never()).setAuthentication(any(Authentication.class));
     }
 
@@ -82,7 +87,7 @@ class JwtAuthFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils, never()).validateToken(anyString());
+        verify(jwtUtils, never()).tryParseToken(anyString());
         verify(securityContext, never()).setAuthentication(any(Authentication.class));
     }
 
@@ -92,15 +97,15 @@ class JwtAuthFilterTest {
         // Given
         String invalidToken = "invalid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + invalidToken);
-        when(jwtUtils.validateToken(invalidToken)).thenReturn(false);
+        when(jwtUtils.tryParseToken(invalidToken)).thenReturn(Optional.empty());
 
         // When
         jwtAuthFilter.doFilter(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateToken(invalidToken);
-        verify(jwtUtils, never()).parseToken(anyString());
+        verify(jwtUtils).tryParseToken(invalidToken);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
         verify(securityContext, never()).setAuthentication(any(Authentication.class));
     }
 
@@ -115,10 +120,10 @@ class JwtAuthFilterTest {
         Claims claims = mock(Claims.class);
         UserDetails userDetails = mock(UserDetails.class);
         when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(jwtUtils.validateToken(validToken)).thenReturn(true);
-        when(jwtUtils.parseToken(validToken)).thenReturn(claims);
+        when(jwtUtils.tryParseToken(validToken)).thenReturn(Optional.of(claims));
         when(claims.getSubject()).thenReturn(username);
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+        when(userDetails.isEnabled()).thenReturn(true);
         when(userDetails.getAuthorities()).thenReturn((Collection) Arrays.asList(new SimpleGrantedAuthority("ROLE_" + role)));
 
         // When
@@ -126,8 +131,8 @@ class JwtAuthFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateToken(validToken);
-        verify(jwtUtils).parseToken(validToken);
+        verify(jwtUtils).tryParseToken(validToken);
+        verify(jwtUtils, never()).parseToken(anyString());
         verify(claims).getSubject();
         verify(userDetailsService).loadUserByUsername(username);
         verify(securityContext).setAuthentication(any(Authentication.class));
@@ -145,10 +150,10 @@ class JwtAuthFilterTest {
         Claims claims = mock(Claims.class);
         UserDetails userDetails = mock(UserDetails.class);
         when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(jwtUtils.validateToken(validToken)).thenReturn(true);
-        when(jwtUtils.parseToken(validToken)).thenReturn(claims);
+        when(jwtUtils.tryParseToken(validToken)).thenReturn(Optional.of(claims));
         when(claims.getSubject()).thenReturn(username);
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+        when(userDetails.isEnabled()).thenReturn(true);
         when(userDetails.getAuthorities()).thenReturn((Collection) Arrays.asList(new SimpleGrantedAuthority("ROLE_" + role)));
 
         // When
@@ -158,4 +163,51 @@ class JwtAuthFilterTest {
         verify(filterChain).doFilter(request, response);
         verify(securityContext).setAuthentication(any(Authentication.class));
     }
+
+    @Test
+    @DisplayName("Should reuse cached principal for repeated requests with the same token")
+    void shouldReuseCachedPrincipalForSameToken() throws Exception {
+        // Given
+        String validToken = "valid.jwt.token";
+        Date issuedAt = new Date(1_700_000_000_000L);
+        Claims claims = mock(Claims.class);
+        UserDetails userDetails = mock(UserDetails.class);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
+        when(jwtUtils.tryParseToken(validToken)).thenReturn(Optional.of(claims));
+        when(claims.getSubject()).thenReturn("testuser");
+        when(claims.getIssuedAt()).thenReturn(issuedAt);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(userDetails.isEnabled()).thenReturn(true);
+
+        // When
+        jwtAuthFilter.doFilter(request, response, filterChain);
+        jwtAuthFilter.doFilter(request, response, filterChain);
+        principalCache.invalidate("testuser");
+        jwtAuthFilter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(userDetailsService, times(2)).loadUserByUsername("testuser");
+        verify(securityContext, times(3)).setAuthentication(any(Authentication.class));
+    }
+
+    @Test
+    @DisplayName("Should not authenticate disabled user even with a valid token")
+    void shouldNotAuthenticateDisabledUser() throws Exception {
+        // Given
+        String validToken = "valid.jwt.token";
+        Claims claims = mock(Claims.class);
+        UserDetails userDetails = mock(UserDetails.class);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
+        when(jwtUtils.tryParseToken(validToken)).thenReturn(Optional.of(claims));
+        when(claims.getSubject()).thenReturn("inactive");
+        when(userDetailsService.loadUserByUsername("inactive")).thenReturn(userDetails);
+        when(userDetails.isEnabled()).thenReturn(false);
+
+        // When
+        jwtAuthFilter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        verify(securityContext, never()).setAuthentication(any(Authentication.class));
+    }
 }
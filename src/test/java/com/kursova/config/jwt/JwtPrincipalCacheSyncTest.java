@@ -0,0 +1,118 @@
+package com.kursova.config.jwt;
+
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import com.kursova.support.JpaRepositoryTest;
+import com.kursova.support.TestData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that cached principals are dropped once a change of the user commits, and only then.
+ * Every step runs in its own transaction, like separate requests do.
+ */
+@JpaRepositoryTest
+@Import({JwtPrincipalCache.class, JwtPrincipalCacheSync.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JWT Principal Cache Sync Tests")
+class JwtPrincipalCacheSyncTest {
+
+    private static final Date ISSUED_AT = new Date(1_700_000_000_000L);
+
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        inTransaction(em -> userId = new TestData(em).user("sync.user", "Sync", "User", UserRole.TEACHER).getId());
+        principalCache.invalidateAll();
+        cachePrincipal("sync.user");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        inTransaction(em -> {
+            User user = em.find(User.class, userId);
+            if (user != null) {
+                em.remove(user);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should drop the principal after any committed change, not only role or status")
+    void shouldInvalidateAfterCommit() {
+        inTransaction(em -> {
+            em.find(User.class, userId).setFirstName("Renamed");
+            em.flush();
+            assertThat(principalCache.size()).as("before commit").isEqualTo(1);
+        });
+
+        assertThat(principalCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the principal when the change rolls back")
+    void shouldKeepPrincipalOnRollback() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            em.find(User.class, userId).setIsActive(false);
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(principalCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop the principal cached under the previous username")
+    void shouldInvalidatePreviousUsername() {
+        inTransaction(em -> em.find(User.class, userId).setUsername("sync.renamed"));
+
+        assertThat(principalCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop the principal of a deleted user")
+    void shouldInvalidateDeletedUser() {
+        inTransaction(em -> em.remove(em.find(User.class, userId)));
+
+        assertThat(principalCache.size()).isZero();
+    }
+
+    private void cachePrincipal(String username) {
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("password").roles("TEACHER").build();
+        principalCache.get(username, ISSUED_AT, name -> principal);
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                work.accept(EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)));
+    }
+}
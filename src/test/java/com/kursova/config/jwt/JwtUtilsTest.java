@@ -334,4 +334,20 @@ class JwtUtilsTest {
         // Then
         assertThat(isValid).isFalse();
     }
+
+    @Test
+    @DisplayName("Should carry the user id claim and omit it when missing")
+    void shouldCarryUserIdClaim() {
+        // Given
+        String token = jwtUtils.generateToken("student1", "STUDENT", 7L);
+        String guestToken = jwtUtils.generateToken("guest", "GUEST");
+
+        // When
+        Claims claims = jwtUtils.parseToken(token);
+        Claims guestClaims = jwtUtils.parseToken(guestToken);
+
+        // Then
+        assertThat(JwtUtils.idClaim(claims, JwtUtils.CLAIM_USER_ID)).isEqualTo(7L);
+        assertThat(guestClaims).doesNotContainKey(JwtUtils.CLAIM_USER_ID);
+    }
 }
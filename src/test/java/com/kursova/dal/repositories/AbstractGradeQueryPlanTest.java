@@ -0,0 +1,204 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.Subject;
+import com.kursova.dal.entities.Teacher;
+import com.kursova.support.JpaRepositoryTest;
+import com.kursova.support.TestData;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hot grade queries as Hibernate generates them against a seeded grades table and lets
+ * the subclass check the plan its database chose for each of them
+ */
+@JpaRepositoryTest
+@Import(AbstractGradeQueryPlanTest.CapturedQueries.class)
+abstract class AbstractGradeQueryPlanTest {
+
+    private static final GradeType[] SEEDED_TYPES = {
+            GradeType.LABORATORY_WORK, GradeType.PRACTICAL_WORK, GradeType.SEMINAR,
+            GradeType.CONTROL_WORK, GradeType.MODULE_WORK, GradeType.EXAM
+    };
+
+    private static final Pattern GRADES_ALIAS = Pattern.compile("grades (\\w+)");
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    private Student student;
+    private Subject subject;
+    private Teacher teacher;
+
+    @BeforeEach
+    void seed() {
+        TestData data = TestData.of(entityManager);
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            teachers.add(data.teacher("teacher" + i));
+        }
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            subjects.add(data.subject("Subject " + i, "PLN" + i));
+        }
+
+        LocalDateTime start = LocalDateTime.of(2024, 9, 1, 9, 0);
+        int day = 0;
+        for (int i = 0; i < 40; i++) {
+            Student seeded = data.student("student" + i);
+            for (int s = 0; s < subjects.size(); s++) {
+                for (GradeType type : SEEDED_TYPES) {
+                    Grade grade = data.grade(seeded, teachers.get(s % teachers.size()), subjects.get(s),
+                            60 + (day % 40), type, start.plusHours(day++));
+                    grade.setIsFinal(type == GradeType.EXAM);
+                }
+            }
+            if (i == 0) {
+                student = seeded;
+            }
+        }
+        data.flushAndClear();
+
+        subject = subjects.get(0);
+        teacher = teachers.get(0);
+    }
+
+    @Test
+    @DisplayName("Grades of a student are read newest first from an index")
+    void studentGradesUseIndex() {
+        assertIndexedPlan(() -> gradeRepository.findByStudentIdOrderByGradeDateDesc(student.getId()), true);
+    }
+
+    @Test
+    @DisplayName("Grades of a student in a subject are read newest first from an index")
+    void studentSubjectGradesUseIndex() {
+        assertIndexedPlan(() -> gradeRepository.findByStudentIdAndSubjectIdOrderByGradeDateDesc(
+                student.getId(), subject.getId()), true);
+    }
+
+    @Test
+    @DisplayName("Grades of a subject are read newest first from an index")
+    void subjectGradesUseIndex() {
+        assertIndexedPlan(() -> gradeRepository.findBySubjectIdOrderByGradeDateDesc(subject.getId()), true);
+    }
+
+    @Test
+    @DisplayName("Grades of a teacher are read newest first from an index")
+    void teacherGradesUseIndex() {
+        assertIndexedPlan(() -> gradeRepository.findByTeacherIdOrderByGradeDateDesc(teacher.getId()), true);
+    }
+
+    @Test
+    @DisplayName("Grades of a type are read newest first from an index")
+    void gradeTypeUsesIndex() {
+        assertIndexedPlan(() -> gradeRepository.findByGradeTypeOrderByGradeDateDesc(GradeType.EXAM), true);
+    }
+
+    @Test
+    @DisplayName("Grades in a date range are read newest first from an index")
+    void dateRangeUsesIndex() {
+        LocalDateTime from = LocalDateTime.of(2024, 9, 2, 0, 0);
+        assertIndexedPlan(() -> gradeRepository.findByGradeDateBetweenOrderByGradeDateDesc(from, from.plusDays(3)), true);
+        assertIndexedPlan(() -> gradeRepository.findStudentIdsByGradeDateBetween(from, from.plusDays(3)), false);
+    }
+
+    @Test
+    @DisplayName("Keyset pages are read in (grade_date, id) order from an index")
+    void keysetPagesUseIndex() {
+        assertIndexedPlan(() -> gradeRepository.findPageWithRelationsAfter(
+                LocalDateTime.of(2024, 9, 5, 0, 0), Long.MAX_VALUE, PageRequest.of(0, 20)), true);
+    }
+
+    @Test
+    @DisplayName("Final grades are read from an index")
+    void finalGradesUseIndex() {
+        // Ordered by subject name, which lives in another table, so only the access path is checked
+        assertIndexedPlan(() -> gradeRepository.findByStudentIdAndIsFinalTrueOrderBySubjectSubjectNameAsc(student.getId()), false);
+        assertIndexedPlan(() -> gradeRepository.getOverallAverageGradeForStudent(student.getId()), false);
+        assertIndexedPlan(() -> gradeRepository.findTopPerformingStudents(), false);
+    }
+
+    /**
+     * Checks the plan of the one grade query the repository call issues
+     *
+     * @param sql        the statement as Hibernate sent it
+     * @param parameters the values bound to its placeholders, in order
+     * @param alias      the alias of the grades table in the statement
+     */
+    protected abstract void assertPlan(String sql, List<Object> parameters, String alias, boolean orderedByIndex);
+
+    private void assertIndexedPlan(Runnable query, boolean orderedByIndex) {
+        CapturedQueries.QUERIES.clear();
+        query.run();
+        List<QueryInfo> selects = CapturedQueries.QUERIES.stream()
+                .filter(info -> info.getQuery().toLowerCase(Locale.ROOT).startsWith("select")
+                        && info.getQuery().contains("grades"))
+                .toList();
+        assertThat(selects).as("grade queries issued").hasSize(1);
+
+        QueryInfo select = selects.get(0);
+        List<Object> parameters = select.getParametersList().isEmpty() ? List.of()
+                : select.getParametersList().get(0).stream()
+                        .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                        .map(operation -> operation.getArgs()[1])
+                        .toList();
+        String alias = GRADES_ALIAS.matcher(select.getQuery()).results().findFirst()
+                .map(match -> match.group(1)).orElseThrow();
+        assertPlan(select.getQuery(), parameters, alias, orderedByIndex);
+    }
+
+    /**
+     * Wraps the DataSource so the tests see every statement Hibernate sends, with its parameters
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CapturedQueries {
+
+        static final List<QueryInfo> QUERIES = new CopyOnWriteArrayList<>();
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name("captured-queries")
+                                .afterQuery((execution, queries) -> QUERIES.addAll(queries))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
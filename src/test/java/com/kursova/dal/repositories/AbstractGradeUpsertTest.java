@@ -0,0 +1,104 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.Subject;
+import com.kursova.dal.entities.Teacher;
+import com.kursova.support.JpaRepositoryTest;
+import com.kursova.support.TestData;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the single-statement grade insert that leaves an existing grade of the same type untouched;
+ * subclasses run it on each database and check how a missing foreign key row is reported there
+ */
+@JpaRepositoryTest
+abstract class AbstractGradeUpsertTest {
+
+    @Autowired
+    protected GradeRepository gradeRepository;
+
+    @Autowired
+    protected TestEntityManager entityManager;
+
+    protected Student student;
+    protected Teacher teacher;
+    protected Subject subject;
+
+    @BeforeEach
+    void seed() {
+        TestData data = TestData.of(entityManager);
+        teacher = data.teacher("upsert.teacher");
+        subject = data.subject("Math", "UPS-1");
+        student = data.student("upsert.student");
+        // Warm up the pooled id generator so the statement counts below only see the insert itself
+        data.grade(student, teacher, subject, 60, GradeType.HOMEWORK);
+        data.flushAndClear();
+    }
+
+    @Test
+    @DisplayName("Should insert a new grade in one statement and report it")
+    void shouldInsertMissingGrade() {
+        Grade grade = new Grade(student, teacher, subject, 85, GradeType.EXAM);
+        grade.setComments("Good");
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        boolean inserted = gradeRepository.insertIfAbsent(grade);
+
+        assertThat(inserted).isTrue();
+        assertThat(grade.getId()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Grade stored = gradeRepository.findById(grade.getId()).orElseThrow();
+        assertThat(stored.getGradeValue()).isEqualTo(85);
+        assertThat(stored.getComments()).isEqualTo("Good");
+        assertThat(stored.getGradeCategoryEnum()).isEqualTo(grade.getGradeCategoryEnum());
+    }
+
+    @Test
+    @DisplayName("Should leave an existing grade of the same type untouched")
+    void shouldSkipExistingGrade() {
+        Grade first = new Grade(student, teacher, subject, 85, GradeType.EXAM);
+        first.setCreatedAt(LocalDateTime.of(2024, 9, 2, 10, 0));
+        first.setUpdatedAt(LocalDateTime.of(2024, 9, 2, 10, 0));
+        assertThat(gradeRepository.insertIfAbsent(first)).isTrue();
+
+        Grade second = new Grade(student, teacher, subject, 90, GradeType.EXAM);
+        second.setComments("Retake");
+        second.setCreatedAt(LocalDateTime.of(2024, 9, 3, 12, 0));
+        second.setUpdatedAt(LocalDateTime.of(2024, 9, 3, 12, 0));
+        boolean inserted = gradeRepository.insertIfAbsent(second);
+
+        assertThat(inserted).isFalse();
+        assertThat(second.getId()).isNull();
+        entityManager.clear();
+        assertThat(gradeRepository.findForUpdate(student.getId(), subject.getId(), GradeType.EXAM))
+                .hasValueSatisfying(grade -> {
+                    assertThat(grade.getId()).isEqualTo(first.getId());
+                    assertThat(grade.getGradeValue()).isEqualTo(85);
+                    assertThat(grade.getComments()).isNull();
+                    assertThat(grade.getUpdatedAt()).isEqualTo(first.getUpdatedAt());
+                });
+    }
+
+    protected Grade gradeOfMissingStudent() {
+        Student missing = new Student();
+        missing.setId(-1L);
+        return new Grade(missing, teacher, subject, 85, GradeType.EXAM);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().unwrap(Session.class).getSessionFactory().getStatistics();
+    }
+}
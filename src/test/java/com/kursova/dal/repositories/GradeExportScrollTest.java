@@ -0,0 +1,108 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.ArchivedGrade;
+import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.StudentGroup;
+import com.kursova.dal.entities.Subject;
+import com.kursova.dal.entities.Teacher;
+import com.kursova.support.JpaRepositoryTest;
+import com.kursova.support.TestData;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the filters of the export cursors over grades and archived grades
+ */
+@JpaRepositoryTest
+@DisplayName("Grade Export Scroll Tests")
+class GradeExportScrollTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 1, 10, 0);
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private ArchivedGradeRepository archivedGradeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private StudentGroup group;
+    private Subject math;
+    private List<Grade> grades;
+
+    @BeforeEach
+    void seed() {
+        TestData data = TestData.of(entityManager);
+        Teacher teacher = data.teacher("export.teacher");
+        group = data.group("Export group", "EX-1");
+        math = data.subject("Math", "EXM-1");
+        Subject physics = data.subject("Physics", "EXP-1");
+        Student inGroup = data.student("export.student1", "Ivan", "Grouped", group);
+        Student ungrouped = data.student("export.student2", "Petro", "Ungrouped", null);
+
+        grades = new ArrayList<>();
+        grades.add(data.grade(inGroup, teacher, math, 70, GradeType.EXAM, START));
+        grades.add(data.grade(inGroup, teacher, physics, 71, GradeType.EXAM, START.plusDays(1)));
+        grades.add(data.grade(inGroup, teacher, math, 72, GradeType.CONTROL_WORK, START.plusDays(2)));
+        grades.add(data.grade(ungrouped, teacher, math, 73, GradeType.EXAM, START.plusDays(3)));
+        grades.forEach(grade -> data.persist(new ArchivedGrade(grade, "admin", "export test")));
+        data.flushAndClear();
+    }
+
+    @Test
+    @DisplayName("Should stream all grade rows newest first without a filter")
+    void shouldScrollAllGrades() {
+        List<GradeListRow> rows = scrollGrades(new GradeExportFilter(null, null, null, null, null));
+
+        assertThat(rows).extracting(GradeListRow::id).containsExactly(
+                grades.get(3).getId(), grades.get(2).getId(), grades.get(1).getId(), grades.get(0).getId());
+        assertThat(rows.get(0).studentName()).isEqualTo("Petro Ungrouped");
+        assertThat(rows.get(0).groupId()).isNull();
+        assertThat(rows.get(1).groupName()).isEqualTo("Export group");
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should combine group, subject, date and type conditions")
+    void shouldFilterGrades() {
+        assertThat(scrollGrades(new GradeExportFilter(group.getId(), math.getId(), null, null, null)))
+                .extracting(GradeListRow::id).containsExactly(grades.get(2).getId(), grades.get(0).getId());
+        assertThat(scrollGrades(new GradeExportFilter(null, math.getId(), null, null, GradeType.EXAM)))
+                .extracting(GradeListRow::id).containsExactly(grades.get(3).getId(), grades.get(0).getId());
+        assertThat(scrollGrades(new GradeExportFilter(null, null, START.plusDays(1), START.plusDays(2), null)))
+                .extracting(GradeListRow::id).containsExactly(grades.get(2).getId(), grades.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should filter archived grade rows by original group, subject and type")
+    void shouldFilterArchivedGrades() {
+        List<Object[]> rows = new ArrayList<>();
+        archivedGradeRepository.scrollRows(new GradeExportFilter(group.getId(), math.getId(), null, null, GradeType.EXAM),
+                10, rows::add);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)[1]).isEqualTo(grades.get(0).getId());
+        assertThat(rows.get(0)[4]).isEqualTo("Ivan Grouped");
+        assertThat(rows.get(0)[6]).isEqualTo("EX-1");
+    }
+
+    private List<GradeListRow> scrollGrades(GradeExportFilter filter) {
+        List<GradeListRow> rows = new ArrayList<>();
+        gradeRepository.scrollListRows(filter, 2, rows::add);
+        return rows;
+    }
+}
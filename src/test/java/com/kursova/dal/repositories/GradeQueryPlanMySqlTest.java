@@ -0,0 +1,56 @@
+package com.kursova.dal.repositories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.support.MySqlContainer;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN FORMAT=JSON on the hot grade queries in MySQL and fails when the plan MySQL chose reads
+ * the grades table by a full table or index scan, or sorts the rows of an ordered query after reading
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Grade Query Plan Tests on MySQL")
+class GradeQueryPlanMySqlTest extends AbstractGradeQueryPlanTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void mySql(DynamicPropertyRegistry registry) {
+        MySqlContainer.register(registry);
+    }
+
+    @Override
+    protected void assertPlan(String sql, List<Object> parameters, String alias, boolean orderedByIndex) {
+        JsonNode plan = explain(sql, parameters);
+
+        List<JsonNode> grades = plan.findParents("table_name").stream()
+                .filter(table -> alias.equals(table.path("table_name").asText()))
+                .toList();
+        assertThat(grades).as("grades access in plan %s", plan).hasSize(1);
+        assertThat(grades.get(0).path("access_type").asText()).as("plan %s", plan).isNotIn("ALL", "index");
+        if (orderedByIndex) {
+            assertThat(plan.findValues("using_filesort")).as("filesort in plan %s", plan)
+                    .noneMatch(JsonNode::asBoolean);
+            assertThat(plan.findValues("using_temporary_table")).as("temporary table in plan %s", plan)
+                    .noneMatch(JsonNode::asBoolean);
+        }
+    }
+
+    private JsonNode explain(String sql, List<Object> parameters) {
+        String json = jdbcTemplate.queryForObject("EXPLAIN FORMAT=JSON " + sql, String.class, parameters.toArray());
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable plan: " + json, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.Grade;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the hot grade queries in H2 and fails when the grades table is read by a full scan.
+ * H2 only reads rows in ORDER BY order when the ORDER BY is a prefix of an index and prefers its own
+ * foreign key index for a single-column equality, so whether the rows are sorted after reading is
+ * checked on MySQL by {@link GradeQueryPlanMySqlTest}.
+ */
+@DisplayName("Grade Query Plan Tests")
+class GradeQueryPlanTest extends AbstractGradeQueryPlanTest {
+
+    @Test
+    @DisplayName("Migration creates every grade index the entity declares")
+    void migrationMatchesEntityIndexes() throws IOException {
+        List<String> declared = Arrays.stream(Grade.class.getAnnotation(Table.class).indexes())
+                .map(Index::name)
+                .toList();
+
+        String migration;
+        try (InputStream in = getClass().getResourceAsStream("/db/migration/V15__add_grade_access_indexes.sql")) {
+            assertThat(in).as("V15 migration").isNotNull();
+            migration = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> created = new ArrayList<>();
+        Matcher matcher = Pattern.compile("CREATE INDEX (\\w+) ON grades").matcher(migration);
+        while (matcher.find()) {
+            created.add(matcher.group(1));
+        }
+
+        assertThat(created).containsExactlyInAnyOrderElementsOf(declared);
+    }
+
+    @Override
+    protected void assertPlan(String sql, List<Object> parameters, String alias, boolean orderedByIndex) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                parameters.toArray()));
+        // Access path of the grades table in an H2 plan: "GRADES" "alias" /* PUBLIC.INDEX: condition */
+        Matcher access = Pattern.compile("\"GRADES\" \"" + alias.toUpperCase(Locale.ROOT) + "\"\\s+/\\* PUBLIC\\.([\\w.]+?)(?:: (.*?))?\\s*\\*/",
+                Pattern.DOTALL).matcher(plan);
+        assertThat(access.find()).as("grades access in plan %s", plan).isTrue();
+
+        assertThat(access.group(1)).as("plan %s", plan).doesNotEndWith("tableScan");
+        // An index without a condition is walked from end to end, which is a full scan too
+        assertThat(access.group(2)).as("index condition in plan %s", plan).isNotBlank();
+    }
+}
@@ -0,0 +1,36 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.Grade;
+import com.kursova.support.MySqlContainer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the grade upsert checks on MySQL, where the insert is an INSERT IGNORE
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Grade Upsert Tests on MySQL")
+class GradeUpsertMySqlTest extends AbstractGradeUpsertTest {
+
+    @DynamicPropertySource
+    static void mySql(DynamicPropertyRegistry registry) {
+        MySqlContainer.register(registry);
+    }
+
+    @Test
+    @DisplayName("Should insert nothing for a missing student, since IGNORE turns the foreign key error into a warning")
+    void shouldSkipMissingStudent() {
+        Grade grade = gradeOfMissingStudent();
+
+        boolean inserted = gradeRepository.insertIfAbsent(grade);
+
+        assertThat(inserted).isFalse();
+        assertThat(grade.getId()).isNull();
+        assertThat(gradeRepository.findForUpdate(-1L, subject.getId(), grade.getGradeType())).isEmpty();
+    }
+}
@@ -0,0 +1,21 @@
+package com.kursova.dal.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the grade upsert checks on H2, where the insert is a MERGE that fails on a missing foreign key row
+ */
+@DisplayName("Grade Upsert Tests")
+class GradeUpsertTest extends AbstractGradeUpsertTest {
+
+    @Test
+    @DisplayName("Should fail on a missing student through the foreign key")
+    void shouldRejectMissingStudent() {
+        assertThatThrownBy(() -> gradeRepository.insertIfAbsent(gradeOfMissingStudent()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,210 @@
+package com.kursova.dal.repositories;
+
+import com.kursova.dal.entities.StudentGroup;
+import com.kursova.dal.entities.Subject;
+import com.kursova.dal.entities.Teacher;
+import com.kursova.dal.entities.User;
+import com.kursova.support.JpaRepositoryTest;
+import com.kursova.support.TestData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that teachers, subjects and groups are served from the second-level cache
+ * once loaded, and that the reference lookups are answered by the query cache.
+ * Every step runs in its own committed transaction, like separate requests do.
+ */
+@JpaRepositoryTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Second Level Cache Tests")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private StudentGroupRepository groupRepository;
+
+    @Autowired
+    private GradeAggregateRepository gradeAggregateRepository;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long teacherId;
+    private Long subjectId;
+    private Long groupId;
+
+    @BeforeEach
+    void seed() {
+        inTransaction(em -> {
+            TestData data = new TestData(em);
+            Teacher teacher = data.teacher("cache.teacher");
+            StudentGroup group = data.group("Cache group", "CG-1");
+            Subject subject = data.subject("Cache subject", "CACHE-1");
+            subject.getTeachers().add(teacher);
+            subject.getGroups().add(group);
+
+            User user = teacher.getUser();
+            userId = user.getId();
+            teacherId = teacher.getId();
+            groupId = group.getId();
+            subjectId = subject.getId();
+            return null;
+        });
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        inTransaction(em -> {
+            em.remove(em.find(Subject.class, subjectId));
+            em.remove(em.find(StudentGroup.class, groupId));
+            em.remove(em.find(Teacher.class, teacherId));
+            em.remove(em.find(User.class, userId));
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should load reference entities from the cache after the first read")
+    void shouldServeEntitiesFromCache() {
+        inTransaction(this::loadReferenceEntities);
+        long statements = statistics.getPrepareStatementCount();
+
+        inTransaction(this::loadReferenceEntities);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics("teachers").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("subjects").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("student-groups").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should publish the region hits as the meters actuator exposes")
+    void shouldPublishRegionMeters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty())
+                .bindTo(registry);
+
+        inTransaction(this::loadReferenceEntities);
+        inTransaction(this::loadReferenceEntities);
+
+        assertThat(registry.get("hibernate.second.level.cache.requests")
+                .tags("region", "teachers", "result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("hibernate.second.level.cache.requests")
+                .tags("region", "subjects", "result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should load subject teachers and groups from the collection cache")
+    void shouldServeSubjectCollectionsFromCache() {
+        inTransaction(this::loadSubjectCollections);
+        long statements = statistics.getPrepareStatementCount();
+
+        inTransaction(this::loadSubjectCollections);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics("subject-teachers").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("subject-groups").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should answer lookups by username and code from the query cache")
+    void shouldServeLookupsFromQueryCache() {
+        inTransaction(this::lookUpByKeys);
+        long statements = statistics.getPrepareStatementCount();
+
+        inTransaction(this::lookUpByKeys);
+
+        // The user row comes from the query cache, only its inverse teacher and student links are selected
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements + 2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not serve a cached lookup after the table changed")
+    void shouldInvalidateLookupOnWrite() {
+        Optional<User> cached = inTransaction(em -> userRepository.findByUsername("cache.teacher"));
+        assertThat(cached).isPresent();
+
+        inTransaction(em -> {
+            em.find(User.class, userId).setFirstName("Renamed");
+            return null;
+        });
+
+        Optional<User> reloaded = inTransaction(em -> userRepository.findByUsername("cache.teacher"));
+        assertThat(reloaded).hasValueSatisfying(user -> assertThat(user.getFirstName()).isEqualTo("Renamed"));
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep cached entities when grade aggregates are rebuilt")
+    void shouldKeepEntitiesOnAggregateRebuild() {
+        inTransaction(this::loadReferenceEntities);
+
+        inTransaction(em -> gradeAggregateRepository.insertStudentAggregatesFromGrades());
+
+        assertThat(entityManagerFactory.getCache().contains(Teacher.class, teacherId)).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Subject.class, subjectId)).isTrue();
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                work.apply(EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)));
+    }
+
+    private Void loadReferenceEntities(EntityManager em) {
+        assertThat(em.find(Teacher.class, teacherId)).isNotNull();
+        assertThat(em.find(Subject.class, subjectId)).isNotNull();
+        assertThat(em.find(StudentGroup.class, groupId)).isNotNull();
+        return null;
+    }
+
+    private Void loadSubjectCollections(EntityManager em) {
+        Subject subject = em.find(Subject.class, subjectId);
+        assertThat(subject.getTeachers()).extracting(Teacher::getId).containsExactly(teacherId);
+        assertThat(subject.getGroups()).extracting(StudentGroup::getId).containsExactly(groupId);
+        return null;
+    }
+
+    private Void lookUpByKeys(EntityManager em) {
+        assertThat(userRepository.findByUsername("cache.teacher")).isPresent();
+        assertThat(subjectRepository.findBySubjectCode("CACHE-1")).isPresent();
+        assertThat(groupRepository.findByGroupCode("CG-1")).isPresent();
+        return null;
+    }
+}
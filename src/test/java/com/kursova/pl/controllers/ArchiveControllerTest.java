@@ -1,5 +1,8 @@
 package com.kursova.pl.controllers;
 
+import com.kursova.bll.dto.ArchiveJobRequestDto;
+import com.kursova.bll.dto.ArchiveJobStatusDto;
+import com.kursova.bll.services.ArchiveJobService;
 import com.kursova.bll.services.ArchiveService;
 import com.kursova.dal.entities.ArchivedGrade;
 import com.kursova.dal.entities.ArchivedStudent;
@@ -19,6 +22,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -35,6 +39,9 @@ class ArchiveControllerTest {
     @Mock
     private ArchiveService archiveService;
 
+    @Mock
+    private ArchiveJobService archiveJobService;
+
     @InjectMocks
     private ArchiveController archiveController;
 
@@ -427,4 +434,53 @@ class ArchiveControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         verify(archiveService).archiveStudent(studentId, "ADMIN", defaultReason);
     }
+
+    @Test
+    @DisplayName("Should accept archive job and return its status")
+    void submitArchiveJob_ShouldReturnAccepted() {
+        // Arrange
+        ArchiveJobRequestDto request = new ArchiveJobRequestDto();
+        request.setScope(ArchiveJobRequestDto.Scope.GROUP);
+        request.setGroupId(1L);
+        ArchiveJobStatusDto status = new ArchiveJobStatusDto();
+        status.setJobId("job-1");
+        status.setState(ArchiveJobStatusDto.State.QUEUED);
+        when(archiveJobService.submit(request, "ADMIN")).thenReturn(status);
+
+        // Act
+        ResponseEntity<?> response = archiveController.submitArchiveJob(request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getBody()).isEqualTo(status);
+    }
+
+    @Test
+    @DisplayName("Should return conflict when job queue is full")
+    void submitArchiveJob_ShouldReturnConflict_WhenQueueFull() {
+        // Arrange
+        ArchiveJobRequestDto request = new ArchiveJobRequestDto();
+        request.setScope(ArchiveJobRequestDto.Scope.GROUP);
+        request.setGroupId(1L);
+        when(archiveJobService.submit(request, "ADMIN")).thenThrow(new IllegalStateException("Too many archive jobs are queued"));
+
+        // Act
+        ResponseEntity<?> response = archiveController.submitArchiveJob(request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("Should return not found for unknown job")
+    void getArchiveJobStatus_ShouldReturnNotFound_WhenUnknown() {
+        // Arrange
+        when(archiveJobService.getStatus("missing")).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<ArchiveJobStatusDto> response = archiveController.getArchiveJobStatus("missing");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
 }
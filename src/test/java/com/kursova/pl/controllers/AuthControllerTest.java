@@ -2,7 +2,9 @@ package com.kursova.pl.controllers;
 
 import com.kursova.bll.dto.UserDto;
 import com.kursova.bll.services.UserService;
+import com.kursova.config.jwt.CustomUserDetails;
 import com.kursova.config.jwt.JwtUtils;
+import com.kursova.dal.entities.User;
 import com.kursova.dal.entities.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -86,7 +88,7 @@ class AuthControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(userService.findByUsername("testuser")).thenReturn(sampleUserDto);
-        when(jwtUtils.generateToken("testuser", "STUDENT")).thenReturn("jwt-token");
+        when(jwtUtils.generateToken("testuser", "STUDENT", 1L)).thenReturn("jwt-token");
 
         // Act
         ResponseEntity<AuthController.LoginResponse> response = authController.login(loginRequest);
@@ -101,7 +103,7 @@ class AuthControllerTest {
         assertEquals(sampleUserDto, body.getUser());
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userService).findByUsername("testuser");
-        verify(jwtUtils).generateToken("testuser", "STUDENT");
+        verify(jwtUtils).generateToken("testuser", "STUDENT", 1L);
     }
 
     @Test
@@ -289,6 +291,26 @@ class AuthControllerTest {
         verify(userService).findByUsername("testuser");
     }
 
+    @Test
+    void getCurrentUser_FromJwtPrincipal() {
+        // Arrange
+        User user = new User("testuser", "hash", "test@example.com", "Test", "User", UserRole.STUDENT);
+        user.setId(1L);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getName()).thenReturn("testuser");
+        when(authentication.getPrincipal()).thenReturn(new CustomUserDetails(user));
+        when(userService.findById(1L)).thenReturn(sampleUserDto);
+
+        // Act
+        ResponseEntity<UserDto> response = authController.getCurrentUser();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sampleUserDto, response.getBody());
+        verify(userService, never()).findByUsername(anyString());
+    }
+
     @Test
     void getCurrentUser_GuestUser() {
         // Arrange
@@ -1,7 +1,12 @@
 package com.kursova.pl.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.bll.dto.BulkGradeRequestDto;
+import com.kursova.bll.dto.BulkGradeResultDto;
 import com.kursova.bll.dto.GradeDto;
+import com.kursova.bll.dto.GradePageDto;
 import com.kursova.bll.services.GradeService;
+import com.kursova.config.jwt.CustomUserDetails;
 import com.kursova.dal.entities.*;
 import com.kursova.dal.repositories.*;
 import com.kursova.dal.uow.UnitOfWork;
@@ -10,11 +15,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 import java.util.*;
 
@@ -46,6 +57,9 @@ class GradeControllerTest {
     @Mock
     private Authentication authentication;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private GradeController gradeController;
 
@@ -105,6 +119,27 @@ class GradeControllerTest {
         verify(gradeService).create(sampleGradeDto);
     }
 
+    @Test
+    void createGradesBulk_ReturnsPerRowResults() {
+        // Arrange
+        BulkGradeRequestDto request = new BulkGradeRequestDto();
+        request.setTeacherId(1L);
+        request.setSubjectId(1L);
+        request.setGradeType(GradeType.EXAM);
+        request.setGrades(List.of(new BulkGradeRequestDto.Entry(1L, 90, null, null)));
+        BulkGradeResultDto result = new BulkGradeResultDto();
+        result.addRow(new BulkGradeResultDto.Row(0, 1L, BulkGradeResultDto.Status.CREATED, 10L, null));
+        when(gradeService.createGradesBulk(request)).thenReturn(result);
+
+        // Act
+        ResponseEntity<BulkGradeResultDto> response = gradeController.createGradesBulk(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getCreated());
+        assertEquals(10L, response.getBody().getRows().get(0).getGradeId());
+    }
+
     @Test
     void createGradeByIds_Success() {
         // Arrange
@@ -151,6 +186,19 @@ class GradeControllerTest {
         assertEquals("Failed to create grade", errorResponse.get("message"));
     }
 
+    @Test
+    void setGrade_Success() {
+        // Arrange
+        when(gradeService.setGrade(1L, 1L, 1L, 90, GradeType.EXAM, null)).thenReturn(sampleGradeDto);
+
+        // Act
+        ResponseEntity<GradeDto> response = gradeController.setGrade(1L, 1L, 1L, 90, GradeType.EXAM, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sampleGradeDto, response.getBody());
+    }
+
     @Test
     void createGradeByUserIds_Success() {
         // Arrange
@@ -228,6 +276,42 @@ class GradeControllerTest {
         verify(gradeService).findAll();
     }
 
+    @Test
+    void getGradesPage_Success() {
+        // Arrange
+        GradePageDto page = new GradePageDto(Collections.singletonList(sampleGradeDto), "2024-05-01T09:30:15_1", true);
+        when(gradeService.findPage("2024-05-02T10:00_5", 1)).thenReturn(page);
+
+        // Act
+        ResponseEntity<GradePageDto> response = gradeController.getGradesPage("2024-05-02T10:00_5", 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void streamAllGrades_WritesJsonArray() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<GradeDto> consumer = invocation.getArgument(0);
+            consumer.accept(sampleGradeDto);
+            consumer.accept(sampleGradeDto);
+            return null;
+        }).when(gradeService).streamAll(any());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = gradeController.streamAllGrades();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(out);
+
+        // Assert
+        List<?> written = objectMapper.readValue(out.toString(StandardCharsets.UTF_8), List.class);
+        assertEquals(2, written.size());
+        assertEquals(1, ((Map<?, ?>) written.get(0)).get("id"));
+    }
+
     @Test
     void getGradesByStudent_Success() {
         // Arrange
@@ -263,6 +347,24 @@ class GradeControllerTest {
         assertEquals(grades, response.getBody());
     }
 
+    @Test
+    void getMyGrades_UsesStudentIdFromJwtPrincipal() {
+        // Arrange
+        sampleUser.setRole(UserRole.STUDENT);
+        sampleUser.setStudent(sampleStudent);
+        when(authentication.getPrincipal()).thenReturn(new CustomUserDetails(sampleUser));
+        List<GradeDto> grades = Collections.singletonList(sampleGradeDto);
+        when(gradeService.findByStudentId(1L)).thenReturn(grades);
+
+        // Act
+        ResponseEntity<List<GradeDto>> response = gradeController.getMyGrades(authentication);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(grades, response.getBody());
+        verifyNoInteractions(userRepository, studentRepository);
+    }
+
     @Test
     void getMyGrades_AuthenticationNull() {
         // Act
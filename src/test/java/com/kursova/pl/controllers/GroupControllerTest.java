@@ -1,12 +1,16 @@
 package com.kursova.pl.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.bll.dto.GradebookDto;
+import com.kursova.bll.dto.GroupMembershipDeltaDto;
 import com.kursova.bll.dto.StudentDto;
 import com.kursova.bll.dto.StudentGroupDto;
 import com.kursova.bll.dto.UserDto;
+import com.kursova.bll.services.GradeService;
 import com.kursova.bll.services.StudentGroupService;
 import com.kursova.bll.services.StudentService;
 import com.kursova.dal.entities.EducationLevel;
+import com.kursova.dal.entities.GradeType;
 import com.kursova.dal.entities.StudyForm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,9 +21,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -35,6 +42,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never", "app.data.initialize=false"})
 @DisplayName("Group Controller Tests")
 class GroupControllerTest {
 
@@ -50,6 +59,9 @@ class GroupControllerTest {
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private GradeService gradeService;
+
     private StudentGroupDto testGroup;
     private StudentDto testStudent;
 
@@ -197,6 +209,26 @@ class GroupControllerTest {
         verify(studentService).findByGroupId(1L);
     }
 
+    @Test
+    @DisplayName("Should get group gradebook successfully")
+    @WithMockUser(roles = "TEACHER")
+    void shouldGetGroupGradebookSuccessfully() throws Exception {
+        // Given
+        GradebookDto gradebook = new GradebookDto(1L, 2L, Arrays.asList(1L, 3L), Arrays.asList("John Doe", "Jane Roe"),
+                Arrays.asList(GradeType.CONTROL_WORK, GradeType.EXAM), new int[][]{{85, 90}, {GradebookDto.NO_GRADE, 74}});
+        when(gradeService.getGroupGradebook(1L, 2L)).thenReturn(gradebook);
+
+        // When & Then
+        mockMvc.perform(get("/api/groups/1/gradebook").param("subjectId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentIds[1]").value(3))
+                .andExpect(jsonPath("$.gradeTypes[1]").value("EXAM"))
+                .andExpect(jsonPath("$.grades[1][0]").value(GradebookDto.NO_GRADE))
+                .andExpect(jsonPath("$.noGrade").value(GradebookDto.NO_GRADE));
+
+        verify(gradeService).getGroupGradebook(1L, 2L);
+    }
+
     @Test
     @DisplayName("Should add student to group successfully")
     @WithMockUser(roles = "ADMIN")
@@ -252,11 +284,9 @@ class GroupControllerTest {
     void shouldUpdateGroupStudentsSuccessfully() throws Exception {
         // Given
         List<Long> studentIds = Arrays.asList(1L, 2L);
-        List<StudentDto> currentStudents = Arrays.asList(testStudent);
-        List<StudentDto> updatedStudents = Arrays.asList(testStudent);
+        GroupMembershipDeltaDto delta = new GroupMembershipDeltaDto(1L, List.of(2L), List.of(), 1);
 
-        when(studentService.findByGroupId(1L)).thenReturn(currentStudents).thenReturn(updatedStudents);
-        when(studentService.assignToGroup(any(Long.class), eq(1L))).thenReturn(testStudent);
+        when(groupService.replaceMembers(eq(1L), any())).thenReturn(delta);
 
         // When & Then
         mockMvc.perform(put("/api/groups/1/students")
@@ -265,10 +295,12 @@ class GroupControllerTest {
                 .content(objectMapper.writeValueAsString(studentIds)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data[0].id").value(testStudent.getId()));
+                .andExpect(jsonPath("$.data.groupId").value(1))
+                .andExpect(jsonPath("$.data.addedStudentIds[0]").value(2))
+                .andExpect(jsonPath("$.data.unchangedCount").value(1));
 
-        verify(studentService, times(2)).findByGroupId(1L);
-        verify(studentService, times(2)).assignToGroup(any(Long.class), eq(1L));
+        verify(groupService).replaceMembers(1L, new LinkedHashSet<>(studentIds));
+        verify(studentService, never()).assignToGroup(any(Long.class), any(Long.class));
     }
 
     @Test
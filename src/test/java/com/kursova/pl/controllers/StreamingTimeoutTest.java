@@ -0,0 +1,138 @@
+package com.kursova.pl.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.bll.dto.GradeDto;
+import com.kursova.bll.services.ExportService;
+import com.kursova.bll.services.GradeService;
+import com.kursova.config.jwt.CustomUserDetails;
+import com.kursova.config.jwt.DbUserDetailsService;
+import com.kursova.config.jwt.JwtUtils;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.Writer;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the streamed endpoints on a real server whose container async timeout is cut to half a second,
+ * so a response that keeps streaming past it only completes when the application sets its own timeout
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(StreamingTimeoutTest.ShortContainerTimeout.class)
+@TestPropertySource(properties = {"spring.sql.init.mode=never", "app.data.initialize=false"})
+@DisplayName("Streaming Timeout Tests")
+class StreamingTimeoutTest {
+
+    private static final long CONTAINER_TIMEOUT_MS = 500;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private DbUserDetailsService userDetailsService;
+
+    @MockBean
+    private ExportService exportService;
+
+    @MockBean
+    private GradeService gradeService;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void authenticateAdmin() {
+        User admin = new User("stream.admin", "password", "stream.admin@univ.edu", "Stream", "Admin", UserRole.ADMIN);
+        admin.setId(1L);
+        when(userDetailsService.loadUserByUsername("stream.admin")).thenReturn(new CustomUserDetails(admin));
+        headers = new HttpHeaders();
+        headers.setBearerAuth(jwtUtils.generateToken("stream.admin", UserRole.ADMIN.name(), admin.getId()));
+    }
+
+    @Test
+    @DisplayName("Should finish a CSV export that streams longer than the container timeout")
+    void shouldFinishSlowExport() throws Exception {
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(1);
+            writer.write("id\n");
+            writer.flush();
+            Thread.sleep(CONTAINER_TIMEOUT_MS * 3);
+            writer.write("1\n");
+            return null;
+        }).when(exportService).writeGradesCsv(any(), any());
+
+        ResponseEntity<String> response = get("/api/export/grades.csv");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("\uFEFFid\n1\n");
+    }
+
+    @Test
+    @DisplayName("Should finish a grade stream that runs longer than the container timeout")
+    void shouldFinishSlowGradeStream() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<GradeDto> consumer = invocation.getArgument(0);
+            consumer.accept(grade(1L));
+            Thread.sleep(CONTAINER_TIMEOUT_MS * 3);
+            consumer.accept(grade(2L));
+            return null;
+        }).when(gradeService).streamAll(any());
+
+        ResponseEntity<String> response = get("/api/grades/stream");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode grades = objectMapper.readTree(response.getBody());
+        assertThat(grades).extracting(grade -> grade.path("id").asLong()).containsExactly(1L, 2L);
+    }
+
+    private static GradeDto grade(Long id) {
+        GradeDto grade = new GradeDto(90, GradeType.EXAM, 1L, 1L, 1L);
+        grade.setId(id);
+        return grade;
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class ShortContainerTimeout {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(CONTAINER_TIMEOUT_MS));
+        }
+    }
+}
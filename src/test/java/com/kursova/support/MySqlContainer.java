@@ -0,0 +1,28 @@
+package com.kursova.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * One MySQL 8 server shared by the tests that depend on MySQL's own planner, locking or SQL.
+ * Call {@link #register} from a {@code @DynamicPropertySource} method of a test class annotated with
+ * {@code @Testcontainers(disabledWithoutDocker = true)}; Hibernate then creates the schema on it.
+ */
+public final class MySqlContainer {
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+    private MySqlContainer() {
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        // Started on first use and left running for later test classes, Testcontainers removes it on exit
+        MYSQL.start();
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+}
@@ -0,0 +1,29 @@
+package com.kursova.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the SQL statements a test method body may run, by statement type.
+ * Statements from setup methods are not counted. Requires the DataSource to be wrapped
+ * by {@link QueryCountingConfiguration}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int UNLIMITED = -1;
+
+    int select() default UNLIMITED;
+
+    int insert() default UNLIMITED;
+
+    int update() default UNLIMITED;
+
+    int delete() default UNLIMITED;
+}
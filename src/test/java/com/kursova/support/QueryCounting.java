@@ -0,0 +1,57 @@
+package com.kursova.support;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement counts recorded by the proxied DataSource on the current thread, with assertions
+ * for tests that measure only part of their body:
+ * <pre>
+ * QueryCounting.reset();
+ * studentService.findByGroupId(groupId);
+ * QueryCounting.assertSelectsAtMost(2);
+ * </pre>
+ */
+public final class QueryCounting {
+
+    private QueryCounting() {
+    }
+
+    public static void reset() {
+        QueryCountHolder.clear();
+    }
+
+    public static QueryCount current() {
+        return QueryCountHolder.getGrandTotal();
+    }
+
+    public static void assertSelectsAtMost(int select) {
+        assertWithin("statements", select, QueryBudget.UNLIMITED, QueryBudget.UNLIMITED, QueryBudget.UNLIMITED);
+    }
+
+    /**
+     * Fail when any statement type exceeds its maximum; {@link QueryBudget#UNLIMITED} skips that type
+     */
+    public static void assertWithin(String label, int select, int insert, int update, int delete) {
+        QueryCount count = current();
+        List<String> exceeded = new ArrayList<>();
+        check(exceeded, "select", count.getSelect(), select);
+        check(exceeded, "insert", count.getInsert(), insert);
+        check(exceeded, "update", count.getUpdate(), update);
+        check(exceeded, "delete", count.getDelete(), delete);
+        if (!exceeded.isEmpty()) {
+            throw new AssertionError(label + " exceeded query budget: " + String.join(", ", exceeded)
+                    + " (select=" + count.getSelect() + ", insert=" + count.getInsert()
+                    + ", update=" + count.getUpdate() + ", delete=" + count.getDelete() + ")");
+        }
+    }
+
+    private static void check(List<String> exceeded, String type, long actual, int max) {
+        if (max != QueryBudget.UNLIMITED && actual > max) {
+            exceeded.add(type + " " + actual + " > " + max);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.kursova.support;
+
+import com.kursova.dal.entities.AssessmentType;
+import com.kursova.dal.entities.Grade;
+import com.kursova.dal.entities.GradeType;
+import com.kursova.dal.entities.Student;
+import com.kursova.dal.entities.StudentGroup;
+import com.kursova.dal.entities.StudyForm;
+import com.kursova.dal.entities.Subject;
+import com.kursova.dal.entities.Teacher;
+import com.kursova.dal.entities.User;
+import com.kursova.dal.entities.UserRole;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persists the entities repository tests seed. The username is the only key a caller has to keep
+ * unique: emails and student numbers are derived from it.
+ */
+public class TestData {
+
+    private final EntityManager entityManager;
+
+    public TestData(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public static TestData of(TestEntityManager entityManager) {
+        return new TestData(entityManager.getEntityManager());
+    }
+
+    public User user(String username, String firstName, String lastName, UserRole role) {
+        return persist(new User(username, "password", username + "@univ.edu", firstName, lastName, role));
+    }
+
+    public Teacher teacher(String username) {
+        return persist(new Teacher(user(username, "Olena", "Teacher", UserRole.TEACHER), "Docent", "Lecturer"));
+    }
+
+    public Student student(String username) {
+        return student(username, "Ivan", "Student", null);
+    }
+
+    public Student student(String username, String firstName, String lastName, StudentGroup group) {
+        Student student = new Student(user(username, firstName, lastName, UserRole.STUDENT),
+                username.toUpperCase(), 2024, StudyForm.FULL_TIME);
+        student.setGroup(group);
+        return persist(student);
+    }
+
+    public StudentGroup group(String name, String code) {
+        StudentGroup group = new StudentGroup(name, 1, StudyForm.FULL_TIME, 2024);
+        group.setGroupCode(code);
+        return persist(group);
+    }
+
+    public Subject subject(String name, String code) {
+        return persist(new Subject(name, code, 5, AssessmentType.EXAM));
+    }
+
+    public Grade grade(Student student, Teacher teacher, Subject subject, int value, GradeType type) {
+        return persist(new Grade(student, teacher, subject, value, type));
+    }
+
+    public Grade grade(Student student, Teacher teacher, Subject subject, int value, GradeType type,
+                       LocalDateTime date) {
+        Grade grade = new Grade(student, teacher, subject, value, type);
+        grade.setGradeDate(date);
+        return persist(grade);
+    }
+
+    public <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    /**
+     * Writes the seeded rows and detaches them, so the code under test reads from the database
+     */
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
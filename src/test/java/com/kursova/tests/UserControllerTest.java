@@ -2,6 +2,8 @@ package com.kursova.tests;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kursova.bll.dto.UserDto;
+import com.kursova.bll.dto.UserImportResultDto;
+import com.kursova.bll.services.UserImportService;
 import com.kursova.bll.services.UserService;
 import com.kursova.dal.entities.UserRole;
 import com.kursova.pl.controllers.UserController;
@@ -13,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -37,6 +40,9 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserImportService userImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -176,4 +182,22 @@ class UserControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].isActive").value(true));
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should import users from an uploaded CSV file")
+    void importUsers_ShouldReturnReport_WhenFileUploaded() throws Exception {
+        // Arrange
+        UserImportResultDto result = new UserImportResultDto();
+        result.addRow(new UserImportResultDto.Row(2, "new.student", UserImportResultDto.Status.CREATED, null));
+        when(userImportService.importCsv(any())).thenReturn(result);
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                "username,email,first_name,last_name,password\n".getBytes());
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/users/import").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"));
+    }
 }
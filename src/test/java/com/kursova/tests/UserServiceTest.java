@@ -43,6 +43,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private com.kursova.bll.search.UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -335,4 +338,60 @@ class UserServiceTest {
         assertThat(result.getIsActive()).isFalse();
         verify(userRepository).save(any(User.class));
     }
+
+    @Test
+    @DisplayName("Should store the encoded new password")
+    void updatePassword_ShouldSaveEncodedPassword() {
+        // Arrange
+        when(unitOfWork.getUserRepository()).thenReturn(userRepository);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("old", "hashedpassword")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("newhash");
+
+        // Act
+        userService.updatePassword(1L, "old", "new");
+
+        // Assert
+        assertThat(testUser.getPassword()).isEqualTo("newhash");
+        verify(userRepository).save(testUser);
+    }
+
+    @Test
+    @DisplayName("Should search users through the index in ranked order when it is ready")
+    void searchByName_ShouldUseIndexRanking_WhenIndexReady() {
+        // Arrange
+        User otherUser = new User();
+        otherUser.setId(2L);
+        UserDto otherUserDto = new UserDto();
+        otherUserDto.setId(2L);
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search("test", null, com.kursova.bll.search.UserSearchIndex.DEFAULT_LIMIT))
+            .thenReturn(List.of(2L, 1L));
+        when(unitOfWork.getUserRepository()).thenReturn(userRepository);
+        when(userRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testUser, otherUser));
+        when(userMapper.toDtoList(List.of(otherUser, testUser))).thenReturn(List.of(otherUserDto, testUserDto));
+
+        // Act
+        List<UserDto> result = userService.searchByName("test");
+
+        // Assert
+        assertThat(result).containsExactly(otherUserDto, testUserDto);
+        verify(userRepository, never()).searchByNameOrEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should search users in the database until the index is built")
+    void searchByName_ShouldQueryDatabase_WhenIndexNotReady() {
+        // Arrange
+        when(unitOfWork.getUserRepository()).thenReturn(userRepository);
+        when(userRepository.searchByNameOrEmail("test")).thenReturn(List.of(testUser));
+        when(userMapper.toDtoList(List.of(testUser))).thenReturn(List.of(testUserDto));
+
+        // Act
+        List<UserDto> result = userService.searchByName("test");
+
+        // Assert
+        assertThat(result).containsExactly(testUserDto);
+        verify(userSearchIndex, never()).search(anyString(), any(), anyInt());
+    }
 }